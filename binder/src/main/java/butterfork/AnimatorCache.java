@@ -0,0 +1,80 @@
+package butterfork;
+
+import android.animation.Animator;
+import android.animation.AnimatorInflater;
+import android.annotation.TargetApi;
+import android.content.Context;
+import android.content.res.Configuration;
+import android.os.Build;
+import android.util.SparseArray;
+
+/**
+ * Process-wide cache of {@link Animator} prototypes inflated from animator resources. The XML of
+ * each resource is parsed once and callers receive a {@link Animator#clone() clone} of the
+ * prototype so they are free to set targets and listeners.
+ * <p>
+ * Prototypes are inflated with the configuration of the context which requested them. A request
+ * from a context with a different configuration, such as after a rotation or a locale change,
+ * discards every prototype so that no animator outlives the configuration it was inflated for.
+ */
+@TargetApi(Build.VERSION_CODES.HONEYCOMB)
+public final class AnimatorCache {
+  private static final SparseArray<Animator> PROTOTYPES = new SparseArray<>();
+  // Configuration which the cached prototypes were inflated with.
+  private static Configuration configuration;
+  private static int hitCount;
+  private static int missCount;
+
+  private AnimatorCache() {
+    throw new AssertionError("No instances.");
+  }
+
+  /** Return a new copy of the animator for resource {@code id}, inflating it on first use. */
+  public static Animator get(Context context, int id) {
+    synchronized (PROTOTYPES) {
+      Configuration current = context.getResources().getConfiguration();
+      if (configuration == null || !configuration.equals(current)) {
+        PROTOTYPES.clear();
+        configuration = new Configuration(current);
+      }
+      Animator prototype = PROTOTYPES.get(id);
+      if (prototype != null) {
+        hitCount++;
+      } else {
+        missCount++;
+        prototype = AnimatorInflater.loadAnimator(context, id);
+        PROTOTYPES.put(id, prototype);
+      }
+      return prototype.clone();
+    }
+  }
+
+  /** Discard every cached prototype. */
+  public static void evictAll() {
+    synchronized (PROTOTYPES) {
+      PROTOTYPES.clear();
+      configuration = null;
+    }
+  }
+
+  /** The number of animator resources currently cached. */
+  public static int size() {
+    synchronized (PROTOTYPES) {
+      return PROTOTYPES.size();
+    }
+  }
+
+  /** The number of times {@link #get} cloned an already inflated prototype. */
+  public static int hitCount() {
+    synchronized (PROTOTYPES) {
+      return hitCount;
+    }
+  }
+
+  /** The number of times {@link #get} had to inflate an animator resource. */
+  public static int missCount() {
+    synchronized (PROTOTYPES) {
+      return missCount;
+    }
+  }
+}
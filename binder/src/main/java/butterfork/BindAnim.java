@@ -0,0 +1,21 @@
+package butterfork;
+
+import android.view.animation.Animation;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+import static java.lang.annotation.ElementType.FIELD;
+import static java.lang.annotation.RetentionPolicy.CLASS;
+
+/**
+ * Bind a field to a new {@link Animation} loaded from the specified anim resource ID.
+ * <pre><code>
+ * {@literal @}BindAnim(R.anim.fade_in) Animation fadeIn;
+ * </code></pre>
+ */
+@Retention(CLASS) @Target(FIELD)
+public @interface BindAnim {
+  /** Anim resource ID from which the {@link Animation} will be loaded. */
+  String value();
+}
@@ -0,0 +1,23 @@
+package butterfork;
+
+import android.animation.Animator;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+import static java.lang.annotation.ElementType.FIELD;
+import static java.lang.annotation.RetentionPolicy.CLASS;
+
+/**
+ * Bind a field to an {@link Animator} for the specified animator resource ID. Each resource is
+ * only inflated once per process and every binding receives its own clone, see
+ * {@link AnimatorCache}.
+ * <pre><code>
+ * {@literal @}BindAnimator(R.animator.flip) Animator flip;
+ * </code></pre>
+ */
+@Retention(CLASS) @Target(FIELD)
+public @interface BindAnimator {
+  /** Animator resource ID from which the {@link Animator} will be created. */
+  String value();
+}
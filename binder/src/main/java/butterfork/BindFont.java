@@ -0,0 +1,22 @@
+package butterfork;
+
+import android.graphics.Typeface;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+import static java.lang.annotation.ElementType.FIELD;
+import static java.lang.annotation.RetentionPolicy.CLASS;
+
+/**
+ * Bind a field to a {@link Typeface} loaded from the specified font asset. Fonts are shared
+ * through {@link TypefaceCache} so each asset is only loaded once per process.
+ * <pre><code>
+ * {@literal @}BindFont("fonts/Roboto-Light.ttf") Typeface light;
+ * </code></pre>
+ */
+@Retention(CLASS) @Target(FIELD)
+public @interface BindFont {
+  /** Path of the font file relative to the assets directory. */
+  String value();
+}
@@ -0,0 +1,23 @@
+package butterfork;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+import static java.lang.annotation.ElementType.FIELD;
+import static java.lang.annotation.RetentionPolicy.CLASS;
+
+/**
+ * Bind a field to the color of the specified theme attribute ID. Type can be {@code int} or
+ * {@link android.content.res.ColorStateList}.
+ * <pre><code>
+ * {@literal @}BindThemeColor(R.attr.colorAccent) int accent;
+ * {@literal @}BindThemeColor(R.attr.colorControlNormal) ColorStateList controlNormal;
+ * </code></pre>
+ * All theme attributes of a class are resolved with a single
+ * {@link android.content.Context#obtainStyledAttributes(int[]) obtainStyledAttributes} call.
+ */
+@Retention(CLASS) @Target(FIELD)
+public @interface BindThemeColor {
+  /** Theme attribute ID to which the field will be bound. */
+  String value();
+}
@@ -0,0 +1,23 @@
+package butterfork;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+import static java.lang.annotation.ElementType.FIELD;
+import static java.lang.annotation.RetentionPolicy.CLASS;
+
+/**
+ * Bind a field to the dimension of the specified theme attribute ID. Type can be {@code int} for
+ * pixel size or {@code float} for exact amount.
+ * <pre><code>
+ * {@literal @}BindThemeDimen(R.attr.actionBarSize) int actionBarSizePx;
+ * {@literal @}BindThemeDimen(R.attr.actionBarSize) float actionBarSize;
+ * </code></pre>
+ * All theme attributes of a class are resolved with a single
+ * {@link android.content.Context#obtainStyledAttributes(int[]) obtainStyledAttributes} call.
+ */
+@Retention(CLASS) @Target(FIELD)
+public @interface BindThemeDimen {
+  /** Theme attribute ID to which the field will be bound. */
+  String value();
+}
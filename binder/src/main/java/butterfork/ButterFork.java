@@ -4,6 +4,8 @@ import android.annotation.TargetApi;
 import android.app.Activity;
 import android.app.Dialog;
 import android.content.Context;
+import android.content.res.Resources;
+import android.content.res.TypedArray;
 import android.os.Build;
 import android.util.Log;
 import android.util.Property;
@@ -13,6 +15,9 @@ import java.util.Arrays;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
 
 /**
  * Field and method binding for Android views. Use this class to simplify finding views and
@@ -139,21 +144,83 @@ public final class ButterFork {
       return new ImmutableList<>(filterNull(views));
     }
 
+    /**
+     * Sorts theme attribute IDs in place into the ascending order which
+     * {@link Context#obtainStyledAttributes(int[])} requires. IDs of libraries are not known until
+     * runtime, so this is done once when a binder is loaded. Returns the index each ID moved to by
+     * its original index.
+     */
+    public static int[] sortAttrs(int[] attrs) {
+      int[] sorted = attrs.clone();
+      Arrays.sort(sorted);
+      int[] indices = new int[attrs.length];
+      for (int i = 0; i < attrs.length; i++) {
+        indices[i] = Arrays.binarySearch(sorted, attrs[i]);
+      }
+      System.arraycopy(sorted, 0, attrs, 0, sorted.length);
+      return indices;
+    }
+
+    /**
+     * Returns {@code index} if the theme has a value for the attribute there. Otherwise recycles
+     * {@code values} and throws, as resource lookups do for a missing resource.
+     */
+    public int requireAttr(Object source, TypedArray values, int[] attrs, int index, String who) {
+      if (values.hasValue(index)) {
+        return index;
+      }
+      values.recycle();
+      String name = getResourceEntryName(source, attrs[index]);
+      throw new Resources.NotFoundException("Theme attribute '"
+          + name
+          + "' with ID "
+          + attrs[index]
+          + " for "
+          + who
+          + " was not found in the theme.");
+    }
+
     public <T> T findRequiredView(Object source, int id, String who) {
       T view = findOptionalView(source, id, who);
       if (view == null) {
-        String name = getResourceEntryName(source, id);
-        throw new IllegalStateException("Required view '"
-            + name
-            + "' with ID "
-            + id
-            + " for "
-            + who
-            + " was not found. If this view is optional add '@Nullable' annotation.");
+        throw missingView(source, id, who);
       }
       return view;
     }
 
+    public IllegalStateException missingView(Object source, int id, String who) {
+      String name = getResourceEntryName(source, id);
+      return new IllegalStateException("Required view '"
+          + name
+          + "' with ID "
+          + id
+          + " for "
+          + who
+          + " was not found. If this view is optional add '@Nullable' annotation.");
+    }
+
+    public View findViewById(Object source, int id) {
+      return findView(source, id);
+    }
+
+    /**
+     * The failure for a required view of a binder generated without descriptions. The binding is
+     * listed by its index in {@code butterfork-descriptions.txt} under the binder's name.
+     */
+    public IllegalStateException missingView(Object source, int id, Class<?> binder,
+        int binding) {
+      String name = getResourceEntryName(source, id);
+      return new IllegalStateException("Required view '"
+          + name
+          + "' with ID "
+          + id
+          + " for binding #"
+          + binding
+          + " of "
+          + binder.getName()
+          + " was not found. If this view is optional add '@Nullable' annotation.");
+    }
+
     public <T> T findOptionalView(Object source, int id, String who) {
       View view = findView(source, id);
       return castView(view, id, who);
@@ -210,6 +277,99 @@ public final class ButterFork {
     void unbind(T target);
   }
 
+  /**
+   * DO NOT USE: Exposed for generated code. Binds views and listeners by calling
+   * {@code findViewById} on the concrete source type rather than through a {@link Finder}.
+   */
+  public interface SourceViewBinder<T> extends ViewBinder<T> {
+    void bind(T target, Activity source);
+    void bind(T target, View source);
+    void bind(T target, Dialog source);
+  }
+
+  /**
+   * DO NOT USE: Exposed for generated code. The binders of the targets in one package which have
+   * no binder class of their own.
+   */
+  public interface PackageBinder {
+    /** Returns the binder of {@code cls}, or null if it is not one of the targets. */
+    ViewBinder<Object> get(Class<?> cls);
+  }
+
+  /** DO NOT USE: Exposed for generated code. */
+  public interface ResourceBinder<T> {
+    void bindViews(Finder finder, T target, Object source);
+    void bindResources(Finder finder, T target, Object source);
+  }
+
+  /**
+   * Resource fields of a target which are being resolved on a background thread. Obtain one from
+   * {@link #prefetchResources(Activity, Executor)} before inflating the layout and call one of the
+   * {@code bindViews} methods once the views exist.
+   */
+  public static final class ResourcePrefetch {
+    private final Object target;
+    private final ViewBinder<Object> viewBinder;
+    private final FutureTask<Void> task;
+
+    ResourcePrefetch(Object target, ViewBinder<Object> viewBinder, FutureTask<Void> task) {
+      this.target = target;
+      this.viewBinder = viewBinder;
+      this.task = task;
+    }
+
+    /**
+     * Wait for the resources to be resolved and bind the views and listeners of the target using
+     * the content view of the {@code source} {@link Activity} as the view root.
+     */
+    public void bindViews(Activity source) {
+      bindViews(source, Finder.ACTIVITY);
+    }
+
+    /**
+     * Wait for the resources to be resolved and bind the views and listeners of the target using
+     * the {@code source} {@link View} as the view root.
+     */
+    public void bindViews(View source) {
+      bindViews(source, Finder.VIEW);
+    }
+
+    /**
+     * Wait for the resources to be resolved and bind the views and listeners of the target using
+     * the content view of the {@code source} {@link Dialog} as the view root.
+     */
+    public void bindViews(Dialog source) {
+      bindViews(source, Finder.DIALOG);
+    }
+
+    private void bindViews(Object source, Finder finder) {
+      String targetName = target.getClass().getName();
+      if (task == null) {
+        // Nothing was prefetched so a regular bind only touches views and listeners.
+        bind(target, source, finder);
+        return;
+      }
+      try {
+        task.get();
+      } catch (ExecutionException e) {
+        throw new RuntimeException("Unable to bind resources for " + targetName, e.getCause());
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new RuntimeException("Interrupted while binding resources for " + targetName, e);
+      }
+      try {
+        if (viewBinder instanceof SourceViewBinder) {
+          //noinspection unchecked
+          bindSourceViews((SourceViewBinder<Object>) viewBinder, target, source, finder);
+        } else {
+          asResourceBinder(viewBinder).bindViews(finder, target, source);
+        }
+      } catch (Exception e) {
+        throw new RuntimeException("Unable to bind views for " + targetName, e);
+      }
+    }
+  }
+
   /** An action that can be applied to a list of views. */
   public interface Action<T extends View> {
     /** Apply the action on the {@code view} which is at {@code index} in the list. */
@@ -224,18 +384,35 @@ public final class ButterFork {
 
   private static final String TAG = "ButterFork";
   private static boolean debug = false;
+  private static boolean packageBindersFirst = false;
 
   static final Map<Class<?>, ViewBinder<Object>> BINDERS = new LinkedHashMap<>();
   static final ViewBinder<Object> NOP_VIEW_BINDER = new ViewBinder<Object>() {
     @Override public void bind(Finder finder, Object target, Object source) { }
     @Override public void unbind(Object target) { }
   };
+  static final Map<String, PackageBinder> PACKAGE_BINDERS = new LinkedHashMap<>();
+  static final PackageBinder NOP_PACKAGE_BINDER = new PackageBinder() {
+    @Override public ViewBinder<Object> get(Class<?> cls) {
+      return null;
+    }
+  };
 
   /** Control whether debug logging is enabled. */
   public static void setDebug(boolean debug) {
     ButterFork.debug = debug;
   }
 
+  /**
+   * Control whether binders are looked up in the package binder of a target before its own binder
+   * class. Enable this when building with {@code -Apackagebinders=true}, so that the targets in a
+   * package binder are found without first failing to load a binder class of their own. Targets
+   * with a binder class of their own then pay one failed lookup per package instead.
+   */
+  public static void setPackageBindersFirst(boolean packageBindersFirst) {
+    ButterFork.packageBindersFirst = packageBindersFirst;
+  }
+
   /**
    * Bind annotated fields and methods in the specified {@link Activity}. The current content
    * view is used as the view root.
@@ -319,12 +496,185 @@ public final class ButterFork {
     }
   }
 
+  /**
+   * Re-resolve the resource fields (e.g., {@link BindString @BindString} or
+   * {@link BindDimen @BindDimen}) of the specified {@link Activity} without touching its views or
+   * listeners.
+   * <p>
+   * Use this in activities which handle configuration changes themselves (see
+   * {@code android:configChanges}) once the density, locale or UI mode has changed. Animators are
+   * inflated again as well, since {@link AnimatorCache} drops prototypes inflated for another
+   * configuration.
+   *
+   * @param target Target activity for resource binding.
+   */
+  public static void rebindResources(Activity target) {
+    rebindResources(target, target, Finder.ACTIVITY);
+  }
+
+  /**
+   * Re-resolve the resource fields of the specified {@link View} without touching its views or
+   * listeners.
+   *
+   * @param target Target view for resource binding.
+   */
+  public static void rebindResources(View target) {
+    rebindResources(target, target, Finder.VIEW);
+  }
+
+  /**
+   * Re-resolve the resource fields of the specified {@link Dialog} without touching its views or
+   * listeners.
+   *
+   * @param target Target dialog for resource binding.
+   */
+  public static void rebindResources(Dialog target) {
+    rebindResources(target, target, Finder.DIALOG);
+  }
+
+  /**
+   * Re-resolve the resource fields of the specified {@code target} using the context of the
+   * {@code source} {@link Activity}.
+   *
+   * @param target Target class for resource binding.
+   * @param source Activity whose resources will be used.
+   */
+  public static void rebindResources(Object target, Activity source) {
+    rebindResources(target, source, Finder.ACTIVITY);
+  }
+
+  /**
+   * Re-resolve the resource fields of the specified {@code target} using the context of the
+   * {@code source} {@link View}.
+   *
+   * @param target Target class for resource binding.
+   * @param source View whose resources will be used.
+   */
+  public static void rebindResources(Object target, View source) {
+    rebindResources(target, source, Finder.VIEW);
+  }
+
+  /**
+   * Re-resolve the resource fields of the specified {@code target} using the context of the
+   * {@code source} {@link Dialog}.
+   *
+   * @param target Target class for resource binding.
+   * @param source Dialog whose resources will be used.
+   */
+  public static void rebindResources(Object target, Dialog source) {
+    rebindResources(target, source, Finder.DIALOG);
+  }
+
+  /**
+   * Start resolving the resource fields of the specified {@link Activity} on {@code executor}.
+   * This can be called before {@code setContentView} so that resource loading overlaps with
+   * layout inflation:
+   * <pre><code>
+   * ResourcePrefetch prefetch = ButterFork.prefetchResources(this, executor);
+   * setContentView(R.layout.example_activity);
+   * prefetch.bindViews(this);
+   * </code></pre>
+   *
+   * @param target Target activity for resource binding.
+   * @param executor Executor on which resources will be resolved.
+   */
+  public static ResourcePrefetch prefetchResources(Activity target, Executor executor) {
+    return prefetchResources(target, target, Finder.ACTIVITY, executor);
+  }
+
+  /**
+   * Start resolving the resource fields of the specified {@link View} on {@code executor}.
+   *
+   * @param target Target view for resource binding.
+   * @param executor Executor on which resources will be resolved.
+   */
+  public static ResourcePrefetch prefetchResources(View target, Executor executor) {
+    return prefetchResources(target, target, Finder.VIEW, executor);
+  }
+
+  /**
+   * Start resolving the resource fields of the specified {@link Dialog} on {@code executor}.
+   *
+   * @param target Target dialog for resource binding.
+   * @param executor Executor on which resources will be resolved.
+   */
+  public static ResourcePrefetch prefetchResources(Dialog target, Executor executor) {
+    return prefetchResources(target, target, Finder.DIALOG, executor);
+  }
+
+  /**
+   * Start resolving the resource fields of the specified {@code target} on {@code executor}
+   * using the context of the {@code source} {@link Activity}.
+   *
+   * @param target Target class for resource binding.
+   * @param source Activity whose resources will be used.
+   * @param executor Executor on which resources will be resolved.
+   */
+  public static ResourcePrefetch prefetchResources(Object target, Activity source,
+      Executor executor) {
+    return prefetchResources(target, source, Finder.ACTIVITY, executor);
+  }
+
+  /**
+   * Start resolving the resource fields of the specified {@code target} on {@code executor}
+   * using the context of the {@code source} {@link View}.
+   *
+   * @param target Target class for resource binding.
+   * @param source View whose resources will be used.
+   * @param executor Executor on which resources will be resolved.
+   */
+  public static ResourcePrefetch prefetchResources(Object target, View source,
+      Executor executor) {
+    return prefetchResources(target, source, Finder.VIEW, executor);
+  }
+
+  /**
+   * Start resolving the resource fields of the specified {@code target} on {@code executor}
+   * using the context of the {@code source} {@link Dialog}.
+   *
+   * @param target Target class for resource binding.
+   * @param source Dialog whose resources will be used.
+   * @param executor Executor on which resources will be resolved.
+   */
+  public static ResourcePrefetch prefetchResources(Object target, Dialog source,
+      Executor executor) {
+    return prefetchResources(target, source, Finder.DIALOG, executor);
+  }
+
+  static ResourcePrefetch prefetchResources(final Object target, final Object source,
+      final Finder finder, Executor executor) {
+    Class<?> targetClass = target.getClass();
+    final ViewBinder<Object> viewBinder;
+    try {
+      if (debug) Log.d(TAG, "Looking up view binder for " + targetClass.getName());
+      viewBinder = findViewBinderForClass(targetClass);
+    } catch (Exception e) {
+      throw new RuntimeException("Unable to prefetch resources for " + targetClass.getName(), e);
+    }
+    if (!(viewBinder instanceof ResourceBinder)) {
+      return new ResourcePrefetch(target, viewBinder, null);
+    }
+    FutureTask<Void> task = new FutureTask<>(new Runnable() {
+      @Override public void run() {
+        asResourceBinder(viewBinder).bindResources(finder, target, source);
+      }
+    }, null);
+    executor.execute(task);
+    return new ResourcePrefetch(target, viewBinder, task);
+  }
+
   static void bind(Object target, Object source, Finder finder) {
     Class<?> targetClass = target.getClass();
     try {
       if (debug) Log.d(TAG, "Looking up view binder for " + targetClass.getName());
       ViewBinder<Object> viewBinder = findViewBinderForClass(targetClass);
-      if (viewBinder != null) {
+      if (viewBinder instanceof SourceViewBinder) {
+        //noinspection unchecked
+        bindSourceViews((SourceViewBinder<Object>) viewBinder, target, source, finder);
+        if (viewBinder instanceof ResourceBinder) {
+          asResourceBinder(viewBinder).bindResources(finder, target, source);
+        }
+      } else if (viewBinder != null) {
         viewBinder.bind(finder, target, source);
       }
     } catch (Exception e) {
@@ -332,6 +682,43 @@ public final class ButterFork {
     }
   }
 
+  /** Bind views and listeners with the variant of the binder for the type of {@code source}. */
+  private static void bindSourceViews(SourceViewBinder<Object> viewBinder, Object target,
+      Object source, Finder finder) {
+    switch (finder) {
+      case ACTIVITY:
+        viewBinder.bind(target, (Activity) source);
+        break;
+      case VIEW:
+        viewBinder.bind(target, (View) source);
+        break;
+      case DIALOG:
+        viewBinder.bind(target, (Dialog) source);
+        break;
+      default:
+        throw new AssertionError("Unknown finder " + finder);
+    }
+  }
+
+  static void rebindResources(Object target, Object source, Finder finder) {
+    Class<?> targetClass = target.getClass();
+    try {
+      if (debug) Log.d(TAG, "Looking up view binder for " + targetClass.getName());
+      ViewBinder<Object> viewBinder = findViewBinderForClass(targetClass);
+      if (viewBinder instanceof ResourceBinder) {
+        asResourceBinder(viewBinder).bindResources(finder, target, source);
+      }
+    } catch (Exception e) {
+      throw new RuntimeException("Unable to rebind resources for " + targetClass.getName(), e);
+    }
+  }
+
+  /** The resource phases of a binder which was checked to be a {@link ResourceBinder}. */
+  @SuppressWarnings("unchecked") // Generated binders bind the same target type in every phase.
+  private static ResourceBinder<Object> asResourceBinder(ViewBinder<Object> viewBinder) {
+    return (ResourceBinder<Object>) viewBinder;
+  }
+
   private static ViewBinder<Object> findViewBinderForClass(Class<?> cls)
       throws IllegalAccessException, InstantiationException {
     ViewBinder<Object> viewBinder = BINDERS.get(cls);
@@ -344,19 +731,55 @@ public final class ButterFork {
       if (debug) Log.d(TAG, "MISS: Reached framework class. Abandoning search.");
       return NOP_VIEW_BINDER;
     }
-    try {
-      Class<?> viewBindingClass = Class.forName(clsName + "$$ViewBinder");
-      //noinspection unchecked
-      viewBinder = (ViewBinder<Object>) viewBindingClass.newInstance();
-      if (debug) Log.d(TAG, "HIT: Loaded view binder class.");
-    } catch (ClassNotFoundException e) {
-      if (debug) Log.d(TAG, "Not found. Trying superclass " + cls.getSuperclass().getName());
-      viewBinder = findViewBinderForClass(cls.getSuperclass());
+    viewBinder = packageBindersFirst ? findPackageBinderForClass(cls).get(cls) : null;
+    if (viewBinder != null) {
+      if (debug) Log.d(TAG, "HIT: Found in package binder.");
+    } else {
+      try {
+        Class<?> viewBindingClass = Class.forName(clsName + "$$ViewBinder");
+        //noinspection unchecked
+        viewBinder = (ViewBinder<Object>) viewBindingClass.newInstance();
+        if (debug) Log.d(TAG, "HIT: Loaded view binder class.");
+      } catch (ClassNotFoundException e) {
+        // Unless asked to look there first, only classes without a binder of their own look for a
+        // package binder, once per package.
+        if (!packageBindersFirst) {
+          viewBinder = findPackageBinderForClass(cls).get(cls);
+        }
+        if (viewBinder != null) {
+          if (debug) Log.d(TAG, "HIT: Found in package binder.");
+        } else {
+          if (debug) Log.d(TAG, "Not found. Trying superclass " + cls.getSuperclass().getName());
+          viewBinder = findViewBinderForClass(cls.getSuperclass());
+        }
+      }
     }
     BINDERS.put(cls, viewBinder);
     return viewBinder;
   }
 
+  private static PackageBinder findPackageBinderForClass(Class<?> cls)
+      throws IllegalAccessException, InstantiationException {
+    String clsName = cls.getName();
+    int lastDot = clsName.lastIndexOf('.');
+    String packageName = lastDot != -1 ? clsName.substring(0, lastDot) : "";
+    PackageBinder packageBinder = PACKAGE_BINDERS.get(packageName);
+    if (packageBinder != null) {
+      return packageBinder;
+    }
+    String binderName = packageName.isEmpty()
+        ? "ButterFork$$PackageBinder"
+        : packageName + ".ButterFork$$PackageBinder";
+    try {
+      packageBinder = (PackageBinder) Class.forName(binderName).newInstance();
+      if (debug) Log.d(TAG, "Loaded package binder " + binderName);
+    } catch (ClassNotFoundException e) {
+      packageBinder = NOP_PACKAGE_BINDER;
+    }
+    PACKAGE_BINDERS.put(packageName, packageBinder);
+    return packageBinder;
+  }
+
   /** Apply the specified {@code action} across the {@code list} of views. */
   public static <T extends View> void apply(List<T> list, Action<? super T> action) {
     for (int i = 0, count = list.size(); i < count; i++) {
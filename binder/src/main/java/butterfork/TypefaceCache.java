@@ -0,0 +1,68 @@
+package butterfork;
+
+import android.content.Context;
+import android.graphics.Typeface;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Process-wide cache of {@link Typeface} instances created from font assets. Assets do not depend
+ * on the configuration, so every context shares the typeface loaded for a path and each asset is
+ * loaded at most once until {@link #evictAll()} is called.
+ */
+public final class TypefaceCache {
+  private static final Map<String, Typeface> TYPEFACES = new LinkedHashMap<>();
+  private static int hitCount;
+  private static int missCount;
+
+  private TypefaceCache() {
+    throw new AssertionError("No instances.");
+  }
+
+  /** Return the typeface for the font asset at {@code path}, loading it on first use. */
+  public static Typeface get(Context context, String path) {
+    synchronized (TYPEFACES) {
+      Typeface typeface = TYPEFACES.get(path);
+      if (typeface != null) {
+        hitCount++;
+        return typeface;
+      }
+      missCount++;
+      typeface = Typeface.createFromAsset(context.getAssets(), path);
+      TYPEFACES.put(path, typeface);
+      return typeface;
+    }
+  }
+
+  /**
+   * Discard every cached typeface, such as when the application is asked to trim its memory.
+   * Typefaces still in use stay valid and later requests load their asset again.
+   */
+  public static void evictAll() {
+    synchronized (TYPEFACES) {
+      TYPEFACES.clear();
+    }
+  }
+
+  /** The number of font assets currently loaded. */
+  public static int size() {
+    synchronized (TYPEFACES) {
+      return TYPEFACES.size();
+    }
+  }
+
+  /** The number of times {@link #get} returned an already loaded typeface. */
+  public static int hitCount() {
+    synchronized (TYPEFACES) {
+      return hitCount;
+    }
+  }
+
+  /** The number of times {@link #get} had to load a font asset. */
+  public static int missCount() {
+    synchronized (TYPEFACES) {
+      return missCount;
+    }
+  }
+}
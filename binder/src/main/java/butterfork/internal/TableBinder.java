@@ -0,0 +1,100 @@
+package butterfork.internal;
+
+import android.view.View;
+
+import butterfork.ButterFork;
+
+/**
+ * DO NOT USE: Exposed for generated code. Binds the views of a target by walking a table of view
+ * IDs instead of running straight-line generated code. Generated subclasses only assign fields and
+ * call listener methods by the index of a view in the table, and all of them share the listener
+ * class below, so a target costs a few small methods rather than a class per listener.
+ */
+public abstract class TableBinder<T> implements ButterFork.ViewBinder<T> {
+  /** The view is assigned to the fields at its index. */
+  public static final int FIELD = 1;
+  /** A missing view is an error. */
+  public static final int REQUIRED = 1 << 1;
+  /** Clicks on the view call the methods at its index. */
+  public static final int CLICK = 1 << 2;
+  /** Long clicks on the view call the method at its index. */
+  public static final int LONG_CLICK = 1 << 3;
+
+  private final int[] ids;
+  private final int[] kinds;
+  private final String[] descriptions;
+
+  /**
+   * {@code kinds} holds the flags of the view with the ID at the same index in {@code ids}, and
+   * {@code descriptions} what is bound to it for reporting a missing required view.
+   */
+  protected TableBinder(int[] ids, int[] kinds, String[] descriptions) {
+    this.ids = ids;
+    this.kinds = kinds;
+    this.descriptions = descriptions;
+  }
+
+  @Override public void bind(ButterFork.Finder finder, T target, Object source) {
+    for (int i = 0; i < ids.length; i++) {
+      int kind = kinds[i];
+      View view = finder.findViewById(source, ids[i]);
+      if (view == null && (kind & REQUIRED) != 0) {
+        throw finder.missingView(source, ids[i], descriptions[i]);
+      }
+      if ((kind & FIELD) != 0) {
+        setView(target, i, view);
+      }
+      if (view != null && (kind & (CLICK | LONG_CLICK)) != 0) {
+        Listener<T> listener = new Listener<>(this, target, i);
+        if ((kind & CLICK) != 0) {
+          view.setOnClickListener(listener);
+        }
+        if ((kind & LONG_CLICK) != 0) {
+          view.setOnLongClickListener(listener);
+        }
+      }
+    }
+  }
+
+  @Override public void unbind(T target) {
+    for (int i = 0; i < ids.length; i++) {
+      if ((kinds[i] & FIELD) != 0) {
+        setView(target, i, null);
+      }
+    }
+  }
+
+  /** Assigns {@code view}, which may be null, to the fields bound to the view at {@code index}. */
+  protected void setView(T target, int index, View view) {
+  }
+
+  /** Calls the methods bound to clicks on the view at {@code index}. */
+  protected void click(T target, int index, View view) {
+  }
+
+  /** Calls the method bound to long clicks on the view at {@code index}. */
+  protected boolean longClick(T target, int index, View view) {
+    return false;
+  }
+
+  private static final class Listener<T> extends DebouncingOnClickListener
+      implements View.OnLongClickListener {
+    private final TableBinder<T> binder;
+    private final T target;
+    private final int index;
+
+    Listener(TableBinder<T> binder, T target, int index) {
+      this.binder = binder;
+      this.target = target;
+      this.index = index;
+    }
+
+    @Override public void doClick(View v) {
+      binder.click(target, index, v);
+    }
+
+    @Override public boolean onLongClick(View v) {
+      return binder.longClick(target, index, v);
+    }
+  }
+}
@@ -1,8 +1,15 @@
 package butterfork;
 
+import android.animation.Animator;
 import android.app.Activity;
+import android.app.Dialog;
+import android.content.res.Configuration;
+import android.content.res.Resources;
+import android.content.res.TypedArray;
+import android.graphics.Typeface;
 import android.util.Property;
 import android.view.View;
+import android.widget.FrameLayout;
 
 import org.junit.After;
 import org.junit.Before;
@@ -13,9 +20,12 @@ import org.robolectric.RobolectricTestRunner;
 import org.robolectric.RuntimeEnvironment;
 import org.robolectric.annotation.Config;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.Executor;
 
+import butterfork.internal.TableBinder;
 import butterfork.shadow.EditModeShadowView;
 
 import static butterfork.ButterFork.Finder.arrayOf;
@@ -52,6 +62,8 @@ public class ButterForkTest {
   @Before @After // Clear out cache of binders before and after each test.
   public void resetViewsCache() {
     ButterFork.BINDERS.clear();
+    ButterFork.PACKAGE_BINDERS.clear();
+    ButterFork.setPackageBindersFirst(false);
   }
 
   @Test public void listOfFiltersNull() {
@@ -74,6 +86,27 @@ public class ButterForkTest {
     assertThat(arrayOf(null, "One", "Two")).containsExactly("One", "Two");
   }
 
+  @Test public void sortAttrsSortsInPlaceAndMapsPositions() {
+    int[] attrs = { 30, 10, 20 };
+    int[] indices = ButterFork.Finder.sortAttrs(attrs);
+    assertThat(attrs).containsExactly(10, 20, 30);
+    assertThat(indices).containsExactly(2, 0, 1);
+  }
+
+  @Test public void requireAttrReportsMissingThemeAttribute() {
+    int[] attrs = { android.R.attr.layout_width };
+    TypedArray values = RuntimeEnvironment.application.obtainStyledAttributes(attrs);
+    View source = new View(RuntimeEnvironment.application);
+    try {
+      ButterFork.Finder.VIEW.requireAttr(source, values, attrs, 0, "field 'width'");
+      fail("Theme attribute 'layout_width' should not have been found.");
+    } catch (Resources.NotFoundException e) {
+      assertThat(e).hasMessage("Theme attribute 'layout_width' with ID "
+          + android.R.attr.layout_width
+          + " for field 'width' was not found in the theme.");
+    }
+  }
+
   @Test public void propertyAppliedToEveryView() {
     View view1 = new View(RuntimeEnvironment.application);
     View view2 = new View(RuntimeEnvironment.application);
@@ -140,6 +173,290 @@ public class ButterForkTest {
     assertThat(ButterFork.BINDERS).contains(entry(Example.class, ButterFork.NOP_VIEW_BINDER));
   }
 
+  @Test public void zeroBindingsRebindResourcesDoesNotThrowException() {
+    class Example {
+    }
+
+    Example example = new Example();
+    ButterFork.rebindResources(example, null, null);
+    assertThat(ButterFork.BINDERS).contains(entry(Example.class, ButterFork.NOP_VIEW_BINDER));
+  }
+
+  @Test public void rebindResourcesInflatesAnimatorsForNewConfiguration() {
+    class Example {
+      Animator fade;
+    }
+
+    ButterFork.BINDERS.put(Example.class, new ExampleResourceBinder() {
+      @Override public void bindResources(ButterFork.Finder finder, Object target,
+          Object source) {
+        ((Example) target).fade =
+            AnimatorCache.get(RuntimeEnvironment.application, android.R.animator.fade_in);
+      }
+    });
+    AnimatorCache.evictAll();
+    Example example = new Example();
+    ButterFork.rebindResources(example, null, null);
+    int misses = AnimatorCache.missCount();
+
+    Resources resources = RuntimeEnvironment.application.getResources();
+    Configuration configuration = new Configuration(resources.getConfiguration());
+    configuration.orientation =
+        configuration.orientation == Configuration.ORIENTATION_LANDSCAPE
+            ? Configuration.ORIENTATION_PORTRAIT
+            : Configuration.ORIENTATION_LANDSCAPE;
+    resources.updateConfiguration(configuration, resources.getDisplayMetrics());
+    ButterFork.rebindResources(example, null, null);
+
+    assertThat(example.fade).isNotNull();
+    assertThat(AnimatorCache.missCount()).isEqualTo(misses + 1);
+    assertThat(AnimatorCache.size()).isEqualTo(1);
+  }
+
+  @Test public void zeroBindingsPrefetchResourcesDoesNotThrowException() {
+    class Example {
+    }
+
+    Executor executor = new Executor() {
+      @Override public void execute(Runnable command) {
+        fail("Nothing should be prefetched for a target without resource bindings.");
+      }
+    };
+    Example example = new Example();
+    ButterFork.ResourcePrefetch prefetch =
+        ButterFork.prefetchResources(example, null, null, executor);
+    prefetch.bindViews((View) null);
+    assertThat(ButterFork.BINDERS).contains(entry(Example.class, ButterFork.NOP_VIEW_BINDER));
+  }
+
+  @Test public void prefetchResourcesUsesFinderOfSource() {
+    class Example {
+    }
+
+    final List<ButterFork.Finder> finders = new ArrayList<>();
+    ButterFork.BINDERS.put(Example.class, new ExampleResourceBinder() {
+      @Override public void bindResources(ButterFork.Finder finder, Object target,
+          Object source) {
+        finders.add(finder);
+      }
+    });
+    Executor executor = new Executor() {
+      @Override public void execute(Runnable command) {
+        command.run();
+      }
+    };
+    Dialog dialog = new Dialog(RuntimeEnvironment.application);
+    View view = new View(RuntimeEnvironment.application);
+    ButterFork.prefetchResources(new Example(), view, executor);
+    ButterFork.prefetchResources(new Example(), dialog, executor);
+    assertThat(finders).containsExactly(ButterFork.Finder.VIEW, ButterFork.Finder.DIALOG);
+  }
+
+  @Test public void bindRoutesToSourceViewBinder() {
+    class Example {
+    }
+
+    final List<String> calls = new ArrayList<>();
+    ButterFork.BINDERS.put(Example.class, new ButterFork.SourceViewBinder<Object>() {
+      @Override public void bind(ButterFork.Finder finder, Object target, Object source) {
+        calls.add("finder");
+      }
+
+      @Override public void bind(Object target, Activity source) {
+        calls.add("activity");
+      }
+
+      @Override public void bind(Object target, View source) {
+        calls.add("view");
+      }
+
+      @Override public void bind(Object target, Dialog source) {
+        calls.add("dialog");
+      }
+
+      @Override public void unbind(Object target) {
+      }
+    });
+
+    Example example = new Example();
+    ButterFork.bind(example, Robolectric.buildActivity(Activity.class).create().get());
+    ButterFork.bind(example, new View(RuntimeEnvironment.application));
+    assertThat(calls).containsExactly("activity", "view");
+  }
+
+  @Test public void tableBinderBindsFieldsAndListeners() {
+    class Example {
+      View button;
+      int clicks;
+    }
+
+    ButterFork.BINDERS.put(Example.class, new TableBinder<Object>(
+        new int[] { android.R.id.button1 },
+        new int[] { TableBinder.FIELD | TableBinder.REQUIRED | TableBinder.CLICK },
+        new String[] { "field 'button'" }) {
+      @Override protected void setView(Object target, int index, View view) {
+        ((Example) target).button = view;
+      }
+
+      @Override protected void click(Object target, int index, View view) {
+        ((Example) target).clicks++;
+      }
+    });
+
+    FrameLayout parent = new FrameLayout(RuntimeEnvironment.application);
+    View button = new View(RuntimeEnvironment.application);
+    button.setId(android.R.id.button1);
+    parent.addView(button);
+
+    Example example = new Example();
+    ButterFork.bind(example, parent);
+    assertThat(example.button).isSameAs(button);
+    button.performClick();
+    assertThat(example.clicks).isEqualTo(1);
+
+    ButterFork.unbind(example);
+    assertThat(example.button).isNull();
+  }
+
+  @Test public void tableBinderReportsMissingRequiredView() {
+    class Example {
+    }
+
+    ButterFork.BINDERS.put(Example.class, new TableBinder<Object>(
+        new int[] { android.R.id.button1 },
+        new int[] { TableBinder.FIELD | TableBinder.REQUIRED },
+        new String[] { "field 'button'" }) {
+    });
+
+    try {
+      ButterFork.bind(new Example(), new View(RuntimeEnvironment.application));
+      fail("View 'button1' with ID " + android.R.id.button1 + " should not have been found.");
+    } catch (RuntimeException e) {
+      assertThat(e.getCause()).hasMessage("Required view 'button1' with ID "
+          + android.R.id.button1
+          + " for field 'button' was not found."
+          + " If this view is optional add '@Nullable' annotation.");
+    }
+  }
+
+  @Test public void packageBinderFoundBeforeSuperclass() {
+    class Base {
+    }
+    class Example extends Base {
+    }
+
+    final List<String> calls = new ArrayList<>();
+    ButterFork.BINDERS.put(Base.class, new ButterFork.ViewBinder<Object>() {
+      @Override public void bind(ButterFork.Finder finder, Object target, Object source) {
+        calls.add("base");
+      }
+
+      @Override public void unbind(Object target) {
+      }
+    });
+    ButterFork.PACKAGE_BINDERS.put("butterfork", new ButterFork.PackageBinder() {
+      @Override public ButterFork.ViewBinder<Object> get(Class<?> cls) {
+        if (cls != Example.class) {
+          return null;
+        }
+        return new ButterFork.ViewBinder<Object>() {
+          @Override public void bind(ButterFork.Finder finder, Object target, Object source) {
+            calls.add("package");
+          }
+
+          @Override public void unbind(Object target) {
+          }
+        };
+      }
+    });
+
+    ButterFork.bind(new Example(), new View(RuntimeEnvironment.application));
+    ButterFork.bind(new Base(), new View(RuntimeEnvironment.application));
+    assertThat(calls).containsExactly("package", "base");
+  }
+
+  @Test public void packageBinderFoundBeforeOwnBinderWhenEnabled() {
+    ButterFork.PACKAGE_BINDERS.put("butterfork", new ButterFork.PackageBinder() {
+      @Override public ButterFork.ViewBinder<Object> get(Class<?> cls) {
+        if (cls != PackageTarget.class) {
+          return null;
+        }
+        return new ButterFork.ViewBinder<Object>() {
+          @Override public void bind(ButterFork.Finder finder, Object target, Object source) {
+            ((PackageTarget) target).boundBy = "package";
+          }
+
+          @Override public void unbind(Object target) {
+          }
+        };
+      }
+    });
+
+    PackageTarget target = new PackageTarget();
+    ButterFork.bind(target, new View(RuntimeEnvironment.application));
+    assertThat(target.boundBy).isEqualTo("own");
+
+    ButterFork.BINDERS.clear();
+    ButterFork.setPackageBindersFirst(true);
+    ButterFork.bind(target, new View(RuntimeEnvironment.application));
+    assertThat(target.boundBy).isEqualTo("package");
+  }
+
+  @Test public void animatorCacheClonesPrototypePerResource() {
+    AnimatorCache.evictAll();
+    int hits = AnimatorCache.hitCount();
+    int misses = AnimatorCache.missCount();
+    Activity activity = Robolectric.buildActivity(Activity.class).create().get();
+
+    Animator fadeIn = AnimatorCache.get(RuntimeEnvironment.application, android.R.animator.fade_in);
+    Animator again = AnimatorCache.get(activity, android.R.animator.fade_in);
+    AnimatorCache.get(RuntimeEnvironment.application, android.R.animator.fade_out);
+
+    assertThat(again).isNotSameAs(fadeIn);
+    assertThat(AnimatorCache.size()).isEqualTo(2);
+    assertThat(AnimatorCache.hitCount()).isEqualTo(hits + 1);
+    assertThat(AnimatorCache.missCount()).isEqualTo(misses + 2);
+  }
+
+  @Test public void animatorCacheInflatesAgainAfterEviction() {
+    AnimatorCache.get(RuntimeEnvironment.application, android.R.animator.fade_in);
+    AnimatorCache.evictAll();
+    assertThat(AnimatorCache.size()).isEqualTo(0);
+
+    int misses = AnimatorCache.missCount();
+    AnimatorCache.get(RuntimeEnvironment.application, android.R.animator.fade_in);
+    assertThat(AnimatorCache.missCount()).isEqualTo(misses + 1);
+    assertThat(AnimatorCache.size()).isEqualTo(1);
+  }
+
+  @Config(manifest = "src/test/AndroidManifest.xml") // For the font assets.
+  @Test public void typefaceCacheLoadsEachAssetOnce() {
+    TypefaceCache.evictAll();
+    int hits = TypefaceCache.hitCount();
+    int misses = TypefaceCache.missCount();
+    Activity activity = Robolectric.buildActivity(Activity.class).create().get();
+
+    Typeface one = TypefaceCache.get(RuntimeEnvironment.application, "fonts/one.ttf");
+    assertThat(TypefaceCache.get(activity, "fonts/one.ttf")).isSameAs(one);
+    TypefaceCache.get(RuntimeEnvironment.application, "fonts/two.ttf");
+
+    assertThat(TypefaceCache.size()).isEqualTo(2);
+    assertThat(TypefaceCache.hitCount()).isEqualTo(hits + 1);
+    assertThat(TypefaceCache.missCount()).isEqualTo(misses + 2);
+  }
+
+  @Config(manifest = "src/test/AndroidManifest.xml") // For the font assets.
+  @Test public void typefaceCacheLoadsAgainAfterEviction() {
+    TypefaceCache.get(RuntimeEnvironment.application, "fonts/one.ttf");
+    TypefaceCache.evictAll();
+    assertThat(TypefaceCache.size()).isEqualTo(0);
+
+    int misses = TypefaceCache.missCount();
+    TypefaceCache.get(RuntimeEnvironment.application, "fonts/one.ttf");
+    assertThat(TypefaceCache.missCount()).isEqualTo(misses + 1);
+    assertThat(TypefaceCache.size()).isEqualTo(1);
+  }
+
   @Test public void bindingKnownPackagesIsNoOp() {
     ButterFork.bind(Robolectric.buildActivity(Activity.class).create().get());
     assertThat(ButterFork.BINDERS).isEmpty();
@@ -159,6 +476,17 @@ public class ButterForkTest {
     }
   }
 
+  @Test public void finderReportsMissingViewOfLeanBinder() {
+    View view = new View(RuntimeEnvironment.application);
+    assertThat(ButterFork.Finder.VIEW.findViewById(view, android.R.id.button1)).isNull();
+    IllegalStateException e = ButterFork.Finder.VIEW.missingView(view, android.R.id.button1,
+        ButterForkTest.class, 2);
+    assertThat(e).hasMessage("Required view 'button1' with ID "
+        + android.R.id.button1
+        + " for binding #2 of butterfork.ButterForkTest was not found."
+        + " If this view is optional add '@Nullable' annotation.");
+  }
+
   @Config(shadows = EditModeShadowView.class)
   @Test public void finderThrowsLessNiceErrorInEditMode() {
     View view = new View(RuntimeEnvironment.application);
@@ -171,4 +499,32 @@ public class ButterForkTest {
           + " for yo mama was not found. If this view is optional add '@Nullable' annotation.");
     }
   }
+
+  static class PackageTarget {
+    String boundBy;
+  }
+
+  /** The binder class of its own which {@link PackageTarget} has besides a package binder. */
+  static class PackageTarget$$ViewBinder implements ButterFork.ViewBinder<Object> {
+    @Override public void bind(ButterFork.Finder finder, Object target, Object source) {
+      ((PackageTarget) target).boundBy = "own";
+    }
+
+    @Override public void unbind(Object target) {
+    }
+  }
+
+  /** A binder with a resource phase only, whose view phase does nothing. */
+  private abstract static class ExampleResourceBinder
+      implements ButterFork.ViewBinder<Object>, ButterFork.ResourceBinder<Object> {
+    @Override public void bind(ButterFork.Finder finder, Object target, Object source) {
+      bindResources(finder, target, source);
+    }
+
+    @Override public void bindViews(ButterFork.Finder finder, Object target, Object source) {
+    }
+
+    @Override public void unbind(Object target) {
+    }
+  }
 }
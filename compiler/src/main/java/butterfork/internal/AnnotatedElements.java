@@ -0,0 +1,59 @@
+package butterfork.internal;
+
+import java.lang.annotation.Annotation;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.TypeElement;
+
+/**
+ * The elements of a round grouped by supported annotation. All root elements are walked once
+ * instead of once per annotation type, in the same order as
+ * {@link javax.annotation.processing.RoundEnvironment#getElementsAnnotatedWith(Class)}.
+ */
+final class AnnotatedElements {
+  private final Map<String, List<Element>> elementsByAnnotation = new LinkedHashMap<>();
+
+  AnnotatedElements(Collection<String> annotationTypes,
+      Collection<? extends Element> rootElements) {
+    for (String annotationType : annotationTypes) {
+      elementsByAnnotation.put(annotationType, new ArrayList<Element>());
+    }
+    for (Element rootElement : rootElements) {
+      scan(rootElement);
+    }
+  }
+
+  List<Element> get(Class<? extends Annotation> annotationClass) {
+    List<Element> elements = elementsByAnnotation.get(annotationClass.getCanonicalName());
+    if (elements == null) {
+      return Collections.emptyList();
+    }
+    return elements;
+  }
+
+  private void scan(Element element) {
+    for (AnnotationMirror annotationMirror : element.getAnnotationMirrors()) {
+      TypeElement annotationType = (TypeElement) annotationMirror.getAnnotationType().asElement();
+      List<Element> elements =
+          elementsByAnnotation.get(annotationType.getQualifiedName().toString());
+      if (elements != null) {
+        elements.add(element);
+      }
+    }
+
+    // Only types contain bindings. Packages are not descended into since their contents are not
+    // part of the round unless they are root elements themselves.
+    if (element instanceof TypeElement) {
+      for (Element enclosedElement : element.getEnclosedElements()) {
+        scan(enclosedElement);
+      }
+    }
+  }
+}
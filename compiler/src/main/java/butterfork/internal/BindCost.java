@@ -0,0 +1,63 @@
+package butterfork.internal;
+
+import java.util.Map;
+
+/**
+ * A static estimate of what binding one target costs at runtime, counting the work of the
+ * binders of its ancestors too. The total weighs every view lookup, listener class, resource load
+ * and {@code super.bind} call the same, except for bitmaps which are decoded in full on every bind.
+ */
+final class BindCost {
+  static final int BITMAP_WEIGHT = 10;
+
+  final int lookups;
+  final int collectionViews;
+  final int listenerClasses;
+  final int resources;
+  final int bitmaps;
+  final int superBindDepth;
+
+  BindCost(int lookups, int collectionViews, int listenerClasses, int resources, int bitmaps,
+      int superBindDepth) {
+    this.lookups = lookups;
+    this.collectionViews = collectionViews;
+    this.listenerClasses = listenerClasses;
+    this.resources = resources;
+    this.bitmaps = bitmaps;
+    this.superBindDepth = superBindDepth;
+  }
+
+  int getTotal() {
+    return lookups + listenerClasses + resources + bitmaps * BITMAP_WEIGHT + superBindDepth;
+  }
+
+  /** What the total is made of, for diagnostics. */
+  String describe() {
+    return lookups + " view lookups, " + listenerClasses + " listener classes, " + resources
+        + " resources, " + bitmaps + " bitmaps and " + superBindDepth + " superclass binders";
+  }
+
+  /** The costs of every target by name, as JSON. */
+  static String toJson(Map<String, BindCost> costs) {
+    StringBuilder json = new StringBuilder("{");
+    boolean first = true;
+    for (Map.Entry<String, BindCost> entry : costs.entrySet()) {
+      BindCost cost = entry.getValue();
+      json.append(first ? "\n" : ",\n");
+      first = false;
+      json.append("  \"").append(entry.getKey()).append("\": {\n")
+          .append("    \"lookups\": ").append(cost.lookups).append(",\n")
+          .append("    \"collectionViews\": ").append(cost.collectionViews).append(",\n")
+          .append("    \"listenerClasses\": ").append(cost.listenerClasses).append(",\n")
+          .append("    \"resources\": ").append(cost.resources).append(",\n")
+          .append("    \"bitmaps\": ").append(cost.bitmaps).append(",\n")
+          .append("    \"superBindDepth\": ").append(cost.superBindDepth).append(",\n")
+          .append("    \"total\": ").append(cost.getTotal()).append("\n")
+          .append("  }");
+    }
+    if (!first) {
+      json.append("\n");
+    }
+    return json.append("}\n").toString();
+  }
+}
@@ -0,0 +1,89 @@
+package butterfork.internal;
+
+import com.squareup.javapoet.JavaFile;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * Brews binding classes and renders their source. JavaPoet models are immutable so rendering
+ * fans out across a fork-join pool while the results keep the order of the binding classes.
+ * Brewing must not query the element model of the compiler, which is not thread-safe; anything
+ * derived from it is resolved on the processor thread beforehand.
+ */
+final class BinderBrewer {
+  /** A brewed binding class with its rendered source. */
+  static final class Brew {
+    final JavaFile javaFile;
+    final String source;
+
+    Brew(JavaFile javaFile, String source) {
+      this.javaFile = javaFile;
+      this.source = source;
+    }
+  }
+
+  private final int parallelism;
+  private ForkJoinPool pool;
+
+  BinderBrewer(int parallelism) {
+    this.parallelism = parallelism;
+  }
+
+  List<Brew> brew(List<BindingClass> bindingClasses) {
+    List<Brew> brews = new ArrayList<>(bindingClasses.size());
+    if (parallelism <= 1 || bindingClasses.size() <= 1) {
+      for (BindingClass bindingClass : bindingClasses) {
+        brews.add(brew(bindingClass));
+      }
+      return brews;
+    }
+
+    if (pool == null) {
+      pool = new ForkJoinPool(parallelism);
+    }
+    List<Callable<Brew>> tasks = new ArrayList<>(bindingClasses.size());
+    for (final BindingClass bindingClass : bindingClasses) {
+      tasks.add(new Callable<Brew>() {
+        @Override public Brew call() {
+          return brew(bindingClass);
+        }
+      });
+    }
+    for (Future<Brew> future : pool.invokeAll(tasks)) {
+      try {
+        brews.add(future.get());
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new IllegalStateException("Interrupted while brewing view binders.", e);
+      } catch (ExecutionException e) {
+        Throwable cause = e.getCause();
+        if (cause instanceof RuntimeException) {
+          throw (RuntimeException) cause;
+        }
+        if (cause instanceof Error) {
+          throw (Error) cause;
+        }
+        throw new IllegalStateException(cause);
+      }
+    }
+    return brews;
+  }
+
+  /** Stop the worker threads. Brewing again restarts them. */
+  void shutdown() {
+    if (pool != null) {
+      pool.shutdown();
+      pool = null;
+    }
+  }
+
+  private static Brew brew(BindingClass bindingClass) {
+    JavaFile javaFile = bindingClass.brewJava();
+    return new Brew(javaFile, javaFile.toString());
+  }
+}
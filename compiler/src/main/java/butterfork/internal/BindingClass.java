@@ -1,10 +1,13 @@
 package butterfork.internal;
 
 import android.content.res.Resources;
+import android.content.res.TypedArray;
 import android.graphics.BitmapFactory;
+import android.view.animation.AnimationUtils;
 
 import com.squareup.javapoet.ClassName;
 import com.squareup.javapoet.CodeBlock;
+import com.squareup.javapoet.FieldSpec;
 import com.squareup.javapoet.JavaFile;
 import com.squareup.javapoet.MethodSpec;
 import com.squareup.javapoet.ParameterizedTypeName;
@@ -13,47 +16,124 @@ import com.squareup.javapoet.TypeSpec;
 import com.squareup.javapoet.TypeVariableName;
 import com.squareup.javapoet.WildcardTypeName;
 
-import java.lang.reflect.Field;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
 
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.PackageElement;
 import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
 
+import static butterfork.internal.ButterForkProcessor.BINDING_CLASS_SUFFIX;
 import static butterfork.internal.ButterForkProcessor.VIEW_TYPE;
 import static java.util.Collections.singletonList;
 import static javax.lang.model.element.Modifier.FINAL;
+import static javax.lang.model.element.Modifier.PRIVATE;
+import static javax.lang.model.element.Modifier.PROTECTED;
 import static javax.lang.model.element.Modifier.PUBLIC;
+import static javax.lang.model.element.Modifier.STATIC;
 
 final class BindingClass {
-  private static final ClassName FINDER = ClassName.get("butterfork", "ButterFork", "Finder");
-  private static final ClassName VIEW_BINDER =
+  static final ClassName FINDER = ClassName.get("butterfork", "ButterFork", "Finder");
+  private static final ClassName VIEW = ClassName.get("android.view", "View");
+  static final ClassName VIEW_BINDER =
       ClassName.get("butterfork", "ButterFork", "ViewBinder");
+  private static final ClassName SOURCE_VIEW_BINDER =
+      ClassName.get("butterfork", "ButterFork", "SourceViewBinder");
+  private static final ClassName RESOURCE_BINDER =
+      ClassName.get("butterfork", "ButterFork", "ResourceBinder");
+  private static final ClassName ANIMATOR_CACHE = ClassName.get("butterfork", "AnimatorCache");
+  private static final ClassName TYPEFACE_CACHE = ClassName.get("butterfork", "TypefaceCache");
+  private static final ClassName TABLE_BINDER =
+      ClassName.get("butterfork.internal", "TableBinder");
+  private static final ClassName ACTIVITY = ClassName.get("android.app", "Activity");
+  private static final ClassName DIALOG = ClassName.get("android.app", "Dialog");
+  private static final String THEME_ATTRS = "THEME_ATTRS";
+  private static final String THEME_ATTR_INDICES = "THEME_ATTR_INDICES";
+  private static final String STATIC_BINDING_SUFFIX = "_Binding";
+  private static final String PART_SUFFIX = "Part";
+  static final String PACKAGE_BINDER_NAME = "ButterFork$$PackageBinder";
+  private static final String CLICK_SETTER = "setOnClickListener";
+  private static final String LONG_CLICK_SETTER = "setOnLongClickListener";
+  // Estimated bytecode sizes of the statements of a view phase.
+  private static final int LOOKUP_SIZE = 16;
+  private static final int NULL_CHECK_SIZE = 20;
+  private static final int FIELD_SIZE = 20;
+  private static final int LISTENER_SIZE = 24;
+  private static final int COLLECTION_SIZE = 16;
+  private static final int COLLECTION_ELEMENT_SIZE = 24;
+  private static final int COLLECTION_LOOP_SIZE = 48;
+  // Collections with at least this many views look them up in a loop over a table of their IDs.
+  private static final int COLLECTION_TABLE_THRESHOLD = 8;
 
-  private final Map<String, ViewBindings> viewIdMap = new LinkedHashMap<>();
-  private final Map<FieldCollectionViewBinding, String[]> collectionBindings = new LinkedHashMap<>();
-  private final List<FieldBitmapBinding> bitmapBindings = new ArrayList<>();
-  private final List<FieldResourceBinding> resourceBindings = new ArrayList<>();
+  // Bindings are kept sorted by view ID or field name so that the generated code only depends on
+  // what is bound and not on the order in which elements were declared or discovered.
+  private final Map<String, ViewBindings> viewIdMap = new TreeMap<>();
+  private final Map<FieldCollectionViewBinding, String[]> collectionBindings =
+      new TreeMap<>(ViewBindings.NAME_ORDER);
+  private final Map<String, FieldAnimationBinding> animationBindings = new TreeMap<>();
+  private final Map<String, FieldBitmapBinding> bitmapBindings = new TreeMap<>();
+  private final Map<String, FieldFontBinding> fontBindings = new TreeMap<>();
+  private final Map<String, FieldResourceBinding> resourceBindings = new TreeMap<>();
+  private final Map<String, FieldThemeBinding> themeBindings = new TreeMap<>();
+  private final List<TypeElement> inlinedElements = new ArrayList<>();
+  // Ancestor fields already holding the views of our IDs, resolved before brewing.
+  private final Map<String, FieldViewBinding> ancestorFields = new LinkedHashMap<>();
+  // Tables of collection view IDs by their IDs, filled in while emitting the view phases.
+  private final Map<List<String>, FieldSpec> idTables = new LinkedHashMap<>();
+  // Estimated sizes of view phase units which do not fit the bind method budget on their own.
+  private final Map<String, Integer> oversizedUnits = new LinkedHashMap<>();
+  private final TypeElement targetElement;
   private final String classPackage;
   private final String className;
   private final String targetClass;
   private final ClassName resClass;
-  private String parentViewBinder;
+  private BindingClass parentBinding;
+  private List<String> descriptions;
+  private boolean specialized;
+  private boolean staticBinding;
+  private String targetFinder;
+  // Set while emitting a view phase which calls findViewById on a concretely typed source.
+  private boolean directLookups;
+  private int bindMethodBudget;
+  private boolean tableDriven;
+  // Index of the bind and unbind methods of this target in its package binder, if it is in one.
+  private int packageIndex = -1;
 
-  BindingClass(String classPackage, String className, String targetClass, String resPackage) {
+  BindingClass(TypeElement targetElement, String classPackage, String className,
+      String resPackage) {
+    this.targetElement = targetElement;
     this.classPackage = classPackage;
     this.className = className;
-    this.targetClass = targetClass;
+    this.targetClass = targetElement.getQualifiedName().toString();
     this.resClass = ClassName.get(resPackage, "R");
   }
 
+  void addAnimation(FieldAnimationBinding binding) {
+    animationBindings.put(binding.getName(), binding);
+  }
+
   void addBitmap(FieldBitmapBinding binding) {
-    bitmapBindings.add(binding);
+    bitmapBindings.put(binding.getName(), binding);
+  }
+
+  void addFont(FieldFontBinding binding) {
+    fontBindings.put(binding.getName(), binding);
   }
 
   void addField(String id, FieldViewBinding binding) {
@@ -64,11 +144,10 @@ final class BindingClass {
     collectionBindings.put(binding, ids);
   }
 
-  boolean addMethod(String id, ListenerClass listener, ListenerMethod method,
+  boolean addMethod(String id, ListenerType listener, ListenerCallback method,
       MethodViewBinding binding) {
     ViewBindings viewBindings = getOrCreateViewBindings(id);
-    if (viewBindings.hasMethodBinding(listener, method)
-        && !"void".equals(method.returnType())) {
+    if (viewBindings.hasMethodBinding(listener, method) && method.hasReturnType()) {
       return false;
     }
     viewBindings.addMethodBinding(listener, method, binding);
@@ -76,11 +155,322 @@ final class BindingClass {
   }
 
   void addResource(FieldResourceBinding binding) {
-    resourceBindings.add(binding);
+    resourceBindings.put(binding.getName(), binding);
+  }
+
+  void addThemeAttribute(FieldThemeBinding binding) {
+    themeBindings.put(binding.getName(), binding);
+  }
+
+  void setParentBinding(BindingClass parentBinding) {
+    this.parentBinding = parentBinding;
+  }
+
+  BindingClass getParentBinding() {
+    return parentBinding;
+  }
+
+  /**
+   * Generate a binder without diagnostic strings. Missing views are reported by an index into
+   * {@link #getDescriptions()} instead and casts are no longer wrapped.
+   */
+  void setLean() {
+    descriptions = new ArrayList<>();
+  }
+
+  /** Also generate view phases for each concrete source type. */
+  void setSpecialized() {
+    specialized = true;
+  }
+
+  /**
+   * Also generate a class of static entry points which call this binder directly.
+   * {@code targetFinder} names the finder to bind the target to itself with, if it is an
+   * activity, view or dialog.
+   */
+  void setStaticBinding(String targetFinder) {
+    this.staticBinding = true;
+    this.targetFinder = targetFinder;
+  }
+
+  /**
+   * Move the view phase into helper methods when its estimated bytecode size exceeds
+   * {@code budget} bytes. A budget of zero never splits. Units which exceed the budget on their
+   * own are reported by {@link #getOversizedUnits()} once brewed.
+   */
+  void setBindMethodBudget(int budget) {
+    this.bindMethodBudget = budget;
+  }
+
+  /**
+   * Generate a binder which describes its views in tables for {@code TableBinder} to bind, if the
+   * target only has bindings the tables support. Specialized binders are never table driven, and
+   * neither are lean ones since the tables would ship the descriptions lean binders leave out.
+   */
+  void setTableDriven() {
+    tableDriven = true;
+  }
+
+  /**
+   * True if the target can be bound by the binder of its package instead of a class of its own,
+   * which requires it to have no binder superclass and no resource phase.
+   */
+  boolean canJoinPackageBinder() {
+    return parentBinding == null && !hasResourceBindings() && !specialized && descriptions == null
+        && !usesTable();
+  }
+
+  void setPackageIndex(int index) {
+    this.packageIndex = index;
+  }
+
+  boolean isInPackageBinder() {
+    return packageIndex != -1;
+  }
+
+  String getClassPackage() {
+    return classPackage;
+  }
+
+  String getTargetClass() {
+    return targetClass;
+  }
+
+  /** The name of the target as returned by {@link Class#getName()}. */
+  String getTargetBinaryName() {
+    String simpleName =
+        className.substring(0, className.length() - BINDING_CLASS_SUFFIX.length());
+    return classPackage.isEmpty() ? simpleName : classPackage + "." + simpleName;
+  }
+
+  /** The target and every ancestor which its generated code depends on. */
+  List<TypeElement> getOriginatingElements() {
+    List<TypeElement> elements = new ArrayList<>();
+    for (BindingClass binding = this; binding != null; binding = binding.parentBinding) {
+      elements.add(binding.targetElement);
+    }
+    elements.addAll(inlinedElements);
+    return elements;
+  }
+
+  boolean hasStaticBinding() {
+    return staticBinding;
+  }
+
+  /** Descriptions referred to by index from a lean binder, or null if it is not lean. */
+  List<String> getDescriptions() {
+    return descriptions;
+  }
+
+  /** The largest estimated size of each view phase unit which alone is over the budget. */
+  Map<String, Integer> getOversizedUnits() {
+    return oversizedUnits;
+  }
+
+  /**
+   * Returns a binder which performs the bindings of its ancestors directly instead of calling up
+   * into their binders. Only ancestors which are reached through classes of the same package, bound
+   * or not, and whose fields are not hidden by a field of a subclass are inlined; anything above
+   * them remains the generated superclass.
+   */
+  BindingClass flatten() {
+    List<BindingClass> inlined = new ArrayList<>();
+    BindingClass ancestor = parentBinding;
+    while (ancestor != null && inheritsWithinPackage(ancestor) && !hidesFieldsOf(ancestor)) {
+      inlined.add(0, ancestor);
+      ancestor = ancestor.parentBinding;
+    }
+    if (inlined.isEmpty()) {
+      return this;
+    }
+
+    BindingClass result =
+        new BindingClass(targetElement, classPackage, className, resClass.packageName());
+    // Merge from the top down so that a subclass listener replaces the one of its superclass.
+    for (BindingClass binding : inlined) {
+      result.addAll(binding);
+      result.inlinedElements.add(binding.targetElement);
+    }
+    result.addAll(this);
+    result.parentBinding = ancestor;
+    return result;
+  }
+
+  private void addAll(BindingClass other) {
+    for (ViewBindings bindings : other.viewIdMap.values()) {
+      getOrCreateViewBindings(bindings.getId()).addAll(bindings);
+    }
+    collectionBindings.putAll(other.collectionBindings);
+    animationBindings.putAll(other.animationBindings);
+    bitmapBindings.putAll(other.bitmapBindings);
+    fontBindings.putAll(other.fontBindings);
+    resourceBindings.putAll(other.resourceBindings);
+    themeBindings.putAll(other.themeBindings);
+  }
+
+  /**
+   * True if every class from the target up to and including {@code ancestor} is declared in our
+   * package, so that the package-private members of {@code ancestor} are inherited by the target.
+   */
+  private boolean inheritsWithinPackage(BindingClass ancestor) {
+    TypeElement type = targetElement;
+    while (!type.getQualifiedName().contentEquals(ancestor.targetClass)) {
+      type = (TypeElement) ((DeclaredType) type.getSuperclass()).asElement();
+      if (!getPackageName(type).equals(classPackage)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static String getPackageName(TypeElement type) {
+    Element element = type;
+    while (element.getKind() != ElementKind.PACKAGE) {
+      element = element.getEnclosingElement();
+    }
+    return ((PackageElement) element).getQualifiedName().toString();
+  }
+
+  /** True if a subclass between the target and {@code ancestor} hides one of its bound fields. */
+  private boolean hidesFieldsOf(BindingClass ancestor) {
+    for (String name : ancestor.getFieldNames()) {
+      if (!isVisibleField(name, ancestor)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /** True if {@code target.name} here refers to the field declared by {@code ancestor}. */
+  private boolean isVisibleField(String name, BindingClass ancestor) {
+    TypeElement type = targetElement;
+    while (!type.getQualifiedName().contentEquals(ancestor.targetClass)) {
+      for (VariableElement field : ElementFilter.fieldsIn(type.getEnclosedElements())) {
+        if (field.getSimpleName().contentEquals(name)) {
+          return false;
+        }
+      }
+      type = (TypeElement) ((DeclaredType) type.getSuperclass()).asElement();
+    }
+    return true;
+  }
+
+  /**
+   * Resolves the ancestor fields which views are reused from. This queries the element model of
+   * the compiler, which is not thread-safe, so it has to run on the processor thread before
+   * {@link #brewJava()}, which the {@link BinderBrewer} may call from other threads.
+   */
+  void resolveAncestorFields() {
+    ancestorFields.clear();
+    for (String id : viewIdMap.keySet()) {
+      FieldViewBinding ancestorField = findAncestorField(id);
+      if (ancestorField != null) {
+        ancestorFields.put(id, ancestorField);
+      }
+    }
+  }
+
+  /**
+   * Finds a required field of an ancestor which its binder has already assigned the view with
+   * {@code id} to by the time ours runs, so that the view need not be looked up twice. Our binder
+   * must be able to read the field through the target: a public field always qualifies, a
+   * protected one only when its class shares our package, and a package-private one only when no
+   * class of another package sits in between. An ancestor which only binds listeners to the view
+   * leaves no field behind, so the view is still looked up again.
+   */
+  private FieldViewBinding findAncestorField(String id) {
+    for (BindingClass ancestor = parentBinding; ancestor != null;
+        ancestor = ancestor.parentBinding) {
+      ViewBindings bindings = ancestor.viewIdMap.get(id);
+      if (bindings == null) {
+        continue;
+      }
+      boolean samePackage = ancestor.classPackage.equals(classPackage);
+      boolean withinPackage = samePackage && inheritsWithinPackage(ancestor);
+      for (FieldViewBinding binding : bindings.getFieldBindings()) {
+        VariableElement field = ancestor.getField(binding.getName());
+        if (binding.isRequired() && field != null && isViewClassField(field)
+            && (withinPackage || field.getModifiers().contains(PUBLIC)
+                || samePackage && field.getModifiers().contains(PROTECTED))
+            && isVisibleField(binding.getName(), ancestor)) {
+          return binding;
+        }
+      }
+    }
+    return null;
+  }
+
+  /** The field the target itself declares with {@code name}, or null for an inlined ancestor's. */
+  private VariableElement getField(String name) {
+    for (VariableElement field : ElementFilter.fieldsIn(targetElement.getEnclosedElements())) {
+      if (field.getSimpleName().contentEquals(name)) {
+        return field;
+      }
+    }
+    return null;
+  }
+
+  /** True if the field is declared with a class type, which can be assigned to a View as is. */
+  private static boolean isViewClassField(VariableElement field) {
+    TypeMirror type = field.asType();
+    return type.getKind() == TypeKind.DECLARED
+        && ((DeclaredType) type).asElement().getKind() == ElementKind.CLASS;
+  }
+
+  /** Names of every field this binder assigns. */
+  private Set<String> getFieldNames() {
+    Set<String> names = new HashSet<>();
+    for (ViewBindings bindings : viewIdMap.values()) {
+      for (FieldViewBinding binding : bindings.getFieldBindings()) {
+        names.add(binding.getName());
+      }
+    }
+    for (FieldCollectionViewBinding binding : collectionBindings.keySet()) {
+      names.add(binding.getName());
+    }
+    names.addAll(animationBindings.keySet());
+    names.addAll(bitmapBindings.keySet());
+    names.addAll(fontBindings.keySet());
+    names.addAll(resourceBindings.keySet());
+    names.addAll(themeBindings.keySet());
+    return names;
+  }
+
+  /** Estimates what binding the target costs, including the binders of its ancestors. */
+  BindCost estimateCost() {
+    Set<String> ids = new HashSet<>();
+    int collectionViews = 0;
+    int listenerClasses = 0;
+    int resources = 0;
+    int bitmaps = 0;
+    int depth = -1;
+    for (BindingClass binding = this; binding != null; binding = binding.parentBinding) {
+      depth++;
+      for (ViewBindings bindings : binding.viewIdMap.values()) {
+        if (!bindings.getId().isEmpty()) {
+          ids.add(bindings.getId());
+        }
+        // Table binders share a single listener class from the runtime.
+        if (!binding.usesTable()) {
+          listenerClasses += bindings.getMethodBindings().size();
+        }
+      }
+      for (String[] collectionIds : binding.collectionBindings.values()) {
+        collectionViews += collectionIds.length;
+        for (String id : collectionIds) {
+          ids.add(id);
+        }
+      }
+      resources += binding.resourceBindings.size() + binding.animationBindings.size()
+          + binding.fontBindings.size() + binding.themeBindings.size();
+      bitmaps += binding.bitmapBindings.size();
+    }
+    return new BindCost(ids.size(), collectionViews, listenerClasses, resources, bitmaps, depth);
   }
 
-  void setParentViewBinder(String parentViewBinder) {
-    this.parentViewBinder = parentViewBinder;
+  /** Fully-qualified name of the generated binder class. */
+  String getFqcn() {
+    return classPackage + "." + className;
   }
 
   ViewBindings getViewBinding(String id) {
@@ -97,76 +487,754 @@ final class BindingClass {
   }
 
   JavaFile brewJava() {
+    if (descriptions != null) {
+      descriptions.clear();
+    }
+    idTables.clear();
+    oversizedUnits.clear();
+    if (usesTable()) {
+      return brewTable();
+    }
+
     TypeSpec.Builder result = TypeSpec.classBuilder(className)
         .addModifiers(PUBLIC)
         .addTypeVariable(TypeVariableName.get("T", ClassName.bestGuess(targetClass)));
 
-    if (parentViewBinder != null) {
-      result.superclass(ParameterizedTypeName.get(ClassName.bestGuess(parentViewBinder),
+    if (extendsParentBinder()) {
+      result.superclass(ParameterizedTypeName.get(
+          ClassName.get(parentBinding.classPackage, parentBinding.className),
           TypeVariableName.get("T")));
     } else {
-      result.addSuperinterface(ParameterizedTypeName.get(VIEW_BINDER, TypeVariableName.get("T")));
+      result.addSuperinterface(ParameterizedTypeName.get(specialized ? SOURCE_VIEW_BINDER
+          : VIEW_BINDER, TypeVariableName.get("T")));
+    }
+    if (hasResourceBindings() && !parentIsResourceBinder()) {
+      result.addSuperinterface(
+          ParameterizedTypeName.get(RESOURCE_BINDER, TypeVariableName.get("T")));
     }
 
-    result.addMethod(createBindMethod());
+    // The generated code depends on the target and on every ancestor which has a binder.
+    for (BindingClass binding = this; binding != null; binding = binding.parentBinding) {
+      result.addOriginatingElement(binding.targetElement);
+    }
+    for (TypeElement element : inlinedElements) {
+      result.addOriginatingElement(element);
+    }
+
+    if (!themeBindings.isEmpty()) {
+      result.addField(createThemeAttrsField());
+      // Sorts the IDs, which has to happen after they are assigned above.
+      result.addField(FieldSpec.builder(int[].class, THEME_ATTR_INDICES, PRIVATE, STATIC, FINAL)
+          .initializer("$T.sortAttrs($L)", FINDER, THEME_ATTRS)
+          .build());
+    }
+
+    List<MethodSpec> parts = new ArrayList<>();
+    if (!isResourceBinder()) {
+      result.addMethod(createBindMethod(parts));
+    } else {
+      // The first resource binder in the hierarchy runs both phases from bind. Subclasses only
+      // contribute to the phases they have bindings for.
+      if (!parentIsResourceBinder()) {
+        result.addMethod(createSplitBindMethod());
+      }
+      if (!parentIsResourceBinder() || hasViewBindings()) {
+        result.addMethod(createBindViewsMethod(parts));
+      }
+      if (hasResourceBindings()) {
+        result.addMethod(createBindResourcesMethod());
+      }
+    }
+    if (specialized && (!extendsParentBinder() || hasViewBindings())) {
+      result.addMethod(createSpecializedBindMethod(ACTIVITY, "ACTIVITY", parts));
+      result.addMethod(createSpecializedBindMethod(VIEW, "VIEW", parts));
+      result.addMethod(createSpecializedBindMethod(DIALOG, "DIALOG", parts));
+    }
     result.addMethod(createUnbindMethod());
+    result.addMethods(parts);
+    result.addFields(idTables.values());
 
     return JavaFile.builder(classPackage, result.build())
         .addFileComment("Generated code from Butter Fork. Do not modify!")
         .build();
   }
 
-  private MethodSpec createBindMethod() {
+  /**
+   * A binder whose view IDs, kinds of bindings and descriptions are tables run by
+   * {@code TableBinder}. Only the field assignments and listener calls are generated, as switches
+   * over the index of each view in the tables.
+   */
+  private JavaFile brewTable() {
+    TypeName targetType = TypeVariableName.get("T");
+    TypeSpec.Builder result = TypeSpec.classBuilder(className)
+        .addModifiers(PUBLIC)
+        .addTypeVariable(TypeVariableName.get("T", ClassName.bestGuess(targetClass)))
+        .superclass(ParameterizedTypeName.get(TABLE_BINDER, targetType))
+        .addOriginatingElement(targetElement);
+    for (TypeElement element : inlinedElements) {
+      result.addOriginatingElement(element);
+    }
+
+    // One entry per line, since tables can be long.
+    CodeBlock.Builder ids = CodeBlock.builder().add("{$>$>");
+    CodeBlock.Builder kinds = CodeBlock.builder().add("{$>$>");
+    CodeBlock.Builder whos = CodeBlock.builder().add("{$>$>");
+    MethodSpec.Builder setView = createTableMethod("setView", TypeName.VOID);
+    MethodSpec.Builder click = createTableMethod("click", TypeName.VOID);
+    MethodSpec.Builder longClick = createTableMethod("longClick", TypeName.BOOLEAN);
+    boolean hasFields = false;
+    boolean hasClicks = false;
+    boolean hasLongClicks = false;
+    int index = 0;
+    for (ViewBindings bindings : viewIdMap.values()) {
+      String separator = index > 0 ? ",\n" : "\n";
+      ids.add(separator).add("$T.id.$L", resClass, bindings.getId());
+      List<ViewBinding> requiredBindings = bindings.getRequiredBindings();
+      String who = requiredBindings.isEmpty() ? null : asHumanDescription(requiredBindings);
+      whos.add(separator).add("$S", who);
+
+      List<String> flags = new ArrayList<>();
+      Collection<FieldViewBinding> fieldBindings = bindings.getFieldBindings();
+      if (!fieldBindings.isEmpty()) {
+        flags.add("FIELD");
+        hasFields = true;
+        setView.addCode("case $L:\n$>", index);
+        for (FieldViewBinding fieldBinding : fieldBindings) {
+          if (fieldBinding.requiresCast()) {
+            setView.addStatement("target.$L = ($T) view", fieldBinding.getName(),
+                fieldBinding.getType());
+          } else {
+            setView.addStatement("target.$L = view", fieldBinding.getName());
+          }
+        }
+        setView.addStatement("break").addCode("$<");
+      }
+      if (!requiredBindings.isEmpty()) {
+        flags.add("REQUIRED");
+      }
+      for (Map.Entry<ListenerType, Map<ListenerCallback, Set<MethodViewBinding>>> entry
+          : bindings.getMethodBindings().entrySet()) {
+        ListenerType listener = entry.getKey();
+        boolean isClick = CLICK_SETTER.equals(listener.getSetter());
+        flags.add(isClick ? "CLICK" : "LONG_CLICK");
+        MethodSpec.Builder method = isClick ? click : longClick;
+        hasClicks |= isClick;
+        hasLongClicks |= !isClick;
+        method.addCode("case $L:\n$>", index);
+        for (Map.Entry<ListenerCallback, Set<MethodViewBinding>> callback
+            : entry.getValue().entrySet()) {
+          String viewType = callback.getKey().getParameterTypes()[0];
+          for (MethodViewBinding binding : callback.getValue()) {
+            CodeBlock.Builder call = CodeBlock.builder()
+                .add(isClick ? "target.$L(" : "return target.$L(", binding.getName());
+            List<Parameter> parameters = binding.getParameters();
+            for (int i = 0, count = parameters.size(); i < count; i++) {
+              if (i > 0) {
+                call.add(", ");
+              }
+              Parameter parameter = parameters.get(i);
+              if (parameter.requiresCast(viewType)) {
+                call.add("($T) view", parameter.getType());
+              } else {
+                call.add("view");
+              }
+            }
+            method.addCode(call.add(");\n").build());
+          }
+        }
+        if (isClick) {
+          method.addStatement("break");
+        }
+        method.addCode("$<");
+      }
+
+      CodeBlock.Builder kind = CodeBlock.builder();
+      for (int i = 0; i < flags.size(); i++) {
+        kind.add(i > 0 ? " | $T.$L" : "$T.$L", TABLE_BINDER, flags.get(i));
+      }
+      kinds.add(separator).add(kind.build());
+      index++;
+    }
+
+    result.addField(FieldSpec.builder(int[].class, "IDS", PRIVATE, STATIC, FINAL)
+            .initializer(ids.add("$<$<\n}").build())
+            .build())
+        .addField(FieldSpec.builder(int[].class, "KINDS", PRIVATE, STATIC, FINAL)
+            .initializer(kinds.add("$<$<\n}").build())
+            .build())
+        .addField(FieldSpec.builder(String[].class, "DESCRIPTIONS", PRIVATE, STATIC, FINAL)
+            .initializer(whos.add("$<$<\n}").build())
+            .build())
+        .addMethod(MethodSpec.constructorBuilder()
+            .addModifiers(PUBLIC)
+            .addStatement("super(IDS, KINDS, DESCRIPTIONS)")
+            .build());
+    if (hasFields) {
+      result.addMethod(setView.endControlFlow().build());
+    }
+    if (hasClicks) {
+      result.addMethod(click.endControlFlow().build());
+    }
+    if (hasLongClicks) {
+      result.addMethod(longClick.endControlFlow().addStatement("return false").build());
+    }
+
+    return JavaFile.builder(classPackage, result.build())
+        .addFileComment("Generated code from Butter Fork. Do not modify!")
+        .build();
+  }
+
+  private MethodSpec.Builder createTableMethod(String name, TypeName returnType) {
+    return MethodSpec.methodBuilder(name)
+        .addAnnotation(Override.class)
+        .addModifiers(PROTECTED)
+        .returns(returnType)
+        .addParameter(TypeVariableName.get("T"), "target")
+        .addParameter(int.class, "index")
+        .addParameter(VIEW, "view")
+        .beginControlFlow("switch (index)");
+  }
+
+  /**
+   * A class with static, strongly typed methods which bind the target through a single instance
+   * of the binder, so that call sites need no registry lookup or interface dispatch.
+   */
+  JavaFile brewStaticBinding() {
+    ClassName targetType = ClassName.bestGuess(targetClass);
+    TypeName binderType =
+        ParameterizedTypeName.get(ClassName.get(classPackage, className), targetType);
+    String name = className.substring(0, className.length() - BINDING_CLASS_SUFFIX.length())
+        + STATIC_BINDING_SUFFIX;
+
+    TypeSpec.Builder result = TypeSpec.classBuilder(name)
+        .addModifiers(PUBLIC, FINAL)
+        .addMethod(MethodSpec.constructorBuilder()
+            .addModifiers(PRIVATE)
+            .addStatement("throw new $T($S)", AssertionError.class, "No instances.")
+            .build());
+    if (!isInPackageBinder()) {
+      result.addField(FieldSpec.builder(binderType, "BINDER", PRIVATE, STATIC, FINAL)
+          .initializer("new $T()", binderType)
+          .build());
+    }
+    for (BindingClass binding = this; binding != null; binding = binding.parentBinding) {
+      result.addOriginatingElement(binding.targetElement);
+    }
+    for (TypeElement element : inlinedElements) {
+      result.addOriginatingElement(element);
+    }
+
+    if (targetFinder != null) {
+      MethodSpec.Builder bind = MethodSpec.methodBuilder("bind")
+          .addModifiers(PUBLIC, STATIC)
+          .addParameter(targetType, "target");
+      addStaticBindStatements(bind, targetFinder, "target");
+      result.addMethod(bind.build());
+    }
+    result.addMethod(createStaticBindMethod(targetType, ACTIVITY, "ACTIVITY"));
+    result.addMethod(createStaticBindMethod(targetType, VIEW, "VIEW"));
+    result.addMethod(createStaticBindMethod(targetType, DIALOG, "DIALOG"));
+    MethodSpec.Builder unbind = MethodSpec.methodBuilder("unbind")
+        .addModifiers(PUBLIC, STATIC)
+        .addParameter(targetType, "target");
+    if (isInPackageBinder()) {
+      unbind.addStatement("$T.unbind$L(target)", getPackageBinderName(), packageIndex);
+    } else {
+      unbind.addStatement("BINDER.unbind(target)");
+    }
+    result.addMethod(unbind.build());
+
+    return JavaFile.builder(classPackage, result.build())
+        .addFileComment("Generated code from Butter Fork. Do not modify!")
+        .build();
+  }
+
+  private MethodSpec createStaticBindMethod(ClassName targetType, ClassName sourceType,
+      String finder) {
     MethodSpec.Builder result = MethodSpec.methodBuilder("bind")
+        .addModifiers(PUBLIC, STATIC)
+        .addParameter(targetType, "target")
+        .addParameter(sourceType, "source");
+    addStaticBindStatements(result, finder, "source");
+    return result.build();
+  }
+
+  private void addStaticBindStatements(MethodSpec.Builder result, String finder, String source) {
+    if (isInPackageBinder()) {
+      result.addStatement("$T.bind$L($T.$L, target, $L)", getPackageBinderName(), packageIndex,
+          FINDER, finder, source);
+    } else if (specialized) {
+      // Views go through the variant for this type of source and resources through the finder.
+      result.addStatement("BINDER.bind(target, $L)", source);
+      if (isResourceBinder()) {
+        result.addStatement("BINDER.bindResources($T.$L, target, $L)", FINDER, finder, source);
+      }
+    } else {
+      result.addStatement("BINDER.bind($T.$L, target, $L)", FINDER, finder, source);
+    }
+  }
+
+  /**
+   * The theme attribute IDs in field order. They are sorted at runtime, and the value of each field
+   * is read at the index {@code THEME_ATTR_INDICES} maps its position to.
+   */
+  private FieldSpec createThemeAttrsField() {
+    CodeBlock.Builder ids = CodeBlock.builder().add("{ ");
+    int i = 0;
+    for (FieldThemeBinding binding : themeBindings.values()) {
+      if (i++ > 0) {
+        ids.add(", ");
+      }
+      ids.add("$T.attr.$L", resClass, binding.getId());
+    }
+    ids.add(" }");
+
+    return FieldSpec.builder(int[].class, THEME_ATTRS, PRIVATE, STATIC, FINAL)
+        .initializer(ids.build())
+        .build();
+  }
+
+  private MethodSpec createBindMethod(List<MethodSpec> parts) {
+    MethodSpec.Builder result = createViewPhaseMethod("bind");
+
+    // Emit a call to the superclass binder, if any.
+    if (parentBinding != null) {
+      addParentBindStatement(result, "finder", "source");
+    }
+
+    emitViewPhase(result, "bind", null, null, parts);
+    return result.build();
+  }
+
+  /**
+   * Calls the view phase of the parent. A parent in a package binder has no class to extend and
+   * is bound by a static method of that binder instead.
+   */
+  private void addParentBindStatement(MethodSpec.Builder result, Object finder, String source) {
+    if (extendsParentBinder()) {
+      result.addStatement("super.bind($L, target, $L)", finder, source);
+    } else {
+      result.addStatement("$T.bind$L($L, target, $L)", parentBinding.getPackageBinderName(),
+          parentBinding.packageIndex, finder, source);
+    }
+  }
+
+  private MethodSpec createSplitBindMethod() {
+    return MethodSpec.methodBuilder("bind")
+        .addAnnotation(Override.class)
+        .addModifiers(PUBLIC)
+        .addParameter(FINDER, "finder")
+        .addParameter(TypeVariableName.get("T"), "target")
+        .addParameter(Object.class, "source")
+        .addStatement("bindViews(finder, target, source)")
+        .addStatement("bindResources(finder, target, source)")
+        .build();
+  }
+
+  private MethodSpec createBindViewsMethod(List<MethodSpec> parts) {
+    MethodSpec.Builder result = createViewPhaseMethod("bindViews");
+
+    // A parent which is not a resource binder only has the view phase in its bind method.
+    if (parentIsResourceBinder()) {
+      result.addStatement("super.bindViews(finder, target, source)");
+    } else if (parentBinding != null) {
+      addParentBindStatement(result, "finder", "source");
+    }
+
+    emitViewPhase(result, "bindViews", null, null, parts);
+    return result.build();
+  }
+
+  private MethodSpec.Builder createViewPhaseMethod(String name) {
+    return MethodSpec.methodBuilder(name)
         .addAnnotation(Override.class)
         .addModifiers(PUBLIC)
         .addParameter(FINDER, "finder", FINAL)
         .addParameter(TypeVariableName.get("T"), "target", FINAL)
         .addParameter(Object.class, "source");
+  }
 
-    // Emit a call to the superclass binder, if any.
-    if (parentViewBinder != null) {
-      result.addStatement("super.bind(finder, target, source)");
+  /**
+   * Emits the view phase into {@code result}. If its estimated bytecode size exceeds the budget,
+   * it is emitted into private helper methods instead which {@code result} calls in order, since
+   * a runtime may leave methods above its size limit uncompiled. {@code sourceType} and
+   * {@code finder} are null unless the phase is specialized for one type of source.
+   */
+  private void emitViewPhase(MethodSpec.Builder result, String name, ClassName sourceType,
+      String finder, List<MethodSpec> parts) {
+    if (!hasViewBindings()) {
+      return;
     }
 
-    if (!viewIdMap.isEmpty() || !collectionBindings.isEmpty()) {
-      // Local variable in which all views will be temporarily stored.
-      result.addStatement("$T view", ClassName.get("android.view", "View"));
+    // Views which collections share with other bindings are kept in a local of their own.
+    Map<String, Set<FieldCollectionViewBinding>> sharedIds = getSharedCollectionIds();
 
-      // Loop over each view bindings and emit it.
+    List<Integer> sizes = new ArrayList<>();
+    int totalSize = estimateCollectionsSize(sharedIds.keySet());
+    for (ViewBindings bindings : viewIdMap.values()) {
+      int size = estimateSize(bindings);
+      sizes.add(size);
+      totalSize += size;
+    }
+
+    if (bindMethodBudget <= 0 || totalSize <= bindMethodBudget) {
+      CodeBlock.Builder code = CodeBlock.builder();
       for (ViewBindings bindings : viewIdMap.values()) {
-        addViewBindings(result, bindings);
+        addViewBindings(code, bindings, sharedIds.get(bindings.getId()));
       }
+      addCollectionBindings(code, sharedIds);
+      addViewPhaseCode(result, finder, singletonList(code.build()), true);
+      return;
+    }
 
-      // Loop over each collection binding and emit it.
-      for (Map.Entry<FieldCollectionViewBinding, String[]> entry : collectionBindings.entrySet()) {
-        emitCollectionBinding(result, entry.getKey(), entry.getValue());
+    // Each view is a unit which is never split. Locals cannot be shared across methods, so the
+    // views which collections share are bound in one unit together with the collections.
+    List<CodeBlock> units = new ArrayList<>();
+    List<Integer> unitSizes = new ArrayList<>();
+    List<String> unitNames = new ArrayList<>();
+    CodeBlock.Builder collectionsUnit = CodeBlock.builder();
+    int collectionsSize = estimateCollectionsSize(sharedIds.keySet());
+    boolean collectionsUseView = false;
+    Iterator<Integer> viewSizes = sizes.iterator();
+    for (ViewBindings bindings : viewIdMap.values()) {
+      Set<FieldCollectionViewBinding> collections = sharedIds.get(bindings.getId());
+      if (collections != null) {
+        addViewBindings(collectionsUnit, bindings, collections);
+        collectionsSize += viewSizes.next();
+        collectionsUseView = true;
+      } else {
+        CodeBlock.Builder unit = CodeBlock.builder();
+        addViewBindings(unit, bindings, null);
+        units.add(unit.build());
+        unitSizes.add(viewSizes.next());
+        unitNames.add("The bindings of view ID '" + bindings.getId() + "'");
+      }
+    }
+    if (!collectionBindings.isEmpty()) {
+      addCollectionBindings(collectionsUnit, sharedIds);
+      units.add(collectionsUnit.build());
+      unitSizes.add(collectionsSize);
+      unitNames.add("The collection bindings");
+    }
+    for (int i = 0; i < units.size(); i++) {
+      Integer previous = oversizedUnits.get(unitNames.get(i));
+      if (unitSizes.get(i) > bindMethodBudget
+          && (previous == null || previous < unitSizes.get(i))) {
+        oversizedUnits.put(unitNames.get(i), unitSizes.get(i));
       }
     }
 
+    // Pack the units into as few parts as the budget allows, keeping their order.
+    int start = 0;
+    while (start < units.size()) {
+      int end = start;
+      int partSize = unitSizes.get(end++);
+      while (end < units.size() && partSize + unitSizes.get(end) <= bindMethodBudget) {
+        partSize += unitSizes.get(end++);
+      }
+
+      String partName = name + PART_SUFFIX + parts.size();
+      MethodSpec.Builder part = MethodSpec.methodBuilder(partName)
+          .addModifiers(PRIVATE);
+      if (isInPackageBinder()) {
+        part.addModifiers(STATIC);
+      }
+      if (sourceType == null) {
+        part.addParameter(FINDER, "finder", FINAL)
+            .addParameter(getTargetParameterType(), "target", FINAL)
+            .addParameter(Object.class, "source");
+        result.addStatement("$L(finder, target, source)", partName);
+      } else {
+        part.addParameter(TypeVariableName.get("T"), "target", FINAL)
+            .addParameter(sourceType, "source");
+        result.addStatement("$L(target, source)", partName);
+      }
+      boolean usesView = collectionBindings.isEmpty() || start < units.size() - 1
+          || collectionsUseView;
+      addViewPhaseCode(part, finder, units.subList(start, end), usesView);
+      parts.add(part.build());
+      start = end;
+    }
+  }
+
+  private void addViewPhaseCode(MethodSpec.Builder result, String finder, List<CodeBlock> units,
+      boolean usesView) {
+    if (finder != null) {
+      // Casts and failures still go through the finder for this type of source.
+      result.addStatement("final $T finder = $T.$L", FINDER, FINDER, finder);
+    }
+    if (usesView) {
+      // Local variable in which all views will be temporarily stored.
+      result.addStatement("$T view", VIEW);
+    }
+    for (CodeBlock unit : units) {
+      result.addCode(unit);
+    }
+  }
+
+  /**
+   * Emits the collection bindings, first looking up the views they share which are not already
+   * held in a local.
+   */
+  private void addCollectionBindings(CodeBlock.Builder result,
+      Map<String, Set<FieldCollectionViewBinding>> sharedIds) {
+    for (Map.Entry<String, Set<FieldCollectionViewBinding>> entry : sharedIds.entrySet()) {
+      if (!viewIdMap.containsKey(entry.getKey())) {
+        emitSharedLookup(result, entry.getKey(), entry.getValue());
+      }
+    }
+
+    for (Map.Entry<FieldCollectionViewBinding, String[]> entry : collectionBindings.entrySet()) {
+      emitCollectionBinding(result, entry.getKey(), entry.getValue(), sharedIds.keySet());
+    }
+  }
+
+  /** Estimated bytecode size of binding the view with the ID of {@code bindings}. */
+  private int estimateSize(ViewBindings bindings) {
+    int size = LOOKUP_SIZE;
+    if ((descriptions != null || directLookups) && !bindings.getRequiredBindings().isEmpty()) {
+      size += NULL_CHECK_SIZE;
+    }
+    size += bindings.getFieldBindings().size() * FIELD_SIZE;
+    size += bindings.getMethodBindings().size() * LISTENER_SIZE;
+    return size;
+  }
+
+  /** Estimated bytecode size of binding the collections, including any shared lookups. */
+  private int estimateCollectionsSize(Set<String> sharedIds) {
+    int size = sharedIds.size() * (LOOKUP_SIZE + NULL_CHECK_SIZE);
+    for (Map.Entry<FieldCollectionViewBinding, String[]> entry : collectionBindings.entrySet()) {
+      String[] ids = entry.getValue();
+      if (usesIdTable(entry.getKey(), ids, sharedIds)) {
+        size += COLLECTION_SIZE + COLLECTION_LOOP_SIZE;
+      } else {
+        size += COLLECTION_SIZE + ids.length * COLLECTION_ELEMENT_SIZE;
+      }
+    }
+    return size;
+  }
+
+  /** The view phase for one type of source, which is looked up without going through a finder. */
+  private MethodSpec createSpecializedBindMethod(ClassName sourceType, String finder,
+      List<MethodSpec> parts) {
+    MethodSpec.Builder result = MethodSpec.methodBuilder("bind")
+        .addAnnotation(Override.class)
+        .addModifiers(PUBLIC)
+        .addParameter(TypeVariableName.get("T"), "target", FINAL)
+        .addParameter(sourceType, "source");
+
+    if (extendsParentBinder()) {
+      result.addStatement("super.bind(target, source)");
+    } else if (parentBinding != null) {
+      addParentBindStatement(result, CodeBlock.builder().add("$T.$L", FINDER, finder).build(),
+          "source");
+    }
+
+    directLookups = true;
+    emitViewPhase(result, "bind", sourceType, finder, parts);
+    directLookups = false;
+    return result.build();
+  }
+
+  private MethodSpec createBindResourcesMethod() {
+    MethodSpec.Builder result = MethodSpec.methodBuilder("bindResources")
+        .addAnnotation(Override.class)
+        .addModifiers(PUBLIC)
+        .addParameter(FINDER, "finder")
+        .addParameter(TypeVariableName.get("T"), "target")
+        .addParameter(Object.class, "source");
+
+    if (parentIsResourceBinder()) {
+      result.addStatement("super.bindResources(finder, target, source)");
+    }
+
     if (requiresResources()) {
       result.addStatement("$T res = finder.getContext(source).getResources()", Resources.class);
 
       if (!bitmapBindings.isEmpty()) {
-        for (FieldBitmapBinding binding : bitmapBindings) {
+        for (FieldBitmapBinding binding : bitmapBindings.values()) {
           result.addStatement("target.$L = $T.decodeResource(res, $T.drawable.$L)",
               binding.getName(), BitmapFactory.class, resClass, binding.getId());
         }
       }
 
       if (!resourceBindings.isEmpty()) {
-        for (FieldResourceBinding binding : resourceBindings) {
+        for (FieldResourceBinding binding : resourceBindings.values()) {
           result.addStatement("target.$L = res.$L($T.$L.$L)", binding.getName(),
               binding.getMethod(), resClass, binding.getType(), binding.getId());
         }
       }
     }
 
+    for (FieldFontBinding binding : fontBindings.values()) {
+      result.addStatement("target.$L = $T.get(finder.getContext(source), $S)", binding.getName(),
+          TYPEFACE_CACHE, binding.getPath());
+    }
+
+    // Animators are cloned from a shared prototype. Animations cannot be copied and are loaded.
+    for (FieldAnimationBinding binding : animationBindings.values()) {
+      if (binding.isAnimator()) {
+        result.addStatement("target.$L = $T.get(finder.getContext(source), $T.animator.$L)",
+            binding.getName(), ANIMATOR_CACHE, resClass, binding.getId());
+      } else {
+        result.addStatement("target.$L = $T.loadAnimation(finder.getContext(source), $T.anim.$L)",
+            binding.getName(), AnimationUtils.class, resClass, binding.getId());
+      }
+    }
+
+    if (!themeBindings.isEmpty()) {
+      // Resolve every theme attribute with a single lookup and release the array right away.
+      result.addStatement("$T attrs = finder.getContext(source).obtainStyledAttributes($L)",
+          TypedArray.class, THEME_ATTRS);
+      int i = 0;
+      for (FieldThemeBinding binding : themeBindings.values()) {
+        // A theme without the attribute fails like a missing resource instead of binding 0.
+        CodeBlock index = CodeBlock.builder()
+            .add("finder.requireAttr(source, attrs, $L, $L[$L], $S)", THEME_ATTRS,
+                THEME_ATTR_INDICES, i, "field '" + binding.getName() + "'")
+            .build();
+        if (binding.getDefaultValue() == null) {
+          result.addStatement("target.$L = attrs.$L($L)", binding.getName(), binding.getMethod(),
+              index);
+        } else {
+          result.addStatement("target.$L = attrs.$L($L, $L)", binding.getName(),
+              binding.getMethod(), index, binding.getDefaultValue());
+        }
+        i++;
+      }
+      result.addStatement("attrs.recycle()");
+    }
+
     return result.build();
   }
 
-  private void emitCollectionBinding(MethodSpec.Builder result, FieldCollectionViewBinding binding,
-      String[] ids) {
+  /**
+   * Maps each view ID in a collection which is also bound elsewhere, or more than once, to the
+   * collections containing it. Lean and specialized view phases look every collection view up
+   * into a local, except for those of collections large enough for a table of their IDs.
+   */
+  private Map<String, Set<FieldCollectionViewBinding>> getSharedCollectionIds() {
+    Map<String, Set<FieldCollectionViewBinding>> collectionsById = new TreeMap<>();
+    Set<String> repeatedIds = new HashSet<>();
+    for (Map.Entry<FieldCollectionViewBinding, String[]> entry : collectionBindings.entrySet()) {
+      for (String id : entry.getValue()) {
+        Set<FieldCollectionViewBinding> collections = collectionsById.get(id);
+        if (collections == null) {
+          collections = new TreeSet<>(ViewBindings.NAME_ORDER);
+          collectionsById.put(id, collections);
+        } else {
+          repeatedIds.add(id);
+        }
+        collections.add(entry.getKey());
+      }
+    }
+    Set<FieldCollectionViewBinding> tabled = new HashSet<>();
+    for (Map.Entry<FieldCollectionViewBinding, String[]> entry : collectionBindings.entrySet()) {
+      String[] ids = entry.getValue();
+      if (usesIdTable(entry.getKey(), ids, repeatedIds)
+          && !containsAny(viewIdMap.keySet(), ids)) {
+        tabled.add(entry.getKey());
+      }
+    }
+    Iterator<Map.Entry<String, Set<FieldCollectionViewBinding>>> entries =
+        collectionsById.entrySet().iterator();
+    while (entries.hasNext()) {
+      Map.Entry<String, Set<FieldCollectionViewBinding>> entry = entries.next();
+      String id = entry.getKey();
+      if (!repeatedIds.contains(id) && !viewIdMap.containsKey(id)
+          && (descriptions == null && !directLookups
+              || tabled.containsAll(entry.getValue()))) {
+        entries.remove();
+      }
+    }
+    return collectionsById;
+  }
+
+  private static boolean containsAny(Set<String> set, String[] ids) {
+    for (String id : ids) {
+      if (set.contains(id)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * True if the views of a collection are looked up in a loop over a table of their IDs. The loop
+   * fills an array of the element type, which cannot be created for a parameterized type or a type
+   * variable.
+   */
+  private static boolean usesIdTable(FieldCollectionViewBinding binding, String[] ids,
+      Set<String> sharedIds) {
+    return ids.length >= COLLECTION_TABLE_THRESHOLD && binding.getType() instanceof ClassName
+        && !containsAny(sharedIds, ids);
+  }
+
+  private static String sharedViewName(String id) {
+    return "view_" + id;
+  }
+
+  private void emitSharedLookup(CodeBlock.Builder result, String id,
+      Set<FieldCollectionViewBinding> collections) {
+    List<ViewBinding> requiredBindings = new ArrayList<>();
+    for (FieldCollectionViewBinding collection : collections) {
+      if (collection.isRequired()) {
+        requiredBindings.add(collection);
+      }
+    }
+    String local = sharedViewName(id);
+    CodeBlock declaration = CodeBlock.builder().add("$T $L", VIEW, local).build();
+    emitLookup(result, declaration, local, idReference(id), requiredBindings);
+  }
+
+  private CodeBlock idReference(String id) {
+    return CodeBlock.builder().add("$T.id.$L", resClass, id).build();
+  }
+
+  /**
+   * Assigns the view with {@code id} to {@code local}. Lean binders check for a missing view
+   * inline and refer to its description by index into the side table.
+   */
+  private void emitLookup(CodeBlock.Builder result, CodeBlock assignee, String local, CodeBlock id,
+      List<ViewBinding> requiredBindings) {
+    if (descriptions != null || directLookups) {
+      if (directLookups) {
+        result.addStatement("$L = source.findViewById($L)", assignee, id);
+      } else {
+        result.addStatement("$L = finder.findViewById(source, $L)", assignee, id);
+      }
+      if (!requiredBindings.isEmpty()) {
+        result.beginControlFlow("if ($L == null)", local);
+        if (descriptions != null) {
+          result.addStatement("throw finder.missingView(source, $L, $T.class, $L)", id,
+              ClassName.get(classPackage, className), describe(requiredBindings));
+        } else {
+          result.addStatement("throw finder.missingView(source, $L, $S)", id,
+              asHumanDescription(requiredBindings));
+        }
+        result.endControlFlow();
+      }
+    } else if (requiredBindings.isEmpty()) {
+      result.addStatement("$L = finder.findOptionalView(source, $L, null)", assignee, id);
+    } else {
+      result.addStatement("$L = finder.findRequiredView(source, $L, $S)", assignee, id,
+          asHumanDescription(requiredBindings));
+    }
+  }
+
+  /** Returns the index of the description of {@code bindings} in the side table. */
+  private int describe(Collection<? extends ViewBinding> bindings) {
+    String description = asHumanDescription(bindings);
+    int index = descriptions.indexOf(description);
+    if (index == -1) {
+      descriptions.add(description);
+      index = descriptions.size() - 1;
+    }
+    return index;
+  }
+
+  private void emitCollectionBinding(CodeBlock.Builder result, FieldCollectionViewBinding binding,
+      String[] ids, Set<String> sharedIds) {
     String ofName;
     switch (binding.getKind()) {
       case ARRAY:
@@ -179,11 +1247,27 @@ final class BindingClass {
         throw new IllegalStateException("Unknown kind: " + binding.getKind());
     }
 
+    if (usesIdTable(binding, ids, sharedIds)) {
+      emitCollectionLoop(result, binding, ids, ofName);
+      return;
+    }
+
     CodeBlock.Builder builder = CodeBlock.builder();
     for (int i = 0; i < ids.length; i++) {
       if (i > 0) {
         builder.add(", ");
       }
+      if (sharedIds.contains(ids[i])) {
+        if (VIEW_TYPE.equals(binding.getType().toString())) {
+          builder.add("\n$L", sharedViewName(ids[i]));
+        } else if (descriptions != null) {
+          builder.add("\n($T) $L", binding.getType(), sharedViewName(ids[i]));
+        } else {
+          builder.add("\nfinder.<$T>castView($L, $T.id.$L, $S)", binding.getType(),
+              sharedViewName(ids[i]), resClass, ids[i], asHumanDescription(singletonList(binding)));
+        }
+        continue;
+      }
       String findMethod = binding.isRequired() ? "findRequiredView" : "findOptionalView";
       builder.add("\nfinder.<$T>$L(source, $T.id.$L, $S)", binding.getType(), findMethod,
           resClass, ids[i], asHumanDescription(singletonList(binding)));
@@ -193,28 +1277,129 @@ final class BindingClass {
         builder.build());
   }
 
-  private void addViewBindings(MethodSpec.Builder result, ViewBindings bindings) {
-    List<ViewBinding> requiredViewBindings = bindings.getRequiredBindings();
-    if (requiredViewBindings.isEmpty()) {
-      result.addStatement("view = finder.findOptionalView(source, $T.id.$L, null)",
-          resClass, bindings.getId());
-    } else {
-      if (bindings.getId().isEmpty()) {
-        result.addStatement("view = target");
+  /**
+   * Looks the views of a large collection up in a loop over a static table of their IDs, rather
+   * than with a statement per view.
+   */
+  private void emitCollectionLoop(CodeBlock.Builder result, FieldCollectionViewBinding binding,
+      String[] ids, String ofName) {
+    String table = addIdTable(binding.getName(), ids);
+    String views = binding.getName() + "Views";
+    TypeName type = binding.getType();
+    String who = asHumanDescription(singletonList(binding));
+    result.addStatement("$T[] $L = new $T[$L.length]", type, views, type, table);
+    result.beginControlFlow("for (int i = 0; i < $L.length; i++)", table);
+    if (descriptions != null || directLookups) {
+      List<ViewBinding> requiredBindings = binding.isRequired()
+          ? singletonList((ViewBinding) binding) : Collections.<ViewBinding>emptyList();
+      CodeBlock assignee = CodeBlock.builder().add("$T item", VIEW).build();
+      CodeBlock id = CodeBlock.builder().add("$L[i]", table).build();
+      emitLookup(result, assignee, "item", id, requiredBindings);
+      if (VIEW_TYPE.equals(type.toString())) {
+        result.addStatement("$L[i] = item", views);
+      } else if (descriptions != null) {
+        result.addStatement("$L[i] = ($T) item", views, type);
       } else {
-        result.addStatement("view = finder.findRequiredView(source, $T.id.$L, $S)",
-            resClass, bindings.getId(), asHumanDescription(requiredViewBindings));
+        result.addStatement("$L[i] = finder.<$T>castView(item, $L[i], $S)", views, type, table,
+            who);
       }
+    } else {
+      String findMethod = binding.isRequired() ? "findRequiredView" : "findOptionalView";
+      result.addStatement("$L[i] = finder.<$T>$L(source, $L[i], $S)", views, type, findMethod,
+          table, who);
+    }
+    result.endControlFlow();
+    result.addStatement("target.$L = $T.$L($L)", binding.getName(), FINDER, ofName, views);
+  }
+
+  /**
+   * Adds the table of the view IDs of the collection {@code name}, returning its name. Collections
+   * of the same IDs share one table.
+   */
+  private String addIdTable(String name, String[] ids) {
+    List<String> idList = Arrays.asList(ids);
+    FieldSpec table = idTables.get(idList);
+    if (table != null) {
+      return table.name;
+    }
+
+    StringBuilder tableName = new StringBuilder();
+    for (char c : name.toCharArray()) {
+      if (Character.isUpperCase(c) && tableName.length() > 0) {
+        tableName.append('_');
+      }
+      tableName.append(Character.toUpperCase(c));
+    }
+    tableName.append("_IDS");
+    if (isInPackageBinder()) {
+      // Tables of every target in the package end up in the same class.
+      tableName.append('_').append(packageIndex);
+    }
+
+    // Fields like fooBar and foo_bar both map to FOO_BAR_IDS.
+    String uniqueName = tableName.toString();
+    for (int i = 2; hasIdTableNamed(uniqueName); i++) {
+      uniqueName = tableName.toString() + '_' + i;
+    }
+    // One entry per line, since tables can be long.
+    CodeBlock.Builder initializer = CodeBlock.builder().add("{$>$>");
+    for (int i = 0; i < ids.length; i++) {
+      initializer.add(i > 0 ? ",\n" : "\n").add("$T.id.$L", resClass, ids[i]);
+    }
+    initializer.add("$<$<\n}");
+    idTables.put(idList, FieldSpec.builder(int[].class, uniqueName, PRIVATE, STATIC, FINAL)
+        .initializer(initializer.build())
+        .build());
+    return uniqueName;
+  }
+
+  private boolean hasIdTableNamed(String name) {
+    for (FieldSpec table : idTables.values()) {
+      if (table.name.equals(name)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private void addViewBindings(CodeBlock.Builder result, ViewBindings bindings,
+      Set<FieldCollectionViewBinding> collections) {
+    List<ViewBinding> requiredViewBindings = bindings.getRequiredBindings();
+    if (collections != null) {
+      for (FieldCollectionViewBinding collection : collections) {
+        if (collection.isRequired()) {
+          requiredViewBindings.add(collection);
+        }
+      }
+    }
+    FieldViewBinding ancestorField = ancestorFields.get(bindings.getId());
+    if (ancestorField != null) {
+      // The superclass binder has just looked this view up and it cannot be null.
+      result.addStatement("view = target.$L", ancestorField.getName());
+    } else if (bindings.getId().isEmpty() && !requiredViewBindings.isEmpty()) {
+      result.addStatement("view = target");
+    } else {
+      CodeBlock assignee = CodeBlock.builder().add("view").build();
+      emitLookup(result, assignee, "view", idReference(bindings.getId()),
+          requiredViewBindings);
+    }
+
+    if (collections != null) {
+      result.addStatement("$T $L = view", VIEW, sharedViewName(bindings.getId()));
     }
 
     addFieldBindings(result, bindings);
-    addMethodBindings(result, bindings);
+    addMethodBindings(result, bindings,
+        requiredViewBindings.isEmpty() && ancestorField == null);
   }
 
-  private void addFieldBindings(MethodSpec.Builder result, ViewBindings bindings) {
+  private void addFieldBindings(CodeBlock.Builder result, ViewBindings bindings) {
     Collection<FieldViewBinding> fieldBindings = bindings.getFieldBindings();
     for (FieldViewBinding fieldBinding : fieldBindings) {
-      if (fieldBinding.requiresCast()) {
+      if (fieldBinding.requiresCast() && descriptions != null) {
+        result.addStatement("target.$L = ($T) view", fieldBinding.getName(),
+            fieldBinding.getType());
+      } else if (fieldBinding.requiresCast()) {
         result.addStatement("target.$L = finder.castView(view, $T.id.$L, $S)", fieldBinding.getName(),
             resClass, bindings.getId(), asHumanDescription(fieldBindings));
       } else {
@@ -223,38 +1408,38 @@ final class BindingClass {
     }
   }
 
-  private void addMethodBindings(MethodSpec.Builder result, ViewBindings bindings) {
-    Map<ListenerClass, Map<ListenerMethod, Set<MethodViewBinding>>> classMethodBindings =
+  private void addMethodBindings(CodeBlock.Builder result, ViewBindings bindings,
+      boolean needsNullChecked) {
+    Map<ListenerType, Map<ListenerCallback, Set<MethodViewBinding>>> classMethodBindings =
         bindings.getMethodBindings();
     if (classMethodBindings.isEmpty()) {
       return;
     }
 
     // We only need to emit the null check if there are zero required bindings.
-    boolean needsNullChecked = bindings.getRequiredBindings().isEmpty();
     if (needsNullChecked) {
       result.beginControlFlow("if (view != null)");
     }
 
-    for (Map.Entry<ListenerClass, Map<ListenerMethod, Set<MethodViewBinding>>> e
+    for (Map.Entry<ListenerType, Map<ListenerCallback, Set<MethodViewBinding>>> e
         : classMethodBindings.entrySet()) {
-      ListenerClass listener = e.getKey();
-      Map<ListenerMethod, Set<MethodViewBinding>> methodBindings = e.getValue();
+      ListenerType listener = e.getKey();
+      Map<ListenerCallback, Set<MethodViewBinding>> methodBindings = e.getValue();
 
       TypeSpec.Builder callback = TypeSpec.anonymousClassBuilder("")
-          .superclass(ClassName.bestGuess(listener.type()));
+          .superclass(listener.getTypeName());
 
-      for (ListenerMethod method : getListenerMethods(listener)) {
-        MethodSpec.Builder callbackMethod = MethodSpec.methodBuilder(method.name())
+      for (ListenerCallback method : listener.getCallbacks()) {
+        MethodSpec.Builder callbackMethod = MethodSpec.methodBuilder(method.getName())
             .addAnnotation(Override.class)
             .addModifiers(PUBLIC)
-            .returns(bestGuess(method.returnType()));
-        String[] parameterTypes = method.parameters();
+            .returns(method.getReturnTypeName());
+        TypeName[] parameterTypes = method.getParameterTypeNames();
         for (int i = 0, count = parameterTypes.length; i < count; i++) {
-          callbackMethod.addParameter(bestGuess(parameterTypes[i]), "p" + i);
+          callbackMethod.addParameter(parameterTypes[i], "p" + i);
         }
 
-        boolean hasReturnType = !"void".equals(method.returnType());
+        boolean hasReturnType = method.hasReturnType();
         CodeBlock.Builder builder = CodeBlock.builder();
         if (hasReturnType) {
           builder.add("return ");
@@ -264,7 +1449,7 @@ final class BindingClass {
           for (MethodViewBinding binding : methodBindings.get(method)) {
             builder.add("target.$L(", binding.getName());
             List<Parameter> parameters = binding.getParameters();
-            String[] listenerParameters = method.parameters();
+            String[] listenerParameters = method.getParameterTypes();
             for (int i = 0, count = parameters.size(); i < count; i++) {
               if (i > 0) {
                 builder.add(", ");
@@ -273,9 +1458,12 @@ final class BindingClass {
               Parameter parameter = parameters.get(i);
               int listenerPosition = parameter.getListenerPosition();
 
-              if (parameter.requiresCast(listenerParameters[listenerPosition])) {
+              if (parameter.requiresCast(listenerParameters[listenerPosition])
+                  && descriptions != null) {
+                builder.add("($T) p$L", parameter.getType(), listenerPosition);
+              } else if (parameter.requiresCast(listenerParameters[listenerPosition])) {
                 builder.add("finder.<$T>castParam(p$L, $S, $L, $S, $L)\n", parameter.getType(),
-                    listenerPosition, method.name(), listenerPosition, binding.getName(), i);
+                    listenerPosition, method.getName(), listenerPosition, binding.getName(), i);
               } else {
                 builder.add("p$L", listenerPosition);
               }
@@ -283,17 +1471,17 @@ final class BindingClass {
             builder.add(");\n");
           }
         } else if (hasReturnType) {
-          builder.add("$L;\n", method.defaultReturn());
+          builder.add("$L;\n", method.getDefaultReturn());
         }
         callbackMethod.addCode(builder.build());
         callback.addMethod(callbackMethod.build());
       }
 
-      if (!VIEW_TYPE.equals(listener.targetType())) {
-        result.addStatement("(($T) view).$L($L)", bestGuess(listener.targetType()),
-            listener.setter(), callback.build());
+      if (!VIEW_TYPE.equals(listener.getTargetType())) {
+        result.addStatement("(($T) view).$L($L)", listener.getTargetTypeName(),
+            listener.getSetter(), callback.build());
       } else {
-        result.addStatement("view.$L($L)", listener.setter(), callback.build());
+        result.addStatement("view.$L($L)", listener.getSetter(), callback.build());
       }
     }
 
@@ -302,39 +1490,51 @@ final class BindingClass {
     }
   }
 
-  static List<ListenerMethod> getListenerMethods(ListenerClass listener) {
-    if (listener.method().length == 1) {
-      return Arrays.asList(listener.method());
-    }
-
-    try {
-      List<ListenerMethod> methods = new ArrayList<>();
-      Class<? extends Enum<?>> callbacks = listener.callbacks();
-      for (Enum<?> callbackMethod : callbacks.getEnumConstants()) {
-        Field callbackField = callbacks.getField(callbackMethod.name());
-        ListenerMethod method = callbackField.getAnnotation(ListenerMethod.class);
-        if (method == null) {
-          throw new IllegalStateException(String.format("@%s's %s.%s missing @%s annotation.",
-              callbacks.getEnclosingClass().getSimpleName(), callbacks.getSimpleName(),
-              callbackMethod.name(), ListenerMethod.class.getSimpleName()));
-        }
-        methods.add(method);
-      }
-      return methods;
-    } catch (NoSuchFieldException e) {
-      throw new AssertionError(e);
-    }
-  }
-
   private MethodSpec createUnbindMethod() {
     MethodSpec.Builder result = MethodSpec.methodBuilder("unbind")
         .addAnnotation(Override.class)
         .addModifiers(PUBLIC)
         .addParameter(TypeVariableName.get("T"), "target");
 
-    if (parentViewBinder != null) {
+    if (extendsParentBinder()) {
       result.addStatement("super.unbind(target)");
+    } else if (parentBinding != null) {
+      result.addStatement("$T.unbind$L(target)", parentBinding.getPackageBinderName(),
+          parentBinding.packageIndex);
     }
+    addUnbindStatements(result);
+    return result.build();
+  }
+
+  /** The bind method of this target in its package binder. */
+  MethodSpec createPackageBindMethod(List<MethodSpec> parts) {
+    String name = "bind" + packageIndex;
+    MethodSpec.Builder result = MethodSpec.methodBuilder(name)
+        .addModifiers(PUBLIC, STATIC)
+        .addParameter(FINDER, "finder", FINAL)
+        .addParameter(getTargetParameterType(), "target", FINAL)
+        .addParameter(Object.class, "source");
+    idTables.clear();
+    oversizedUnits.clear();
+    emitViewPhase(result, name, null, null, parts);
+    return result.build();
+  }
+
+  /** Tables of collection view IDs referred to by the last emitted view phases. */
+  Collection<FieldSpec> getIdTables() {
+    return idTables.values();
+  }
+
+  /** The unbind method of this target in its package binder. */
+  MethodSpec createPackageUnbindMethod() {
+    MethodSpec.Builder result = MethodSpec.methodBuilder("unbind" + packageIndex)
+        .addModifiers(PUBLIC, STATIC)
+        .addParameter(getTargetParameterType(), "target");
+    addUnbindStatements(result);
+    return result.build();
+  }
+
+  private void addUnbindStatements(MethodSpec.Builder result) {
     for (ViewBindings bindings : viewIdMap.values()) {
       for (FieldViewBinding fieldBinding : bindings.getFieldBindings()) {
         result.addStatement("target.$L = null", fieldBinding.getName());
@@ -343,8 +1543,6 @@ final class BindingClass {
     for (FieldCollectionViewBinding fieldCollectionBinding : collectionBindings.keySet()) {
       result.addStatement("target.$L = null", fieldCollectionBinding.getName());
     }
-
-    return result.build();
   }
 
   static String asHumanDescription(Collection<? extends ViewBinding> bindings) {
@@ -396,7 +1594,66 @@ final class BindingClass {
     }
   }
 
+  /** True if this binder is a subclass of the binder class of its parent. */
+  private boolean extendsParentBinder() {
+    return parentBinding != null && !parentBinding.isInPackageBinder();
+  }
+
+  ClassName getPackageBinderName() {
+    return ClassName.get(classPackage, PACKAGE_BINDER_NAME);
+  }
+
+  /** Package binders bind the target itself rather than a type variable of a binder class. */
+  private TypeName getTargetParameterType() {
+    return isInPackageBinder() ? ClassName.bestGuess(targetClass) : TypeVariableName.get("T");
+  }
+
+  /** True if every binding of the target can be described in the tables of a table binder. */
+  private boolean usesTable() {
+    if (!tableDriven || specialized || descriptions != null || parentBinding != null
+        || !collectionBindings.isEmpty() || hasResourceBindings()) {
+      return false;
+    }
+    for (ViewBindings bindings : viewIdMap.values()) {
+      if (bindings.getId().isEmpty()) {
+        return false;
+      }
+      for (ListenerType listener : bindings.getMethodBindings().keySet()) {
+        if (!VIEW_TYPE.equals(listener.getTargetType())
+            || !CLICK_SETTER.equals(listener.getSetter())
+            && !LONG_CLICK_SETTER.equals(listener.getSetter())) {
+          return false;
+        }
+      }
+    }
+    return true;
+  }
+
   private boolean requiresResources() {
     return !bitmapBindings.isEmpty() || !resourceBindings.isEmpty();
   }
+
+  private boolean hasViewBindings() {
+    return !viewIdMap.isEmpty() || !collectionBindings.isEmpty();
+  }
+
+  /** True when this binder or an ancestor splits binding into a view and a resource phase. */
+  private boolean isResourceBinder() {
+    return hasResourceBindings() || parentIsResourceBinder();
+  }
+
+  private boolean hasResourceBindings() {
+    return requiresResources() || !animationBindings.isEmpty() || !fontBindings.isEmpty()
+        || !themeBindings.isEmpty();
+  }
+
+  /** True if some binder up the hierarchy already implements the resource phase. */
+  private boolean parentIsResourceBinder() {
+    for (BindingClass parent = parentBinding; parent != null; parent = parent.parentBinding) {
+      if (parent.hasResourceBindings()) {
+        return true;
+      }
+    }
+    return false;
+  }
 }
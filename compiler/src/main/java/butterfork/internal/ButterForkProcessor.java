@@ -1,23 +1,26 @@
 package butterfork.internal;
 
 import com.google.auto.service.AutoService;
+import com.squareup.javapoet.JavaFile;
 import com.squareup.javapoet.TypeName;
 
 import java.io.IOException;
 import java.io.PrintWriter;
 import java.io.StringWriter;
+import java.io.Writer;
 import java.lang.annotation.Annotation;
-import java.lang.reflect.Field;
-import java.lang.reflect.Method;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.BitSet;
 import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.TreeMap;
 
 import javax.annotation.processing.AbstractProcessor;
 import javax.annotation.processing.Filer;
@@ -38,16 +41,24 @@ import javax.lang.model.type.TypeMirror;
 import javax.lang.model.type.TypeVariable;
 import javax.lang.model.util.Elements;
 import javax.lang.model.util.Types;
+import javax.tools.FileObject;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardLocation;
 
 import butterfork.Bind;
+import butterfork.BindAnim;
+import butterfork.BindAnimator;
 import butterfork.BindArray;
 import butterfork.BindBitmap;
 import butterfork.BindBool;
 import butterfork.BindColor;
 import butterfork.BindDimen;
 import butterfork.BindDrawable;
+import butterfork.BindFont;
 import butterfork.BindInt;
 import butterfork.BindString;
+import butterfork.BindThemeColor;
+import butterfork.BindThemeDimen;
 import butterfork.OnCheckedChanged;
 import butterfork.OnClick;
 import butterfork.OnEditorAction;
@@ -60,25 +71,51 @@ import butterfork.OnPageChange;
 import butterfork.OnTextChanged;
 import butterfork.OnTouch;
 
+import static java.nio.charset.StandardCharsets.UTF_8;
 import static javax.lang.model.element.ElementKind.CLASS;
 import static javax.lang.model.element.ElementKind.INTERFACE;
 import static javax.lang.model.element.ElementKind.METHOD;
 import static javax.lang.model.element.Modifier.PRIVATE;
 import static javax.lang.model.element.Modifier.STATIC;
 import static javax.tools.Diagnostic.Kind.ERROR;
+import static javax.tools.Diagnostic.Kind.NOTE;
+import static javax.tools.Diagnostic.Kind.WARNING;
 
 @AutoService(Processor.class)
 public final class ButterForkProcessor extends AbstractProcessor {
   static final String VIEW_TYPE = "android.view.View";
-  private static final String BINDING_CLASS_SUFFIX = "$$ViewBinder";
+  static final String BINDING_CLASS_SUFFIX = "$$ViewBinder";
+  private static final String ACTIVITY_TYPE = "android.app.Activity";
+  private static final String DIALOG_TYPE = "android.app.Dialog";
   private static final String COLOR_STATE_LIST_TYPE = "android.content.res.ColorStateList";
+  private static final String ANIMATION_TYPE = "android.view.animation.Animation";
+  private static final String ANIMATOR_TYPE = "android.animation.Animator";
   private static final String BITMAP_TYPE = "android.graphics.Bitmap";
   private static final String DRAWABLE_TYPE = "android.graphics.drawable.Drawable";
+  private static final String TYPEFACE_TYPE = "android.graphics.Typeface";
   private static final String TYPED_ARRAY_TYPE = "android.content.res.TypedArray";
   private static final String NULLABLE_ANNOTATION_NAME = "Nullable";
   private static final String ITERABLE_TYPE = "java.lang.Iterable<?>";
   private static final String LIST_TYPE = List.class.getCanonicalName();
   private static final String JVM_ARGUMENT = "respackagename";
+  private static final String BREW_PARALLELISM_ARGUMENT = "brewparallelism";
+  private static final String PROCESSOR_STATS_ARGUMENT = "processorstats";
+  private static final String FLATTEN_BINDERS_ARGUMENT = "flattenbinders";
+  private static final String LEAN_BINDERS_ARGUMENT = "leanbinders";
+  private static final String SPECIALIZED_BINDERS_ARGUMENT = "specializedbinders";
+  private static final String STATIC_BINDERS_ARGUMENT = "staticbinders";
+  private static final String BIND_METHOD_BUDGET_ARGUMENT = "bindmethodbudget";
+  private static final String TABLE_BINDERS_ARGUMENT = "tablebinders";
+  private static final String PACKAGE_BINDERS_ARGUMENT = "packagebinders";
+  private static final String KEEP_RULES_ARGUMENT = "keeprules";
+  private static final String BIND_COST_REPORT_ARGUMENT = "bindcostreport";
+  private static final String BIND_COST_BUDGET_ARGUMENT = "bindcostbudget";
+  private static final String DESCRIPTIONS_FILE = "butterfork-descriptions.txt";
+  private static final String PROCESSOR_STATS_FILE = "butterfork-stats.json";
+  private static final String BIND_COSTS_FILE = "butterfork-costs.json";
+  // R8 reads the rules embedded here in library jars. Whether rules in the class output of an app
+  // are read depends on the build, so writing them is opt-in.
+  private static final String KEEP_RULES_DIRECTORY = "META-INF/proguard/";
   private static final List<Class<? extends Annotation>> LISTENERS = Arrays.asList(//
       OnCheckedChanged.class, //
       OnClick.class, //
@@ -96,7 +133,31 @@ public final class ButterForkProcessor extends AbstractProcessor {
   private Elements elementUtils;
   private Types typeUtils;
   private Filer filer;
+  private SubtypeCache subtypeCache;
+  private final Map<Class<? extends Annotation>, ListenerType> listenerTypes =
+      new LinkedHashMap<>();
   private String resPackage;
+  private BinderBrewer brewer;
+  private ProcessorStats stats;
+  private boolean flattenBinders;
+  private boolean leanBinders;
+  private boolean specializedBinders;
+  private boolean staticBinders;
+  private int bindMethodBudget;
+  private boolean tableBinders;
+  private boolean packageBinders;
+  private boolean keepRules;
+  private boolean bindCostReport;
+  private int bindCostBudget;
+  // Side table of lean binders, written once processing is over.
+  private final Map<String, List<String>> descriptions = new TreeMap<>();
+  // Estimated cost of binding each target, reported once processing is over.
+  private final Map<String, BindCost> bindCosts = new TreeMap<>();
+  // Targets whose binders were written in an earlier round, keyed by binder FQCN.
+  private final Map<String, BindingClass> processedBindingClasses = new LinkedHashMap<>();
+  private final Set<String> processedTargetNames = new LinkedHashSet<>();
+  // Packages whose binder was written in an earlier round. Later targets get classes of their own.
+  private final Set<String> packageBinderPackages = new LinkedHashSet<>();
 
   @Override public synchronized void init(ProcessingEnvironment env) {
     super.init(env);
@@ -104,11 +165,64 @@ public final class ButterForkProcessor extends AbstractProcessor {
     elementUtils = env.getElementUtils();
     typeUtils = env.getTypeUtils();
     filer = env.getFiler();
+    subtypeCache = new SubtypeCache(elementUtils, typeUtils);
+    for (Class<? extends Annotation> listener : LISTENERS) {
+      listenerTypes.put(listener, new ListenerType(listener));
+    }
     resPackage = env.getOptions().get(JVM_ARGUMENT);
+    String brewParallelism = env.getOptions().get(BREW_PARALLELISM_ARGUMENT);
+    brewer = new BinderBrewer(parseIntOption(BREW_PARALLELISM_ARGUMENT, brewParallelism,
+        Runtime.getRuntime().availableProcessors(), 1));
+    String processorStats = env.getOptions().get(PROCESSOR_STATS_ARGUMENT);
+    stats = new ProcessorStats(Boolean.parseBoolean(processorStats));
+    flattenBinders = Boolean.parseBoolean(env.getOptions().get(FLATTEN_BINDERS_ARGUMENT));
+    leanBinders = Boolean.parseBoolean(env.getOptions().get(LEAN_BINDERS_ARGUMENT));
+    specializedBinders =
+        Boolean.parseBoolean(env.getOptions().get(SPECIALIZED_BINDERS_ARGUMENT));
+    staticBinders = Boolean.parseBoolean(env.getOptions().get(STATIC_BINDERS_ARGUMENT));
+    // Splitting is opt-in since the method size limits of runtimes and their compilers differ.
+    bindMethodBudget = parseIntOption(BIND_METHOD_BUDGET_ARGUMENT,
+        env.getOptions().get(BIND_METHOD_BUDGET_ARGUMENT), 0, 0);
+    tableBinders = Boolean.parseBoolean(env.getOptions().get(TABLE_BINDERS_ARGUMENT));
+    packageBinders = Boolean.parseBoolean(env.getOptions().get(PACKAGE_BINDERS_ARGUMENT));
+    keepRules = Boolean.parseBoolean(env.getOptions().get(KEEP_RULES_ARGUMENT));
+    bindCostReport = Boolean.parseBoolean(env.getOptions().get(BIND_COST_REPORT_ARGUMENT));
+    bindCostBudget = parseIntOption(BIND_COST_BUDGET_ARGUMENT,
+        env.getOptions().get(BIND_COST_BUDGET_ARGUMENT), 0, 0);
+  }
+
+  /**
+   * The value of the numeric option {@code name}, at least {@code min}. An absent option is
+   * {@code defaultValue} and one which is not a number is reported as an error.
+   */
+  private int parseIntOption(String name, String value, int defaultValue, int min) {
+    if (value == null) {
+      return defaultValue;
+    }
+    try {
+      return Math.max(min, Integer.parseInt(value));
+    } catch (NumberFormatException e) {
+      error(null, "Option -A%s must be a number but was '%s'.", name, value);
+      return defaultValue;
+    }
   }
 
   @Override public Set<String> getSupportedOptions() {
-    return Collections.singleton(JVM_ARGUMENT);
+    Set<String> options = new LinkedHashSet<>();
+    options.add(JVM_ARGUMENT);
+    options.add(BREW_PARALLELISM_ARGUMENT);
+    options.add(PROCESSOR_STATS_ARGUMENT);
+    options.add(FLATTEN_BINDERS_ARGUMENT);
+    options.add(LEAN_BINDERS_ARGUMENT);
+    options.add(SPECIALIZED_BINDERS_ARGUMENT);
+    options.add(STATIC_BINDERS_ARGUMENT);
+    options.add(BIND_METHOD_BUDGET_ARGUMENT);
+    options.add(TABLE_BINDERS_ARGUMENT);
+    options.add(PACKAGE_BINDERS_ARGUMENT);
+    options.add(KEEP_RULES_ARGUMENT);
+    options.add(BIND_COST_REPORT_ARGUMENT);
+    options.add(BIND_COST_BUDGET_ARGUMENT);
+    return options;
   }
 
   @Override public Set<String> getSupportedAnnotationTypes() {
@@ -120,133 +234,457 @@ public final class ButterForkProcessor extends AbstractProcessor {
       types.add(listener.getCanonicalName());
     }
 
+    types.add(BindAnim.class.getCanonicalName());
+    types.add(BindAnimator.class.getCanonicalName());
     types.add(BindArray.class.getCanonicalName());
     types.add(BindBitmap.class.getCanonicalName());
     types.add(BindBool.class.getCanonicalName());
     types.add(BindColor.class.getCanonicalName());
     types.add(BindDimen.class.getCanonicalName());
     types.add(BindDrawable.class.getCanonicalName());
+    types.add(BindFont.class.getCanonicalName());
     types.add(BindInt.class.getCanonicalName());
     types.add(BindString.class.getCanonicalName());
+    types.add(BindThemeColor.class.getCanonicalName());
+    types.add(BindThemeDimen.class.getCanonicalName());
 
     return types;
   }
 
   @Override public boolean process(Set<? extends TypeElement> elements, RoundEnvironment env) {
-    Map<TypeElement, BindingClass> targetClassMap = findAndParseTargets(env);
-
+    // Rounds which carry none of our annotations have nothing to scan.
+    Map<TypeElement, BindingClass> targetClassMap = elements.isEmpty()
+        ? Collections.<TypeElement, BindingClass>emptyMap()
+        : findAndParseTargets(env);
+
+    // Render every binder up front, possibly in parallel, and write them in a stable order.
+    stats.beginPhase();
+    List<TypeElement> typeElements = new ArrayList<>();
+    List<BindingClass> bindingClasses = new ArrayList<>();
+    Map<String, PackageBindingClass> packageBindingClasses = new TreeMap<>();
+    if (flattenBinders) {
+      flattenAll(targetClassMap);
+    }
     for (Map.Entry<TypeElement, BindingClass> entry : targetClassMap.entrySet()) {
-      TypeElement typeElement = entry.getKey();
       BindingClass bindingClass = entry.getValue();
+      bindingClass.resolveAncestorFields();
+      if (leanBinders) {
+        bindingClass.setLean();
+      }
+      if (specializedBinders) {
+        bindingClass.setSpecialized();
+      }
+      if (staticBinders) {
+        bindingClass.setStaticBinding(getTargetFinder(entry.getKey()));
+      }
+      bindingClass.setBindMethodBudget(bindMethodBudget);
+      if (tableBinders) {
+        bindingClass.setTableDriven();
+      }
+      if (bindCostReport || bindCostBudget > 0) {
+        checkBindCost(entry.getKey(), bindingClass.estimateCost());
+      }
+      String classPackage = bindingClass.getClassPackage();
+      if (packageBinders && bindingClass.canJoinPackageBinder()
+          && !packageBinderPackages.contains(classPackage)) {
+        PackageBindingClass packageBindingClass = packageBindingClasses.get(classPackage);
+        if (packageBindingClass == null) {
+          packageBindingClass = new PackageBindingClass(classPackage);
+          packageBindingClasses.put(classPackage, packageBindingClass);
+        }
+        packageBindingClass.addBindingClass(bindingClass);
+        continue;
+      }
+      typeElements.add(entry.getKey());
+      bindingClasses.add(bindingClass);
+    }
+    List<BinderBrewer.Brew> brews = brewer.brew(bindingClasses);
+    for (int i = 0; i < bindingClasses.size(); i++) {
+      warnOversizedUnits(typeElements.get(i), bindingClasses.get(i));
+    }
+    if (leanBinders) {
+      for (BindingClass bindingClass : bindingClasses) {
+        descriptions.put(bindingClass.getFqcn(), bindingClass.getDescriptions());
+      }
+    }
+    stats.endPhase("brew");
 
+    stats.beginPhase();
+    for (int i = 0; i < brews.size(); i++) {
+      TypeElement typeElement = typeElements.get(i);
       try {
-        bindingClass.brewJava().writeTo(filer);
+        writeSource(brews.get(i));
+        if (keepRules) {
+          writeKeepRules(bindingClasses.get(i).getFqcn(),
+              Collections.singletonList(typeElement));
+        }
+        if (bindingClasses.get(i).hasStaticBinding()) {
+          JavaFile staticBinding = bindingClasses.get(i).brewStaticBinding();
+          writeSource(new BinderBrewer.Brew(staticBinding, staticBinding.toString()));
+        }
       } catch (IOException e) {
         error(typeElement, "Unable to write view binder for type %s: %s", typeElement,
             e.getMessage());
       }
     }
+    for (PackageBindingClass packageBindingClass : packageBindingClasses.values()) {
+      List<BindingClass> members = packageBindingClass.getBindingClasses();
+      try {
+        JavaFile javaFile = packageBindingClass.brewJava();
+        for (BindingClass bindingClass : members) {
+          warnOversizedUnits(bindingClass.getOriginatingElements().get(0), bindingClass);
+        }
+        writeSource(new BinderBrewer.Brew(javaFile, javaFile.toString()));
+        if (keepRules) {
+          List<TypeElement> targets = new ArrayList<>();
+          for (BindingClass bindingClass : members) {
+            targets.add(bindingClass.getOriginatingElements().get(0));
+          }
+          writeKeepRules(javaFile.packageName + "." + javaFile.typeSpec.name, targets);
+        }
+        for (BindingClass bindingClass : members) {
+          if (bindingClass.hasStaticBinding()) {
+            JavaFile staticBinding = bindingClass.brewStaticBinding();
+            writeSource(new BinderBrewer.Brew(staticBinding, staticBinding.toString()));
+          }
+        }
+      } catch (IOException e) {
+        error(members.get(0).getOriginatingElements().get(0),
+            "Unable to write view binder for package %s: %s",
+            packageBindingClass.getClassPackage(), e.getMessage());
+      }
+      packageBinderPackages.add(packageBindingClass.getClassPackage());
+    }
+    stats.endPhase("write");
+    stats.addRound(targetClassMap.size());
+
+    if (env.processingOver()) {
+      brewer.shutdown();
+      if (leanBinders) {
+        writeDescriptions();
+      }
+      if (stats.isEnabled()) {
+        writeStats();
+      }
+      if (bindCostReport) {
+        writeBindCosts();
+      }
+    }
 
     return true;
   }
 
+  private void writeSource(BinderBrewer.Brew brew) throws IOException {
+    JavaFile javaFile = brew.javaFile;
+    List<Element> originatingElements = javaFile.typeSpec.originatingElements;
+    JavaFileObject sourceFile = filer.createSourceFile(
+        javaFile.packageName + "." + javaFile.typeSpec.name,
+        originatingElements.toArray(new Element[originatingElements.size()]));
+    try (Writer writer = sourceFile.openWriter()) {
+      writer.write(brew.source);
+    }
+    stats.addGeneratedBytes(brew.source.getBytes(UTF_8).length);
+  }
+
+  /**
+   * Writes the shrinker rules for a binder which is only ever found by name, if enabled with
+   * {@code -Akeeprules=true}. They keep the names of the targets it is looked up by, and its no-arg
+   * constructor only if one of those targets is kept, so that a binder does not keep targets the
+   * app never uses through its field writes and listener calls.
+   */
+  private void writeKeepRules(String binderName, List<TypeElement> targets) throws IOException {
+    FileObject rules = filer.createResource(StandardLocation.CLASS_OUTPUT, "",
+        KEEP_RULES_DIRECTORY + binderName + ".pro", targets.toArray(new Element[targets.size()]));
+    try (Writer writer = rules.openWriter()) {
+      for (TypeElement target : targets) {
+        writer.write("-keepnames class " + elementUtils.getBinaryName(target) + "\n");
+      }
+      for (TypeElement target : targets) {
+        writer.write("-if class " + elementUtils.getBinaryName(target) + "\n");
+        writer.write("-keep class " + binderName + " {\n    <init>();\n}\n");
+      }
+    }
+  }
+
+  /**
+   * Replaces every binder of this round by its flattened form. Subclasses are pointed at the
+   * flattened binders of their parents since those are the ones which get written.
+   */
+  private void flattenAll(Map<TypeElement, BindingClass> targetClassMap) {
+    // Flatten them all before relinking any, each from the chain of binders as parsed.
+    Map<BindingClass, BindingClass> flattened = new IdentityHashMap<>();
+    for (BindingClass bindingClass : targetClassMap.values()) {
+      flattened.put(bindingClass, bindingClass.flatten());
+    }
+    for (Map.Entry<TypeElement, BindingClass> entry : targetClassMap.entrySet()) {
+      BindingClass bindingClass = flattened.get(entry.getValue());
+      entry.setValue(bindingClass);
+      processedBindingClasses.put(bindingClass.getFqcn(), bindingClass);
+      BindingClass parentBinding = flattened.get(bindingClass.getParentBinding());
+      if (parentBinding != null) {
+        bindingClass.setParentBinding(parentBinding);
+      }
+    }
+  }
+
+  /** Warns about the parts of a view phase which cannot be split to fit the budget. */
+  private void warnOversizedUnits(TypeElement element, BindingClass bindingClass) {
+    for (Map.Entry<String, Integer> entry : bindingClass.getOversizedUnits().entrySet()) {
+      processingEnv.getMessager().printMessage(WARNING, String.format(
+          "%s of %s are estimated at %d bytes, which is over the budget of %d set by -A%s and "
+              + "cannot be split.", entry.getKey(), element.getQualifiedName(), entry.getValue(),
+          bindMethodBudget, BIND_METHOD_BUDGET_ARGUMENT), element);
+    }
+  }
+
+  /** Records the cost of binding {@code element} and fails if it is over the budget. */
+  private void checkBindCost(TypeElement element, BindCost cost) {
+    bindCosts.put(elementUtils.getBinaryName(element).toString(), cost);
+    if (bindCostBudget > 0 && cost.getTotal() > bindCostBudget) {
+      error(element, "Binding %s costs %d, which is over the budget of %d set by -A%s (%s).",
+          element.getQualifiedName(), cost.getTotal(), bindCostBudget, BIND_COST_BUDGET_ARGUMENT,
+          cost.describe());
+    }
+  }
+
+  /** Lists the descriptions of each lean binder under its name, one per line by index. */
+  private void writeDescriptions() {
+    try {
+      FileObject table =
+          filer.createResource(StandardLocation.SOURCE_OUTPUT, "", DESCRIPTIONS_FILE);
+      try (Writer writer = table.openWriter()) {
+        for (Map.Entry<String, List<String>> entry : descriptions.entrySet()) {
+          writer.write(entry.getKey() + "\n");
+          List<String> bindings = entry.getValue();
+          for (int i = 0; i < bindings.size(); i++) {
+            writer.write("  #" + i + ": " + bindings.get(i) + "\n");
+          }
+        }
+      }
+    } catch (IOException e) {
+      processingEnv.getMessager().printMessage(WARNING,
+          "Unable to write " + DESCRIPTIONS_FILE + ": " + e.getMessage());
+    }
+  }
+
+  private void writeBindCosts() {
+    try {
+      FileObject report =
+          filer.createResource(StandardLocation.SOURCE_OUTPUT, "", BIND_COSTS_FILE);
+      try (Writer writer = report.openWriter()) {
+        writer.write(BindCost.toJson(bindCosts));
+      }
+    } catch (IOException e) {
+      processingEnv.getMessager().printMessage(WARNING,
+          "Unable to write " + BIND_COSTS_FILE + ": " + e.getMessage());
+    }
+  }
+
+  private void writeStats() {
+    try {
+      FileObject report =
+          filer.createResource(StandardLocation.SOURCE_OUTPUT, "", PROCESSOR_STATS_FILE);
+      try (Writer writer = report.openWriter()) {
+        writer.write(stats.toJson());
+      }
+    } catch (IOException e) {
+      processingEnv.getMessager().printMessage(WARNING,
+          "Unable to write " + PROCESSOR_STATS_FILE + ": " + e.getMessage());
+    }
+    processingEnv.getMessager().printMessage(NOTE, stats.toSummary());
+  }
+
   private Map<TypeElement, BindingClass> findAndParseTargets(RoundEnvironment env) {
     Map<TypeElement, BindingClass> targetClassMap = new LinkedHashMap<>();
-    Set<String> erasedTargetNames = new LinkedHashSet<>();
+    Set<String> erasedTargetNames = new LinkedHashSet<>(processedTargetNames);
+
+    // Find the elements of every supported annotation with a single pass over the round.
+    stats.beginPhase();
+    AnnotatedElements annotatedElements =
+        new AnnotatedElements(getSupportedAnnotationTypes(), env.getRootElements());
+    stats.endPhase("scan");
 
     // Process each @Bind element.
-    for (Element element : env.getElementsAnnotatedWith(Bind.class)) {
+    stats.beginPhase();
+    for (Element element : annotatedElements.get(Bind.class)) {
       try {
         parseBind(element, targetClassMap, erasedTargetNames);
       } catch (Exception e) {
         logParsingError(element, Bind.class, e);
       }
     }
+    stats.endParsePhase("Bind", annotatedElements.get(Bind.class).size());
 
     // Process each annotation that corresponds to a listener.
     for (Class<? extends Annotation> listener : LISTENERS) {
-      findAndParseListener(env, listener, targetClassMap, erasedTargetNames);
+      findAndParseListener(annotatedElements, listener, targetClassMap, erasedTargetNames);
+    }
+
+    // Process each @BindAnim element.
+    stats.beginPhase();
+    for (Element element : annotatedElements.get(BindAnim.class)) {
+      try {
+        parseResourceAnim(element, targetClassMap, erasedTargetNames);
+      } catch (Exception e) {
+        logParsingError(element, BindAnim.class, e);
+      }
+    }
+    stats.endParsePhase("BindAnim", annotatedElements.get(BindAnim.class).size());
+
+    // Process each @BindAnimator element.
+    stats.beginPhase();
+    for (Element element : annotatedElements.get(BindAnimator.class)) {
+      try {
+        parseResourceAnimator(element, targetClassMap, erasedTargetNames);
+      } catch (Exception e) {
+        logParsingError(element, BindAnimator.class, e);
+      }
     }
+    stats.endParsePhase("BindAnimator", annotatedElements.get(BindAnimator.class).size());
 
     // Process each @BindArray element.
-    for (Element element : env.getElementsAnnotatedWith(BindArray.class)) {
+    stats.beginPhase();
+    for (Element element : annotatedElements.get(BindArray.class)) {
       try {
         parseResourceArray(element, targetClassMap, erasedTargetNames);
       } catch (Exception e) {
         logParsingError(element, BindArray.class, e);
       }
     }
+    stats.endParsePhase("BindArray", annotatedElements.get(BindArray.class).size());
 
     // Process each @BindBitmap element.
-    for (Element element : env.getElementsAnnotatedWith(BindBitmap.class)) {
+    stats.beginPhase();
+    for (Element element : annotatedElements.get(BindBitmap.class)) {
       try {
         parseResourceBitmap(element, targetClassMap, erasedTargetNames);
       } catch (Exception e) {
         logParsingError(element, BindBitmap.class, e);
       }
     }
+    stats.endParsePhase("BindBitmap", annotatedElements.get(BindBitmap.class).size());
 
     // Process each @BindBool element.
-    for (Element element : env.getElementsAnnotatedWith(BindBool.class)) {
+    stats.beginPhase();
+    for (Element element : annotatedElements.get(BindBool.class)) {
       try {
         parseResourceBool(element, targetClassMap, erasedTargetNames);
       } catch (Exception e) {
         logParsingError(element, BindBool.class, e);
       }
     }
+    stats.endParsePhase("BindBool", annotatedElements.get(BindBool.class).size());
 
     // Process each @BindColor element.
-    for (Element element : env.getElementsAnnotatedWith(BindColor.class)) {
+    stats.beginPhase();
+    for (Element element : annotatedElements.get(BindColor.class)) {
       try {
         parseResourceColor(element, targetClassMap, erasedTargetNames);
       } catch (Exception e) {
         logParsingError(element, BindColor.class, e);
       }
     }
+    stats.endParsePhase("BindColor", annotatedElements.get(BindColor.class).size());
 
     // Process each @BindDimen element.
-    for (Element element : env.getElementsAnnotatedWith(BindDimen.class)) {
+    stats.beginPhase();
+    for (Element element : annotatedElements.get(BindDimen.class)) {
       try {
         parseResourceDimen(element, targetClassMap, erasedTargetNames);
       } catch (Exception e) {
         logParsingError(element, BindDimen.class, e);
       }
     }
+    stats.endParsePhase("BindDimen", annotatedElements.get(BindDimen.class).size());
 
     // Process each @BindDrawable element.
-    for (Element element : env.getElementsAnnotatedWith(BindDrawable.class)) {
+    stats.beginPhase();
+    for (Element element : annotatedElements.get(BindDrawable.class)) {
       try {
         parseResourceDrawable(element, targetClassMap, erasedTargetNames);
       } catch (Exception e) {
         logParsingError(element, BindDrawable.class, e);
       }
     }
+    stats.endParsePhase("BindDrawable", annotatedElements.get(BindDrawable.class).size());
+
+    // Process each @BindFont element.
+    stats.beginPhase();
+    for (Element element : annotatedElements.get(BindFont.class)) {
+      try {
+        parseResourceFont(element, targetClassMap, erasedTargetNames);
+      } catch (Exception e) {
+        logParsingError(element, BindFont.class, e);
+      }
+    }
+    stats.endParsePhase("BindFont", annotatedElements.get(BindFont.class).size());
 
     // Process each @BindInt element.
-    for (Element element : env.getElementsAnnotatedWith(BindInt.class)) {
+    stats.beginPhase();
+    for (Element element : annotatedElements.get(BindInt.class)) {
       try {
         parseResourceInt(element, targetClassMap, erasedTargetNames);
       } catch (Exception e) {
         logParsingError(element, BindInt.class, e);
       }
     }
+    stats.endParsePhase("BindInt", annotatedElements.get(BindInt.class).size());
 
     // Process each @BindString element.
-    for (Element element : env.getElementsAnnotatedWith(BindString.class)) {
+    stats.beginPhase();
+    for (Element element : annotatedElements.get(BindString.class)) {
       try {
         parseResourceString(element, targetClassMap, erasedTargetNames);
       } catch (Exception e) {
         logParsingError(element, BindString.class, e);
       }
     }
+    stats.endParsePhase("BindString", annotatedElements.get(BindString.class).size());
+
+    // Process each @BindThemeColor element.
+    stats.beginPhase();
+    for (Element element : annotatedElements.get(BindThemeColor.class)) {
+      try {
+        parseThemeColor(element, targetClassMap, erasedTargetNames);
+      } catch (Exception e) {
+        logParsingError(element, BindThemeColor.class, e);
+      }
+    }
+    stats.endParsePhase("BindThemeColor", annotatedElements.get(BindThemeColor.class).size());
 
-    // Try to find a parent binder for each.
+    // Process each @BindThemeDimen element.
+    stats.beginPhase();
+    for (Element element : annotatedElements.get(BindThemeDimen.class)) {
+      try {
+        parseThemeDimen(element, targetClassMap, erasedTargetNames);
+      } catch (Exception e) {
+        logParsingError(element, BindThemeDimen.class, e);
+      }
+    }
+    stats.endParsePhase("BindThemeDimen", annotatedElements.get(BindThemeDimen.class).size());
+
+    // Drop targets re-reported by a later round; their binders have already been written.
+    Iterator<Map.Entry<TypeElement, BindingClass>> targets = targetClassMap.entrySet().iterator();
+    while (targets.hasNext()) {
+      if (processedTargetNames.contains(targets.next().getKey().toString())) {
+        targets.remove();
+      }
+    }
+
+    // Try to find a parent binder for each, including those written in earlier rounds.
+    stats.beginPhase();
+    for (BindingClass bindingClass : targetClassMap.values()) {
+      processedBindingClasses.put(bindingClass.getFqcn(), bindingClass);
+    }
     for (Map.Entry<TypeElement, BindingClass> entry : targetClassMap.entrySet()) {
       String parentClassFqcn = findParentFqcn(entry.getKey(), erasedTargetNames);
       if (parentClassFqcn != null) {
-        entry.getValue().setParentViewBinder(parentClassFqcn + BINDING_CLASS_SUFFIX);
+        entry.getValue().setParentBinding(
+            processedBindingClasses.get(parentClassFqcn + BINDING_CLASS_SUFFIX));
       }
     }
+    processedTargetNames.addAll(erasedTargetNames);
+    stats.endPhase("resolve parents");
 
     return targetClassMap;
   }
@@ -568,6 +1006,70 @@ public final class ButterForkProcessor extends AbstractProcessor {
     erasedTargetNames.add(enclosingElement.toString());
   }
 
+  private void parseResourceAnim(Element element, Map<TypeElement, BindingClass> targetClassMap,
+      Set<String> erasedTargetNames) {
+    boolean hasError = false;
+    TypeElement enclosingElement = (TypeElement) element.getEnclosingElement();
+
+    // Verify that the target type is Animation.
+    if (!ANIMATION_TYPE.equals(element.asType().toString())) {
+      error(element, "@%s field type must be 'Animation'. (%s.%s)",
+          BindAnim.class.getSimpleName(), enclosingElement.getQualifiedName(),
+          element.getSimpleName());
+      hasError = true;
+    }
+
+    // Verify common generated code restrictions.
+    hasError |= isInaccessibleViaGeneratedCode(BindAnim.class, "fields", element);
+    hasError |= isBindingInWrongPackage(BindAnim.class, element);
+
+    if (hasError) {
+      return;
+    }
+
+    // Assemble information on the field.
+    String name = element.getSimpleName().toString();
+    String id = element.getAnnotation(BindAnim.class).value();
+
+    BindingClass bindingClass = getOrCreateTargetClass(targetClassMap, enclosingElement);
+    FieldAnimationBinding binding = new FieldAnimationBinding(id, name, false);
+    bindingClass.addAnimation(binding);
+
+    erasedTargetNames.add(enclosingElement.toString());
+  }
+
+  private void parseResourceAnimator(Element element, Map<TypeElement, BindingClass> targetClassMap,
+      Set<String> erasedTargetNames) {
+    boolean hasError = false;
+    TypeElement enclosingElement = (TypeElement) element.getEnclosingElement();
+
+    // Verify that the target type is Animator.
+    if (!ANIMATOR_TYPE.equals(element.asType().toString())) {
+      error(element, "@%s field type must be 'Animator'. (%s.%s)",
+          BindAnimator.class.getSimpleName(), enclosingElement.getQualifiedName(),
+          element.getSimpleName());
+      hasError = true;
+    }
+
+    // Verify common generated code restrictions.
+    hasError |= isInaccessibleViaGeneratedCode(BindAnimator.class, "fields", element);
+    hasError |= isBindingInWrongPackage(BindAnimator.class, element);
+
+    if (hasError) {
+      return;
+    }
+
+    // Assemble information on the field.
+    String name = element.getSimpleName().toString();
+    String id = element.getAnnotation(BindAnimator.class).value();
+
+    BindingClass bindingClass = getOrCreateTargetClass(targetClassMap, enclosingElement);
+    FieldAnimationBinding binding = new FieldAnimationBinding(id, name, true);
+    bindingClass.addAnimation(binding);
+
+    erasedTargetNames.add(enclosingElement.toString());
+  }
+
   private void parseResourceBitmap(Element element, Map<TypeElement, BindingClass> targetClassMap,
       Set<String> erasedTargetNames) {
     boolean hasError = false;
@@ -632,6 +1134,38 @@ public final class ButterForkProcessor extends AbstractProcessor {
     erasedTargetNames.add(enclosingElement.toString());
   }
 
+  private void parseResourceFont(Element element, Map<TypeElement, BindingClass> targetClassMap,
+      Set<String> erasedTargetNames) {
+    boolean hasError = false;
+    TypeElement enclosingElement = (TypeElement) element.getEnclosingElement();
+
+    // Verify that the target type is Typeface.
+    if (!TYPEFACE_TYPE.equals(element.asType().toString())) {
+      error(element, "@%s field type must be 'Typeface'. (%s.%s)",
+          BindFont.class.getSimpleName(), enclosingElement.getQualifiedName(),
+          element.getSimpleName());
+      hasError = true;
+    }
+
+    // Verify common generated code restrictions.
+    hasError |= isInaccessibleViaGeneratedCode(BindFont.class, "fields", element);
+    hasError |= isBindingInWrongPackage(BindFont.class, element);
+
+    if (hasError) {
+      return;
+    }
+
+    // Assemble information on the field.
+    String name = element.getSimpleName().toString();
+    String path = element.getAnnotation(BindFont.class).value();
+
+    BindingClass bindingClass = getOrCreateTargetClass(targetClassMap, enclosingElement);
+    FieldFontBinding binding = new FieldFontBinding(path, name);
+    bindingClass.addFont(binding);
+
+    erasedTargetNames.add(enclosingElement.toString());
+  }
+
   private void parseResourceInt(Element element, Map<TypeElement, BindingClass> targetClassMap,
       Set<String> erasedTargetNames) {
     boolean hasError = false;
@@ -729,6 +1263,82 @@ public final class ButterForkProcessor extends AbstractProcessor {
     erasedTargetNames.add(enclosingElement.toString());
   }
 
+  private void parseThemeColor(Element element, Map<TypeElement, BindingClass> targetClassMap,
+      Set<String> erasedTargetNames) {
+    boolean hasError = false;
+    TypeElement enclosingElement = (TypeElement) element.getEnclosingElement();
+
+    // Verify that the target type is int or ColorStateList.
+    boolean isColorStateList = false;
+    TypeMirror elementType = element.asType();
+    if (COLOR_STATE_LIST_TYPE.equals(elementType.toString())) {
+      isColorStateList = true;
+    } else if (elementType.getKind() != TypeKind.INT) {
+      error(element, "@%s field type must be 'int' or 'ColorStateList'. (%s.%s)",
+          BindThemeColor.class.getSimpleName(), enclosingElement.getQualifiedName(),
+          element.getSimpleName());
+      hasError = true;
+    }
+
+    // Verify common generated code restrictions.
+    hasError |= isInaccessibleViaGeneratedCode(BindThemeColor.class, "fields", element);
+    hasError |= isBindingInWrongPackage(BindThemeColor.class, element);
+
+    if (hasError) {
+      return;
+    }
+
+    // Assemble information on the field.
+    String name = element.getSimpleName().toString();
+    String id = element.getAnnotation(BindThemeColor.class).value();
+
+    BindingClass bindingClass = getOrCreateTargetClass(targetClassMap, enclosingElement);
+    FieldThemeBinding binding = isColorStateList
+        ? new FieldThemeBinding(id, name, "getColorStateList", null)
+        : new FieldThemeBinding(id, name, "getColor", "0");
+    bindingClass.addThemeAttribute(binding);
+
+    erasedTargetNames.add(enclosingElement.toString());
+  }
+
+  private void parseThemeDimen(Element element, Map<TypeElement, BindingClass> targetClassMap,
+      Set<String> erasedTargetNames) {
+    boolean hasError = false;
+    TypeElement enclosingElement = (TypeElement) element.getEnclosingElement();
+
+    // Verify that the target type is int or float.
+    boolean isInt = false;
+    TypeMirror elementType = element.asType();
+    if (elementType.getKind() == TypeKind.INT) {
+      isInt = true;
+    } else if (elementType.getKind() != TypeKind.FLOAT) {
+      error(element, "@%s field type must be 'int' or 'float'. (%s.%s)",
+          BindThemeDimen.class.getSimpleName(), enclosingElement.getQualifiedName(),
+          element.getSimpleName());
+      hasError = true;
+    }
+
+    // Verify common generated code restrictions.
+    hasError |= isInaccessibleViaGeneratedCode(BindThemeDimen.class, "fields", element);
+    hasError |= isBindingInWrongPackage(BindThemeDimen.class, element);
+
+    if (hasError) {
+      return;
+    }
+
+    // Assemble information on the field.
+    String name = element.getSimpleName().toString();
+    String id = element.getAnnotation(BindThemeDimen.class).value();
+
+    BindingClass bindingClass = getOrCreateTargetClass(targetClassMap, enclosingElement);
+    FieldThemeBinding binding = isInt
+        ? new FieldThemeBinding(id, name, "getDimensionPixelSize", "0")
+        : new FieldThemeBinding(id, name, "getDimension", "0f");
+    bindingClass.addThemeAttribute(binding);
+
+    erasedTargetNames.add(enclosingElement.toString());
+  }
+
   /**
    * Returns a method name from the {@link android.content.res.Resources} class for array resource
    * binding, null if the element type is not supported.
@@ -775,10 +1385,11 @@ public final class ButterForkProcessor extends AbstractProcessor {
     return name;
   }
 
-  private void findAndParseListener(RoundEnvironment env,
+  private void findAndParseListener(AnnotatedElements annotatedElements,
       Class<? extends Annotation> annotationClass, Map<TypeElement, BindingClass> targetClassMap,
       Set<String> erasedTargetNames) {
-    for (Element element : env.getElementsAnnotatedWith(annotationClass)) {
+    stats.beginPhase();
+    for (Element element : annotatedElements.get(annotationClass)) {
       try {
         parseListenerAnnotation(annotationClass, element, targetClassMap, erasedTargetNames);
       } catch (Exception e) {
@@ -789,6 +1400,8 @@ public final class ButterForkProcessor extends AbstractProcessor {
             annotationClass.getSimpleName(), stackTrace.toString());
       }
     }
+    stats.endParsePhase(annotationClass.getSimpleName(),
+        annotatedElements.get(annotationClass).size());
   }
 
   private void parseListenerAnnotation(Class<? extends Annotation> annotationClass, Element element,
@@ -804,14 +1417,9 @@ public final class ButterForkProcessor extends AbstractProcessor {
     TypeElement enclosingElement = (TypeElement) element.getEnclosingElement();
 
     // Assemble information on the method.
+    ListenerType listener = listenerTypes.get(annotationClass);
     Annotation annotation = element.getAnnotation(annotationClass);
-    Method annotationValue = annotationClass.getDeclaredMethod("value");
-    if (annotationValue.getReturnType() != String[].class) {
-      throw new IllegalStateException(
-          String.format("@%s annotation value() type not String[].", annotationClass));
-    }
-
-    String[] ids = (String[]) annotationValue.invoke(annotation);
+    String[] ids = listener.getIds(annotation);
     String name = executableElement.getSimpleName().toString();
     boolean required = isRequiredBinding(element);
 
@@ -827,13 +1435,6 @@ public final class ButterForkProcessor extends AbstractProcessor {
       hasError = true;
     }
 
-    ListenerClass listener = annotationClass.getAnnotation(ListenerClass.class);
-    if (listener == null) {
-      throw new IllegalStateException(
-          String.format("No @%s defined on @%s.", ListenerClass.class.getSimpleName(),
-              annotationClass.getSimpleName()));
-    }
-
     for (String id : ids) {
       if (id.isEmpty()) {
         if (ids.length == 1) {
@@ -844,7 +1445,7 @@ public final class ButterForkProcessor extends AbstractProcessor {
           }
 
           // Verify target type is valid for a binding without an id.
-          String targetType = listener.targetType();
+          String targetType = listener.getTargetType();
           if (!isSubtypeOfType(enclosingElement.asType(), targetType)
               && !isInterface(enclosingElement.asType())) {
             error(element, "@%s annotation without an ID may only be used with an object of type "
@@ -862,36 +1463,13 @@ public final class ButterForkProcessor extends AbstractProcessor {
       }
     }
 
-    ListenerMethod method;
-    ListenerMethod[] methods = listener.method();
-    if (methods.length > 1) {
-      throw new IllegalStateException(String.format("Multiple listener methods specified on @%s.",
-          annotationClass.getSimpleName()));
-    } else if (methods.length == 1) {
-      if (listener.callbacks() != ListenerClass.NONE.class) {
-        throw new IllegalStateException(
-            String.format("Both method() and callback() defined on @%s.",
-                annotationClass.getSimpleName()));
-      }
-      method = methods[0];
-    } else {
-      Method annotationCallback = annotationClass.getDeclaredMethod("callback");
-      Enum<?> callback = (Enum<?>) annotationCallback.invoke(annotation);
-      Field callbackField = callback.getDeclaringClass().getField(callback.name());
-      method = callbackField.getAnnotation(ListenerMethod.class);
-      if (method == null) {
-        throw new IllegalStateException(
-            String.format("No @%s defined on @%s's %s.%s.", ListenerMethod.class.getSimpleName(),
-                annotationClass.getSimpleName(), callback.getDeclaringClass().getSimpleName(),
-                callback.name()));
-      }
-    }
+    ListenerCallback method = listener.getCallback(annotation);
 
     // Verify that the method has equal to or less than the number of parameters as the listener.
     List<? extends VariableElement> methodParameters = executableElement.getParameters();
-    if (methodParameters.size() > method.parameters().length) {
+    if (methodParameters.size() > method.getParameterTypes().length) {
       error(element, "@%s methods can have at most %s parameter(s). (%s.%s)",
-          annotationClass.getSimpleName(), method.parameters().length,
+          annotationClass.getSimpleName(), method.getParameterTypes().length,
           enclosingElement.getQualifiedName(), element.getSimpleName());
       hasError = true;
     }
@@ -902,9 +1480,9 @@ public final class ButterForkProcessor extends AbstractProcessor {
       TypeVariable typeVariable = (TypeVariable) returnType;
       returnType = typeVariable.getUpperBound();
     }
-    if (!returnType.toString().equals(method.returnType())) {
+    if (!returnType.toString().equals(method.getReturnType())) {
       error(element, "@%s methods must have a '%s' return type. (%s.%s)",
-          annotationClass.getSimpleName(), method.returnType(),
+          annotationClass.getSimpleName(), method.getReturnType(),
           enclosingElement.getQualifiedName(), element.getSimpleName());
       hasError = true;
     }
@@ -917,7 +1495,7 @@ public final class ButterForkProcessor extends AbstractProcessor {
     if (!methodParameters.isEmpty()) {
       parameters = new Parameter[methodParameters.size()];
       BitSet methodParameterUsed = new BitSet(methodParameters.size());
-      String[] parameterTypes = method.parameters();
+      String[] parameterTypes = method.getParameterTypes();
       for (int i = 0; i < methodParameters.size(); i++) {
         VariableElement methodParameter = methodParameters.get(i);
         TypeMirror methodParameterType = methodParameter.asType();
@@ -963,9 +1541,9 @@ public final class ButterForkProcessor extends AbstractProcessor {
             }
           }
           builder.append("\n\nMethods may have up to ")
-              .append(method.parameters().length)
+              .append(method.getParameterTypes().length)
               .append(" parameter(s):\n");
-          for (String parameterType : method.parameters()) {
+          for (String parameterType : method.getParameterTypes()) {
             builder.append("\n  ").append(parameterType);
           }
           builder.append(
@@ -995,55 +1573,33 @@ public final class ButterForkProcessor extends AbstractProcessor {
         && ((DeclaredType) typeMirror).asElement().getKind() == INTERFACE;
   }
 
-  private boolean isSubtypeOfType(TypeMirror typeMirror, String otherType) {
-    if (otherType.equals(typeMirror.toString())) {
-      return true;
-    }
-    if (typeMirror.getKind() != TypeKind.DECLARED) {
-      return false;
-    }
-    DeclaredType declaredType = (DeclaredType) typeMirror;
-    List<? extends TypeMirror> typeArguments = declaredType.getTypeArguments();
-    if (typeArguments.size() > 0) {
-      StringBuilder typeString = new StringBuilder(declaredType.asElement().toString());
-      typeString.append('<');
-      for (int i = 0; i < typeArguments.size(); i++) {
-        if (i > 0) {
-          typeString.append(',');
-        }
-        typeString.append('?');
-      }
-      typeString.append('>');
-      if (typeString.toString().equals(otherType)) {
-        return true;
-      }
+  /** The finder which binds a target to itself, or null if it is not a source. */
+  private String getTargetFinder(TypeElement typeElement) {
+    TypeMirror type = typeElement.asType();
+    if (isSubtypeOfType(type, ACTIVITY_TYPE)) {
+      return "ACTIVITY";
     }
-    Element element = declaredType.asElement();
-    if (!(element instanceof TypeElement)) {
-      return false;
+    if (isSubtypeOfType(type, VIEW_TYPE)) {
+      return "VIEW";
     }
-    TypeElement typeElement = (TypeElement) element;
-    TypeMirror superType = typeElement.getSuperclass();
-    if (isSubtypeOfType(superType, otherType)) {
-      return true;
+    if (isSubtypeOfType(type, DIALOG_TYPE)) {
+      return "DIALOG";
     }
-    for (TypeMirror interfaceType : typeElement.getInterfaces()) {
-      if (isSubtypeOfType(interfaceType, otherType)) {
-        return true;
-      }
-    }
-    return false;
+    return null;
+  }
+
+  private boolean isSubtypeOfType(TypeMirror typeMirror, String otherType) {
+    return subtypeCache.isSubtype(typeMirror, otherType);
   }
 
   private BindingClass getOrCreateTargetClass(Map<TypeElement, BindingClass> targetClassMap,
       TypeElement enclosingElement) {
     BindingClass bindingClass = targetClassMap.get(enclosingElement);
     if (bindingClass == null) {
-      String targetType = enclosingElement.getQualifiedName().toString();
       String classPackage = getPackageName(enclosingElement);
       String className = getClassName(enclosingElement, classPackage) + BINDING_CLASS_SUFFIX;
 
-      bindingClass = new BindingClass(classPackage, className, targetType, resPackage);
+      bindingClass = new BindingClass(enclosingElement, classPackage, className, resPackage);
       targetClassMap.put(enclosingElement, bindingClass);
     }
     return bindingClass;
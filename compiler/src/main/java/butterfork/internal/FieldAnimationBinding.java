@@ -0,0 +1,25 @@
+package butterfork.internal;
+
+final class FieldAnimationBinding {
+  private final String id;
+  private final String name;
+  private final boolean isAnimator;
+
+  FieldAnimationBinding(String id, String name, boolean isAnimator) {
+    this.id = id;
+    this.name = name;
+    this.isAnimator = isAnimator;
+  }
+
+  public String getId() {
+    return id;
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  public boolean isAnimator() {
+    return isAnimator;
+  }
+}
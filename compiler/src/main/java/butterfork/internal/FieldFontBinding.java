@@ -0,0 +1,19 @@
+package butterfork.internal;
+
+final class FieldFontBinding {
+  private final String path;
+  private final String name;
+
+  FieldFontBinding(String path, String name) {
+    this.path = path;
+    this.name = name;
+  }
+
+  public String getPath() {
+    return path;
+  }
+
+  public String getName() {
+    return name;
+  }
+}
@@ -0,0 +1,33 @@
+package butterfork.internal;
+
+/** A field bound to a theme attribute which is read from a shared {@code TypedArray}. */
+final class FieldThemeBinding {
+  private final String id;
+  private final String name;
+  private final String method;
+  private final String defaultValue;
+
+  FieldThemeBinding(String id, String name, String method, String defaultValue) {
+    this.id = id;
+    this.name = name;
+    this.method = method;
+    this.defaultValue = defaultValue;
+  }
+
+  public String getId() {
+    return id;
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  public String getMethod() {
+    return method;
+  }
+
+  /** Fallback value passed to the {@code TypedArray} getter, null if it does not take one. */
+  public String getDefaultValue() {
+    return defaultValue;
+  }
+}
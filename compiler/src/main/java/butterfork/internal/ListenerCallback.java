@@ -0,0 +1,53 @@
+package butterfork.internal;
+
+import com.squareup.javapoet.TypeName;
+
+/** A listener callback method of a {@link ListenerType} with its types parsed ahead of time. */
+final class ListenerCallback {
+  private final String name;
+  private final String returnType;
+  private final TypeName returnTypeName;
+  private final String[] parameterTypes;
+  private final TypeName[] parameterTypeNames;
+  private final String defaultReturn;
+
+  ListenerCallback(ListenerMethod method) {
+    this.name = method.name();
+    this.returnType = method.returnType();
+    this.returnTypeName = BindingClass.bestGuess(returnType);
+    this.parameterTypes = method.parameters();
+    this.parameterTypeNames = new TypeName[parameterTypes.length];
+    for (int i = 0; i < parameterTypes.length; i++) {
+      parameterTypeNames[i] = BindingClass.bestGuess(parameterTypes[i]);
+    }
+    this.defaultReturn = method.defaultReturn();
+  }
+
+  String getName() {
+    return name;
+  }
+
+  String getReturnType() {
+    return returnType;
+  }
+
+  TypeName getReturnTypeName() {
+    return returnTypeName;
+  }
+
+  boolean hasReturnType() {
+    return !"void".equals(returnType);
+  }
+
+  String[] getParameterTypes() {
+    return parameterTypes;
+  }
+
+  TypeName[] getParameterTypeNames() {
+    return parameterTypeNames;
+  }
+
+  String getDefaultReturn() {
+    return defaultReturn;
+  }
+}
@@ -0,0 +1,135 @@
+package butterfork.internal;
+
+import com.squareup.javapoet.ClassName;
+import com.squareup.javapoet.TypeName;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The {@link ListenerClass} metadata of a listener annotation such as {@code @OnClick}. All of
+ * the reflection needed to read the annotation happens once when this is created.
+ */
+final class ListenerType {
+  private final String targetType;
+  private final TypeName targetTypeName;
+  private final String setter;
+  private final ClassName typeName;
+  private final Method valueMethod;
+  private final Method callbackMethod;
+  private final List<ListenerCallback> callbacks;
+  private final Map<String, ListenerCallback> callbacksByName;
+
+  ListenerType(Class<? extends Annotation> annotationClass) {
+    ListenerClass listener = annotationClass.getAnnotation(ListenerClass.class);
+    if (listener == null) {
+      throw new IllegalStateException(
+          String.format("No @%s defined on @%s.", ListenerClass.class.getSimpleName(),
+              annotationClass.getSimpleName()));
+    }
+    targetType = listener.targetType();
+    targetTypeName = BindingClass.bestGuess(targetType);
+    setter = listener.setter();
+    typeName = ClassName.bestGuess(listener.type());
+
+    try {
+      valueMethod = annotationClass.getDeclaredMethod("value");
+    } catch (NoSuchMethodException e) {
+      throw new IllegalStateException(
+          String.format("@%s annotation has no value().", annotationClass.getSimpleName()), e);
+    }
+    if (valueMethod.getReturnType() != String[].class) {
+      throw new IllegalStateException(
+          String.format("@%s annotation value() type not String[].", annotationClass));
+    }
+
+    ListenerMethod[] methods = listener.method();
+    if (methods.length > 1) {
+      throw new IllegalStateException(String.format("Multiple listener methods specified on @%s.",
+          annotationClass.getSimpleName()));
+    } else if (methods.length == 1) {
+      if (listener.callbacks() != ListenerClass.NONE.class) {
+        throw new IllegalStateException(
+            String.format("Both method() and callback() defined on @%s.",
+                annotationClass.getSimpleName()));
+      }
+      callbackMethod = null;
+      callbacks = Collections.singletonList(new ListenerCallback(methods[0]));
+      callbacksByName = Collections.emptyMap();
+    } else {
+      try {
+        callbackMethod = annotationClass.getDeclaredMethod("callback");
+      } catch (NoSuchMethodException e) {
+        throw new IllegalStateException(
+            String.format("@%s annotation has no callback().", annotationClass.getSimpleName()),
+            e);
+      }
+      callbacks = new ArrayList<>();
+      callbacksByName = new LinkedHashMap<>();
+      Class<? extends Enum<?>> callbackEnum = listener.callbacks();
+      for (Enum<?> callback : callbackEnum.getEnumConstants()) {
+        ListenerMethod method = getCallbackAnnotation(callbackEnum, callback);
+        if (method == null) {
+          throw new IllegalStateException(
+              String.format("No @%s defined on @%s's %s.%s.", ListenerMethod.class.getSimpleName(),
+                  annotationClass.getSimpleName(), callbackEnum.getSimpleName(),
+                  callback.name()));
+        }
+        ListenerCallback listenerCallback = new ListenerCallback(method);
+        callbacks.add(listenerCallback);
+        callbacksByName.put(callback.name(), listenerCallback);
+      }
+    }
+  }
+
+  private static ListenerMethod getCallbackAnnotation(Class<? extends Enum<?>> callbackEnum,
+      Enum<?> callback) {
+    try {
+      Field callbackField = callbackEnum.getField(callback.name());
+      return callbackField.getAnnotation(ListenerMethod.class);
+    } catch (NoSuchFieldException e) {
+      throw new AssertionError(e);
+    }
+  }
+
+  String getTargetType() {
+    return targetType;
+  }
+
+  TypeName getTargetTypeName() {
+    return targetTypeName;
+  }
+
+  String getSetter() {
+    return setter;
+  }
+
+  ClassName getTypeName() {
+    return typeName;
+  }
+
+  /** Every callback method of the listener in declaration order. */
+  List<ListenerCallback> getCallbacks() {
+    return callbacks;
+  }
+
+  /** The view IDs of an instance of this listener annotation. */
+  String[] getIds(Annotation annotation) throws Exception {
+    return (String[]) valueMethod.invoke(annotation);
+  }
+
+  /** The callback method an instance of this listener annotation is bound to. */
+  ListenerCallback getCallback(Annotation annotation) throws Exception {
+    if (callbackMethod == null) {
+      return callbacks.get(0);
+    }
+    Enum<?> callback = (Enum<?>) callbackMethod.invoke(annotation);
+    return callbacksByName.get(callback.name());
+  }
+}
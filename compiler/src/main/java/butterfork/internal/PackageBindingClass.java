@@ -0,0 +1,136 @@
+package butterfork.internal;
+
+import com.squareup.javapoet.ClassName;
+import com.squareup.javapoet.JavaFile;
+import com.squareup.javapoet.MethodSpec;
+import com.squareup.javapoet.ParameterizedTypeName;
+import com.squareup.javapoet.TypeName;
+import com.squareup.javapoet.TypeSpec;
+import com.squareup.javapoet.WildcardTypeName;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.lang.model.element.TypeElement;
+
+import static butterfork.internal.BindingClass.FINDER;
+import static butterfork.internal.BindingClass.VIEW_BINDER;
+import static javax.lang.model.element.Modifier.FINAL;
+import static javax.lang.model.element.Modifier.PRIVATE;
+import static javax.lang.model.element.Modifier.PUBLIC;
+
+/**
+ * A single binder for every target in a package which needs no binder class of its own. Each
+ * target is bound by a pair of static methods, and the binder hands out an instance of itself
+ * which dispatches to them by the index of the target.
+ */
+final class PackageBindingClass {
+  private static final ClassName PACKAGE_BINDER =
+      ClassName.get("butterfork", "ButterFork", "PackageBinder");
+
+  private final String classPackage;
+  private final List<BindingClass> bindingClasses = new ArrayList<>();
+
+  PackageBindingClass(String classPackage) {
+    this.classPackage = classPackage;
+  }
+
+  /**
+   * Adds a target, keeping them ordered by name. Indices follow that order rather than the order
+   * in which targets were found so that the generated code only depends on what is bound.
+   */
+  void addBindingClass(BindingClass bindingClass) {
+    int index = 0;
+    while (index < bindingClasses.size() && bindingClasses.get(index).getTargetClass()
+        .compareTo(bindingClass.getTargetClass()) < 0) {
+      index++;
+    }
+    bindingClasses.add(index, bindingClass);
+    for (int i = index; i < bindingClasses.size(); i++) {
+      bindingClasses.get(i).setPackageIndex(i);
+    }
+  }
+
+  String getClassPackage() {
+    return classPackage;
+  }
+
+  List<BindingClass> getBindingClasses() {
+    return bindingClasses;
+  }
+
+  JavaFile brewJava() {
+    ClassName name = ClassName.get(classPackage, BindingClass.PACKAGE_BINDER_NAME);
+    TypeSpec.Builder result = TypeSpec.classBuilder(name.simpleName())
+        .addModifiers(PUBLIC, FINAL)
+        .addSuperinterface(PACKAGE_BINDER)
+        .addSuperinterface(ParameterizedTypeName.get(VIEW_BINDER, TypeName.OBJECT))
+        .addField(int.class, "index", PRIVATE, FINAL)
+        .addMethod(MethodSpec.constructorBuilder()
+            .addModifiers(PUBLIC)
+            .addStatement("this(-1)")
+            .build())
+        .addMethod(MethodSpec.constructorBuilder()
+            .addModifiers(PRIVATE)
+            .addParameter(int.class, "index")
+            .addStatement("this.index = index")
+            .build());
+
+    MethodSpec.Builder get = MethodSpec.methodBuilder("get")
+        .addAnnotation(Override.class)
+        .addModifiers(PUBLIC)
+        .returns(ParameterizedTypeName.get(VIEW_BINDER, TypeName.OBJECT))
+        .addParameter(ParameterizedTypeName.get(ClassName.get(Class.class),
+            WildcardTypeName.subtypeOf(Object.class)), "cls")
+        // Comparing names does not load the class of every target before the one looked up.
+        .beginControlFlow("switch (cls.getName())");
+    MethodSpec.Builder bind = MethodSpec.methodBuilder("bind")
+        .addAnnotation(Override.class)
+        .addModifiers(PUBLIC)
+        .addParameter(FINDER, "finder")
+        .addParameter(Object.class, "target")
+        .addParameter(Object.class, "source")
+        .beginControlFlow("switch (index)");
+    MethodSpec.Builder unbind = MethodSpec.methodBuilder("unbind")
+        .addAnnotation(Override.class)
+        .addModifiers(PUBLIC)
+        .addParameter(Object.class, "target")
+        .beginControlFlow("switch (index)");
+
+    List<MethodSpec> methods = new ArrayList<>();
+    List<MethodSpec> parts = new ArrayList<>();
+    for (int i = 0; i < bindingClasses.size(); i++) {
+      BindingClass bindingClass = bindingClasses.get(i);
+      for (TypeElement element : bindingClass.getOriginatingElements()) {
+        result.addOriginatingElement(element);
+      }
+      ClassName targetType = ClassName.bestGuess(bindingClass.getTargetClass());
+      get.addCode("case $S:\n$>", bindingClass.getTargetBinaryName())
+          .addStatement("return new $T($L)", name, i)
+          .addCode("$<");
+      bind.addCode("case $L:\n$>", i)
+          .addStatement("bind$L(finder, ($T) target, source)", i, targetType)
+          .addStatement("break")
+          .addCode("$<");
+      unbind.addCode("case $L:\n$>", i)
+          .addStatement("unbind$L(($T) target)", i, targetType)
+          .addStatement("break")
+          .addCode("$<");
+      methods.add(bindingClass.createPackageBindMethod(parts));
+      result.addFields(bindingClass.getIdTables());
+      methods.add(bindingClass.createPackageUnbindMethod());
+    }
+    get.addCode("default:\n$>")
+        .addStatement("return null")
+        .addCode("$<");
+    result.addMethod(get.endControlFlow().build())
+        .addMethod(bind.endControlFlow().build())
+        .addMethod(unbind.endControlFlow().build())
+        .addMethods(methods)
+        .addMethods(parts);
+
+    return JavaFile.builder(classPackage, result.build())
+        .addFileComment("Generated code from Butter Fork. Do not modify!")
+        .build();
+  }
+}
@@ -0,0 +1,107 @@
+package butterfork.internal;
+
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Wall time per processing phase and counts of what was processed, accumulated over all rounds.
+ * Does nothing unless enabled so the timing calls can stay in place for every build.
+ */
+final class ProcessorStats {
+  private final boolean enabled;
+  private final Map<String, Long> phaseNanos = new LinkedHashMap<>();
+  private final Map<String, Integer> bindingCounts = new LinkedHashMap<>();
+  private long phaseStart;
+  private int rounds;
+  private int targets;
+  private int bindings;
+  private long generatedBytes;
+
+  ProcessorStats(boolean enabled) {
+    this.enabled = enabled;
+  }
+
+  boolean isEnabled() {
+    return enabled;
+  }
+
+  void beginPhase() {
+    if (enabled) {
+      phaseStart = System.nanoTime();
+    }
+  }
+
+  void endPhase(String phase) {
+    if (enabled) {
+      long elapsed = System.nanoTime() - phaseStart;
+      Long total = phaseNanos.get(phase);
+      phaseNanos.put(phase, total == null ? elapsed : total + elapsed);
+    }
+  }
+
+  /** End the phase which parsed {@code count} elements carrying {@code annotation}. */
+  void endParsePhase(String annotation, int count) {
+    if (enabled) {
+      endPhase("parse @" + annotation);
+      Integer total = bindingCounts.get(annotation);
+      bindingCounts.put(annotation, total == null ? count : total + count);
+      bindings += count;
+    }
+  }
+
+  void addRound(int targetCount) {
+    rounds++;
+    targets += targetCount;
+  }
+
+  void addGeneratedBytes(long bytes) {
+    generatedBytes += bytes;
+  }
+
+  /** One line summary for the build log. */
+  String toSummary() {
+    long totalNanos = 0;
+    for (long nanos : phaseNanos.values()) {
+      totalNanos += nanos;
+    }
+    return String.format(Locale.US,
+        "Butter Fork processed %d bindings in %d targets over %d round(s) in %.1f ms "
+            + "and generated %d bytes.",
+        bindings, targets, rounds, totalNanos / 1e6, generatedBytes);
+  }
+
+  /** The full report as JSON. Phase times are in milliseconds. */
+  String toJson() {
+    StringBuilder json = new StringBuilder();
+    json.append("{\n")
+        .append("  \"rounds\": ").append(rounds).append(",\n")
+        .append("  \"targets\": ").append(targets).append(",\n")
+        .append("  \"bindings\": ").append(bindings).append(",\n")
+        .append("  \"generatedBytes\": ").append(generatedBytes).append(",\n")
+        .append("  \"bindingsByAnnotation\": {");
+    appendEntries(json, bindingCounts, false);
+    json.append("},\n  \"phaseMillis\": {");
+    appendEntries(json, phaseNanos, true);
+    json.append("}\n}\n");
+    return json.toString();
+  }
+
+  private static void appendEntries(StringBuilder json, Map<String, ? extends Number> entries,
+      boolean nanosAsMillis) {
+    boolean first = true;
+    for (Map.Entry<String, ? extends Number> entry : entries.entrySet()) {
+      json.append(first ? "\n" : ",\n");
+      first = false;
+      json.append("    \"").append(entry.getKey()).append("\": ");
+      if (nanosAsMillis) {
+        json.append(String.format(Locale.US, "%.3f", entry.getValue().longValue() / 1e6));
+      } else {
+        json.append(entry.getValue());
+      }
+    }
+    if (!first) {
+      json.append("\n  ");
+    }
+  }
+}
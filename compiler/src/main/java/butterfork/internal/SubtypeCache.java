@@ -0,0 +1,84 @@
+package butterfork.internal;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+
+/**
+ * Answers whether a type is a subtype of a type given by its canonical name (e.g.,
+ * {@code android.view.View} or {@code java.lang.Iterable<?>}). Type arguments are ignored and
+ * answers are remembered per type element so deep view hierarchies are only walked once.
+ */
+final class SubtypeCache {
+  private final Elements elementUtils;
+  private final Types typeUtils;
+  private final Map<String, TypeMirror> erasedTypes = new LinkedHashMap<>();
+  private final Map<TypeElement, Map<String, Boolean>> answers = new LinkedHashMap<>();
+  private int hitCount;
+  private int missCount;
+
+  SubtypeCache(Elements elementUtils, Types typeUtils) {
+    this.elementUtils = elementUtils;
+    this.typeUtils = typeUtils;
+  }
+
+  boolean isSubtype(TypeMirror typeMirror, String otherType) {
+    if (otherType.equals(typeMirror.toString())) {
+      return true;
+    }
+    if (typeMirror.getKind() != TypeKind.DECLARED) {
+      // Primitives and arrays are only ever matched by name. Types which are not generated yet
+      // are not remembered either, so a later round sees the generated type.
+      return false;
+    }
+    TypeMirror erasedOtherType = getErasedType(otherType);
+    if (erasedOtherType == null) {
+      return false;
+    }
+
+    TypeElement typeElement = (TypeElement) ((DeclaredType) typeMirror).asElement();
+    Map<String, Boolean> typeAnswers = answers.get(typeElement);
+    if (typeAnswers == null) {
+      typeAnswers = new LinkedHashMap<>();
+      answers.put(typeElement, typeAnswers);
+    }
+    Boolean answer = typeAnswers.get(otherType);
+    if (answer != null) {
+      hitCount++;
+    } else {
+      missCount++;
+      answer = typeUtils.isSubtype(typeUtils.erasure(typeMirror), erasedOtherType);
+      typeAnswers.put(otherType, answer);
+    }
+    return answer;
+  }
+
+  /** The number of times {@link #isSubtype} reused a remembered answer. */
+  int hitCount() {
+    return hitCount;
+  }
+
+  /** The number of times {@link #isSubtype} had to ask the compiler. */
+  int missCount() {
+    return missCount;
+  }
+
+  /** The erasure of the declared type named {@code type} or null if it cannot be resolved. */
+  private TypeMirror getErasedType(String type) {
+    if (erasedTypes.containsKey(type)) {
+      return erasedTypes.get(type);
+    }
+    int typeArgumentsStart = type.indexOf('<');
+    String rawType = typeArgumentsStart == -1 ? type : type.substring(0, typeArgumentsStart);
+    TypeElement typeElement = elementUtils.getTypeElement(rawType);
+    TypeMirror erasedType = typeElement == null ? null : typeUtils.erasure(typeElement.asType());
+    erasedTypes.put(type, erasedType);
+    return erasedType;
+  }
+}
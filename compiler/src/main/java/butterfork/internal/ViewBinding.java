@@ -4,4 +4,7 @@ package butterfork.internal;
 interface ViewBinding {
   /** A description of the binding in human readable form (e.g., "field 'foo'"). */
   String getDescription();
+
+  /** Name of the bound field or method. */
+  String getName();
 }
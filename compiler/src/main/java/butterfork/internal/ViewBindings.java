@@ -2,17 +2,54 @@ package butterfork.internal;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Comparator;
 import java.util.LinkedHashMap;
-import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
 
 final class ViewBindings {
+  /** Orders bindings by name so that generated code does not depend on declaration order. */
+  static final Comparator<ViewBinding> NAME_ORDER = new Comparator<ViewBinding>() {
+    @Override public int compare(ViewBinding left, ViewBinding right) {
+      return left.getName().compareTo(right.getName());
+    }
+  };
+
+  /** Orders listener methods by name and then by parameters to tell overloads apart. */
+  private static final Comparator<MethodViewBinding> METHOD_ORDER =
+      new Comparator<MethodViewBinding>() {
+        @Override public int compare(MethodViewBinding left, MethodViewBinding right) {
+          int result = left.getName().compareTo(right.getName());
+          if (result == 0) {
+            result = describeParameters(left).compareTo(describeParameters(right));
+          }
+          return result;
+        }
+
+        private String describeParameters(MethodViewBinding binding) {
+          StringBuilder builder = new StringBuilder();
+          for (Parameter parameter : binding.getParameters()) {
+            builder.append(parameter.getListenerPosition()).append(' ')
+                .append(parameter.getType()).append(',');
+          }
+          return builder.toString();
+        }
+      };
+
+  /** Orders listeners by the listener type they install. */
+  private static final Comparator<ListenerType> LISTENER_ORDER = new Comparator<ListenerType>() {
+    @Override public int compare(ListenerType left, ListenerType right) {
+      return left.getTypeName().toString().compareTo(right.getTypeName().toString());
+    }
+  };
+
   private final String id;
-  private final Set<FieldViewBinding> fieldBindings = new LinkedHashSet<>();
-  private final LinkedHashMap<ListenerClass, Map<ListenerMethod, Set<MethodViewBinding>>>
-      methodBindings = new LinkedHashMap<>();
+  private final Set<FieldViewBinding> fieldBindings = new TreeSet<>(NAME_ORDER);
+  private final Map<ListenerType, Map<ListenerCallback, Set<MethodViewBinding>>>
+      methodBindings = new TreeMap<>(LISTENER_ORDER);
 
   ViewBindings(String id) {
     this.id = id;
@@ -26,18 +63,18 @@ final class ViewBindings {
     return fieldBindings;
   }
 
-  public Map<ListenerClass, Map<ListenerMethod, Set<MethodViewBinding>>> getMethodBindings() {
+  public Map<ListenerType, Map<ListenerCallback, Set<MethodViewBinding>>> getMethodBindings() {
     return methodBindings;
   }
 
-  public boolean hasMethodBinding(ListenerClass listener, ListenerMethod method) {
-    Map<ListenerMethod, Set<MethodViewBinding>> methods = methodBindings.get(listener);
+  public boolean hasMethodBinding(ListenerType listener, ListenerCallback method) {
+    Map<ListenerCallback, Set<MethodViewBinding>> methods = methodBindings.get(listener);
     return methods != null && methods.containsKey(method);
   }
 
-  public void addMethodBinding(ListenerClass listener, ListenerMethod method,
+  public void addMethodBinding(ListenerType listener, ListenerCallback method,
       MethodViewBinding binding) {
-    Map<ListenerMethod, Set<MethodViewBinding>> methods = methodBindings.get(listener);
+    Map<ListenerCallback, Set<MethodViewBinding>> methods = methodBindings.get(listener);
     Set<MethodViewBinding> set = null;
     if (methods == null) {
       methods = new LinkedHashMap<>();
@@ -46,7 +83,7 @@ final class ViewBindings {
       set = methods.get(method);
     }
     if (set == null) {
-      set = new LinkedHashSet<>();
+      set = new TreeSet<>(METHOD_ORDER);
       methods.put(method, set);
     }
     set.add(binding);
@@ -56,6 +93,18 @@ final class ViewBindings {
     fieldBindings.add(fieldBinding);
   }
 
+  /**
+   * Adds the bindings of {@code other} to this ID. A listener bound by both replaces the one bound
+   * here, just as the later of two setter calls would at runtime.
+   */
+  public void addAll(ViewBindings other) {
+    fieldBindings.addAll(other.fieldBindings);
+    for (Map.Entry<ListenerType, Map<ListenerCallback, Set<MethodViewBinding>>> entry
+        : other.methodBindings.entrySet()) {
+      methodBindings.put(entry.getKey(), new LinkedHashMap<>(entry.getValue()));
+    }
+  }
+
   public List<ViewBinding> getRequiredBindings() {
     List<ViewBinding> requiredViewBindings = new ArrayList<>();
     for (FieldViewBinding fieldBinding : fieldBindings) {
@@ -63,7 +112,7 @@ final class ViewBindings {
         requiredViewBindings.add(fieldBinding);
       }
     }
-    for (Map<ListenerMethod, Set<MethodViewBinding>> methodBinding : methodBindings.values()) {
+    for (Map<ListenerCallback, Set<MethodViewBinding>> methodBinding : methodBindings.values()) {
       for (Set<MethodViewBinding> set : methodBinding.values()) {
         for (MethodViewBinding binding : set) {
           if (binding.isRequired()) {
@@ -0,0 +1,125 @@
+package butterfork.internal;
+
+import com.google.common.base.Joiner;
+import com.google.testing.compile.JavaFileObjects;
+
+import org.junit.Test;
+
+import java.lang.annotation.Annotation;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.TypeElement;
+import javax.tools.JavaFileObject;
+
+import static com.google.common.truth.Truth.ASSERT;
+import static com.google.testing.compile.JavaSourceSubjectFactory.javaSource;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class AnnotatedElementsTest {
+  private final JavaFileObject source = JavaFileObjects.forSourceString("test.Test",
+      Joiner.on('\n').join(
+          "package test;",
+          "import android.app.Activity;",
+          "import android.view.View;",
+          "import butterfork.Bind;",
+          "import butterfork.BindString;",
+          "import butterfork.OnClick;",
+          "import butterfork.OnLongClick;",
+          "public class Test extends Activity {",
+          "  @Bind(\"one\") View one;",
+          "  @OnClick(\"one\") void click() {}",
+          "  @BindString(\"one\") String title;",
+          "  @OnClick(\"two\") void clickTwo() {}",
+          "  @Bind(\"two\") View two;",
+          "  static class Inner {",
+          "    @OnLongClick(\"three\") boolean longClick() {",
+          "      return true;",
+          "    }",
+          "    @Bind(\"three\") View three;",
+          "    static class Innermost {",
+          "      @Bind(\"four\") View four;",
+          "    }",
+          "  }",
+          "  interface Callbacks {",
+          "    @OnClick(\"zero\") void clickZero();",
+          "  }",
+          "}",
+          "class Other {",
+          "  @Bind(\"zero\") View zero;",
+          "}"
+      ));
+
+  @Test public void sameElementsAsGetElementsAnnotatedWith() {
+    Parity parity = new Parity();
+    ASSERT.about(javaSource())
+        .that(source)
+        .processedWith(parity)
+        .compilesWithoutError();
+
+    // Test, Inner, Innermost, and Other hold @Bind fields. Callbacks holds the third @OnClick.
+    assertThat(parity.counts).containsEntry("butterfork.Bind", 5);
+    assertThat(parity.counts).containsEntry("butterfork.OnClick", 3);
+    assertThat(parity.counts).containsEntry("butterfork.OnLongClick", 1);
+    assertThat(parity.counts).containsEntry("butterfork.BindString", 1);
+  }
+
+  @Test public void sameErrorsAsGetElementsAnnotatedWith() {
+    ASSERT.about(javaSource())
+        .that(source)
+        .withCompilerOptions("-Arespackagename=" + R.class.getPackage().getName())
+        .processedWith(new ButterForkProcessor(), new Parity())
+        .failsToCompile()
+        .withErrorContaining(
+            "@OnClick methods may only be contained in classes. (test.Test.Callbacks.clickZero)")
+        .in(source).onLine(23);
+  }
+
+  /** Checks every round that both ways of finding elements agree, in the same order. */
+  private static final class Parity extends AbstractProcessor {
+    final Map<String, Integer> counts = new LinkedHashMap<>();
+
+    @Override public Set<String> getSupportedAnnotationTypes() {
+      return Collections.singleton("*");
+    }
+
+    @Override public SourceVersion getSupportedSourceVersion() {
+      return SourceVersion.latestSupported();
+    }
+
+    @Override public boolean process(Set<? extends TypeElement> annotations,
+        RoundEnvironment roundEnv) {
+      Set<String> annotationTypes = new ButterForkProcessor().getSupportedAnnotationTypes();
+      AnnotatedElements annotatedElements =
+          new AnnotatedElements(annotationTypes, roundEnv.getRootElements());
+      for (String annotationType : annotationTypes) {
+        Class<? extends Annotation> annotationClass = annotationClass(annotationType);
+        List<Element> expected =
+            new ArrayList<>(roundEnv.getElementsAnnotatedWith(annotationClass));
+        assertThat(annotatedElements.get(annotationClass)).as(annotationType)
+            .containsExactlyElementsOf(expected);
+        if (!expected.isEmpty()) {
+          Integer count = counts.get(annotationType);
+          counts.put(annotationType, (count == null ? 0 : count) + expected.size());
+        }
+      }
+      return false;
+    }
+
+    private static Class<? extends Annotation> annotationClass(String name) {
+      try {
+        return Class.forName(name).asSubclass(Annotation.class);
+      } catch (ClassNotFoundException e) {
+        throw new AssertionError(e);
+      }
+    }
+  }
+}
@@ -0,0 +1,73 @@
+package butterfork.internal;
+
+import com.google.common.base.Joiner;
+import com.google.testing.compile.JavaFileObjects;
+
+import org.junit.Test;
+
+import javax.tools.JavaFileObject;
+
+import static com.google.common.truth.Truth.ASSERT;
+import static com.google.testing.compile.JavaSourceSubjectFactory.javaSource;
+
+public class BindAnimatorTest {
+  @Test public void simple() {
+    JavaFileObject source = JavaFileObjects.forSourceString("test.Test", Joiner.on('\n').join(
+        "package test;",
+        "import android.app.Activity;",
+        "import android.animation.Animator;",
+        "import butterfork.BindAnimator;",
+        "public class Test extends Activity {",
+        "  @BindAnimator(\"one\") Animator one;",
+        "}"
+    ));
+
+    JavaFileObject expectedSource = JavaFileObjects.forSourceString("test/Test$$ViewBinder",
+        Joiner.on('\n').join(
+            "package test;",
+            "import butterfork.AnimatorCache;",
+            "import butterfork.ButterFork;",
+            "import butterfork.internal.R;",
+            "import java.lang.Object;",
+            "import java.lang.Override;",
+            "public class Test$$ViewBinder<T extends Test> implements ButterFork.ViewBinder<T>, ButterFork.ResourceBinder<T> {",
+            "  @Override public void bind(ButterFork.Finder finder, T target, Object source) {",
+            "    bindViews(finder, target, source);",
+            "    bindResources(finder, target, source);",
+            "  }",
+            "  @Override public void bindViews(final ButterFork.Finder finder, final T target, Object source) {",
+            "  }",
+            "  @Override public void bindResources(ButterFork.Finder finder, T target, Object source) {",
+            "    target.one = AnimatorCache.get(finder.getContext(source), R.animator.one);",
+            "  }",
+            "  @Override public void unbind(T target) {",
+            "  }",
+            "}"
+        ));
+
+    ASSERT.about(javaSource()).that(source)
+        .withCompilerOptions("-Arespackagename=" + R.class.getPackage().getName())
+        .processedWith(new ButterForkProcessor())
+        .compilesWithoutError()
+        .and()
+        .generatesSources(expectedSource);
+  }
+
+  @Test public void typeMustBeAnimator() {
+    JavaFileObject source = JavaFileObjects.forSourceString("test.Test", Joiner.on('\n').join(
+        "package test;",
+        "import android.app.Activity;",
+        "import butterfork.BindAnimator;",
+        "public class Test extends Activity {",
+        "  @BindAnimator(\"one\") String one;",
+        "}"
+    ));
+
+    ASSERT.about(javaSource()).that(source)
+        .withCompilerOptions("-Arespackagename=" + R.class.getPackage().getName())
+        .processedWith(new ButterForkProcessor())
+        .failsToCompile()
+        .withErrorContaining("@BindAnimator field type must be 'Animator'. (test.Test.one)")
+        .in(source).onLine(5);
+  }
+}
@@ -29,8 +29,14 @@ public class BindArrayTest {
             "import butterfork.internal.R;",
             "import java.lang.Object;",
             "import java.lang.Override;",
-            "public class Test$$ViewBinder<T extends Test> implements ButterFork.ViewBinder<T> {",
-            "  @Override public void bind(final ButterFork.Finder finder, final T target, Object source) {",
+            "public class Test$$ViewBinder<T extends Test> implements ButterFork.ViewBinder<T>, ButterFork.ResourceBinder<T> {",
+            "  @Override public void bind(ButterFork.Finder finder, T target, Object source) {",
+            "    bindViews(finder, target, source);",
+            "    bindResources(finder, target, source);",
+            "  }",
+            "  @Override public void bindViews(final ButterFork.Finder finder, final T target, Object source) {",
+            "  }",
+            "  @Override public void bindResources(ButterFork.Finder finder, T target, Object source) {",
             "    Resources res = finder.getContext(source).getResources();",
             "    target.one = res.getStringArray(R.array.one);",
             "  }",
@@ -65,8 +71,14 @@ public class BindArrayTest {
             "import butterfork.internal.R;",
             "import java.lang.Object;",
             "import java.lang.Override;",
-            "public class Test$$ViewBinder<T extends Test> implements ButterFork.ViewBinder<T> {",
-            "  @Override public void bind(final ButterFork.Finder finder, final T target, Object source) {",
+            "public class Test$$ViewBinder<T extends Test> implements ButterFork.ViewBinder<T>, ButterFork.ResourceBinder<T> {",
+            "  @Override public void bind(ButterFork.Finder finder, T target, Object source) {",
+            "    bindViews(finder, target, source);",
+            "    bindResources(finder, target, source);",
+            "  }",
+            "  @Override public void bindViews(final ButterFork.Finder finder, final T target, Object source) {",
+            "  }",
+            "  @Override public void bindResources(ButterFork.Finder finder, T target, Object source) {",
             "    Resources res = finder.getContext(source).getResources();",
             "    target.one = res.getIntArray(R.array.one);",
             "  }",
@@ -101,8 +113,14 @@ public class BindArrayTest {
             "import butterfork.internal.R;",
             "import java.lang.Object;",
             "import java.lang.Override;",
-            "public class Test$$ViewBinder<T extends Test> implements ButterFork.ViewBinder<T> {",
-            "  @Override public void bind(final ButterFork.Finder finder, final T target, Object source) {",
+            "public class Test$$ViewBinder<T extends Test> implements ButterFork.ViewBinder<T>, ButterFork.ResourceBinder<T> {",
+            "  @Override public void bind(ButterFork.Finder finder, T target, Object source) {",
+            "    bindViews(finder, target, source);",
+            "    bindResources(finder, target, source);",
+            "  }",
+            "  @Override public void bindViews(final ButterFork.Finder finder, final T target, Object source) {",
+            "  }",
+            "  @Override public void bindResources(ButterFork.Finder finder, T target, Object source) {",
             "    Resources res = finder.getContext(source).getResources();",
             "    target.one = res.getTextArray(R.array.one);",
             "  }",
@@ -138,8 +156,14 @@ public class BindArrayTest {
             "import butterfork.internal.R;",
             "import java.lang.Object;",
             "import java.lang.Override;",
-            "public class Test$$ViewBinder<T extends Test> implements ButterFork.ViewBinder<T> {",
-            "  @Override public void bind(final ButterFork.Finder finder, final T target, Object source) {",
+            "public class Test$$ViewBinder<T extends Test> implements ButterFork.ViewBinder<T>, ButterFork.ResourceBinder<T> {",
+            "  @Override public void bind(ButterFork.Finder finder, T target, Object source) {",
+            "    bindViews(finder, target, source);",
+            "    bindResources(finder, target, source);",
+            "  }",
+            "  @Override public void bindViews(final ButterFork.Finder finder, final T target, Object source) {",
+            "  }",
+            "  @Override public void bindResources(ButterFork.Finder finder, T target, Object source) {",
             "    Resources res = finder.getContext(source).getResources();",
             "    target.one = res.obtainTypedArray(R.array.one);",
             "  }",
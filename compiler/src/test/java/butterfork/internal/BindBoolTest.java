@@ -29,8 +29,14 @@ public class BindBoolTest {
             "import butterfork.internal.R;",
             "import java.lang.Object;",
             "import java.lang.Override;",
-            "public class Test$$ViewBinder<T extends Test> implements ButterFork.ViewBinder<T> {",
-            "  @Override public void bind(final ButterFork.Finder finder, final T target, Object source) {",
+            "public class Test$$ViewBinder<T extends Test> implements ButterFork.ViewBinder<T>, ButterFork.ResourceBinder<T> {",
+            "  @Override public void bind(ButterFork.Finder finder, T target, Object source) {",
+            "    bindViews(finder, target, source);",
+            "    bindResources(finder, target, source);",
+            "  }",
+            "  @Override public void bindViews(final ButterFork.Finder finder, final T target, Object source) {",
+            "  }",
+            "  @Override public void bindResources(ButterFork.Finder finder, T target, Object source) {",
             "    Resources res = finder.getContext(source).getResources();",
             "    target.one = res.getBoolean(R.bool.one);",
             "  }",
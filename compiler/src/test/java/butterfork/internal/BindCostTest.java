@@ -0,0 +1,85 @@
+package butterfork.internal;
+
+import com.google.common.base.Joiner;
+import com.google.common.io.ByteSource;
+import com.google.testing.compile.JavaFileObjects;
+
+import org.junit.Test;
+
+import javax.tools.JavaFileObject;
+import javax.tools.StandardLocation;
+
+import static com.google.common.base.Charsets.UTF_8;
+import static com.google.common.truth.Truth.ASSERT;
+import static com.google.testing.compile.JavaSourceSubjectFactory.javaSource;
+
+public class BindCostTest {
+  private final JavaFileObject source = JavaFileObjects.forSourceString("test.Test",
+      Joiner.on('\n').join(
+          "package test;",
+          "import android.app.Activity;",
+          "import android.graphics.Bitmap;",
+          "import android.view.View;",
+          "import butterfork.Bind;",
+          "import butterfork.BindBitmap;",
+          "import butterfork.BindString;",
+          "import butterfork.OnClick;",
+          "import butterfork.OnLongClick;",
+          "public class Test extends Activity {",
+          "  @Bind(\"one\") View title;",
+          "  @BindBitmap(\"one\") Bitmap logo;",
+          "}",
+          "class TestOne extends Test {",
+          "  @Bind({\"one\", \"two\", \"three\"}) View[] rows;",
+          "  @BindString(\"one\") String label;",
+          "  @OnClick(\"two\") void onRow() {}",
+          "  @OnLongClick(\"two\") boolean onLongRow() {",
+          "    return true;",
+          "  }",
+          "}"
+      ));
+
+  @Test public void reportWrittenWhenEnabled() {
+    ASSERT.about(javaSource()).that(source)
+        .withCompilerOptions("-Arespackagename=" + R.class.getPackage().getName(),
+            "-Abindcostreport=true")
+        .processedWith(new ButterForkProcessor())
+        .compilesWithoutError()
+        .and()
+        .generatesFileNamed(StandardLocation.SOURCE_OUTPUT, "", "butterfork-costs.json")
+        .withContents(ByteSource.wrap(Joiner.on('\n').join(
+            "{",
+            "  \"test.Test\": {",
+            "    \"lookups\": 1,",
+            "    \"collectionViews\": 0,",
+            "    \"listenerClasses\": 0,",
+            "    \"resources\": 0,",
+            "    \"bitmaps\": 1,",
+            "    \"superBindDepth\": 0,",
+            "    \"total\": 11",
+            "  },",
+            "  \"test.TestOne\": {",
+            "    \"lookups\": 3,",
+            "    \"collectionViews\": 3,",
+            "    \"listenerClasses\": 2,",
+            "    \"resources\": 1,",
+            "    \"bitmaps\": 1,",
+            "    \"superBindDepth\": 1,",
+            "    \"total\": 17",
+            "  }",
+            "}",
+            "").getBytes(UTF_8)));
+  }
+
+  @Test public void failsOverBudget() {
+    ASSERT.about(javaSource()).that(source)
+        .withCompilerOptions("-Arespackagename=" + R.class.getPackage().getName(),
+            "-Abindcostbudget=12")
+        .processedWith(new ButterForkProcessor())
+        .failsToCompile()
+        .withErrorContaining("Binding test.TestOne costs 17, which is over the budget of 12 set by "
+            + "-Abindcostbudget (3 view lookups, 2 listener classes, 1 resources, 1 bitmaps and "
+            + "1 superclass binders).")
+        .in(source).onLine(14);
+  }
+}
@@ -0,0 +1,216 @@
+package butterfork.internal;
+
+import com.google.common.base.Joiner;
+import com.google.testing.compile.JavaFileObjects;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.ToolProvider;
+
+import static com.google.common.base.Charsets.UTF_8;
+import static java.util.Collections.singletonList;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class BindMethodBudgetTest {
+  private static final int BUDGET = 300;
+
+  @Rule public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  private final DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+
+  private final JavaFileObject source = JavaFileObjects.forSourceString("test.Test",
+      Joiner.on('\n').join(
+          "package test;",
+          "import android.app.Activity;",
+          "import android.view.View;",
+          "import android.widget.TextView;",
+          "import butterfork.Bind;",
+          "import butterfork.OnClick;",
+          "import butterfork.OnLongClick;",
+          "import java.util.List;",
+          "public class Test extends Activity {",
+          "  @Bind(\"zero\") TextView zero;",
+          "  @Bind(\"one\") TextView one;",
+          "  @Bind(\"two\") TextView two;",
+          "  @Bind(\"three\") TextView three;",
+          "  @Bind(\"four\") TextView four;",
+          "  @Bind({\"zero\", \"one\"}) List<TextView> all;",
+          "  @OnClick({\"zero\", \"one\", \"two\", \"three\", \"four\"})",
+          "  void click(TextView view) {}",
+          "  @OnLongClick({\"zero\", \"one\", \"two\", \"three\", \"four\"}) boolean longClick() {",
+          "    return true;",
+          "  }",
+          "}"
+      ));
+
+  @Test public void viewPhaseSplitIntoPartsWithinBudget() throws IOException {
+    File classes = compile("-Abindmethodbudget=" + BUDGET);
+
+    Map<String, Integer> codeLengths = codeLengths(classes);
+    assertThat(codeLengths).isNotEmpty();
+    for (Map.Entry<String, Integer> entry : codeLengths.entrySet()) {
+      assertThat(entry.getValue()).as(entry.getKey()).isLessThanOrEqualTo(BUDGET);
+    }
+    assertThat(codeLengths.keySet()).contains(
+        "Test$$ViewBinder.bindPart0(Lbutterfork/ButterFork$Finder;Ltest/Test;Ljava/lang/Object;)V",
+        "Test$$ViewBinder.bindPart1(Lbutterfork/ButterFork$Finder;Ltest/Test;Ljava/lang/Object;)V");
+  }
+
+  @Test public void viewPhaseNotSplitWithoutBudget() throws IOException {
+    File classes = compile();
+
+    Map<String, Integer> codeLengths = codeLengths(classes);
+    String bind =
+        "Test$$ViewBinder.bind(Lbutterfork/ButterFork$Finder;Ltest/Test;Ljava/lang/Object;)V";
+    assertThat(codeLengths.get(bind)).isGreaterThan(BUDGET);
+    for (String method : codeLengths.keySet()) {
+      assertThat(method).doesNotContain("Part");
+    }
+  }
+
+  @Test public void collectionSharesLookupsWithItsViewsWhenSplit() throws IOException {
+    File classes = compile("-Abindmethodbudget=" + BUDGET);
+
+    String binder = new String(Files.readAllBytes(
+        new File(classes, "test/Test$$ViewBinder.java").toPath()), UTF_8);
+    for (String id : Arrays.asList("zero", "one", "two", "three", "four")) {
+      String lookup = "findRequiredView(source, R.id." + id + ",";
+      assertThat(binder.split(Pattern.quote(lookup), -1)).as(id).hasSize(2);
+    }
+  }
+
+  @Test public void unitOverBudgetWarns() throws IOException {
+    compile("-Abindmethodbudget=100");
+
+    List<String> warnings = new ArrayList<>();
+    for (Diagnostic<? extends JavaFileObject> diagnostic : diagnostics.getDiagnostics()) {
+      if (diagnostic.getKind() == Diagnostic.Kind.WARNING) {
+        warnings.add(diagnostic.getMessage(null));
+      }
+    }
+    // The views the collection shares are bound together with it.
+    assertThat(warnings).containsExactly("The collection bindings of test.Test are estimated at "
+        + "304 bytes, which is over the budget of 100 set by -Abindmethodbudget and cannot be "
+        + "split.");
+  }
+
+  private File compile(String... options) throws IOException {
+    File classes = temporaryFolder.newFolder();
+    List<String> arguments = new ArrayList<>(Arrays.asList(options));
+    arguments.addAll(Arrays.asList("-d", classes.getPath(),
+        "-classpath", System.getProperty("java.class.path"),
+        "-Arespackagename=" + R.class.getPackage().getName()));
+
+    JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+    JavaCompiler.CompilationTask task =
+        compiler.getTask(null, null, diagnostics, arguments, null, singletonList(source));
+    task.setProcessors(singletonList(new ButterForkProcessor()));
+    assertThat(task.call()).isTrue();
+    return classes;
+  }
+
+  /** Bytecode length of every method of the generated binder and its listeners. */
+  private static Map<String, Integer> codeLengths(File classes) throws IOException {
+    Map<String, Integer> codeLengths = new LinkedHashMap<>();
+    File[] files = new File(classes, "test").listFiles();
+    Arrays.sort(files);
+    for (File file : files) {
+      String name = file.getName();
+      if (name.startsWith("Test$$ViewBinder") && name.endsWith(".class")) {
+        readCodeLengths(file, name.substring(0, name.length() - ".class".length()), codeLengths);
+      }
+    }
+    return codeLengths;
+  }
+
+  private static void readCodeLengths(File file, String className,
+      Map<String, Integer> codeLengths) throws IOException {
+    DataInputStream in = new DataInputStream(new FileInputStream(file));
+    try {
+      in.skipBytes(8); // Magic and version.
+      int constantCount = in.readUnsignedShort();
+      String[] strings = new String[constantCount];
+      for (int i = 1; i < constantCount; i++) {
+        int tag = in.readUnsignedByte();
+        switch (tag) {
+          case 1: // Utf8
+            strings[i] = in.readUTF();
+            break;
+          case 5: // Long
+          case 6: // Double
+            in.skipBytes(8);
+            i++;
+            break;
+          case 15: // MethodHandle
+            in.skipBytes(3);
+            break;
+          case 7: // Class
+          case 8: // String
+          case 16: // MethodType
+          case 19: // Module
+          case 20: // Package
+            in.skipBytes(2);
+            break;
+          default:
+            in.skipBytes(4);
+            break;
+        }
+      }
+      in.skipBytes(6); // Access flags, this class and superclass.
+      in.skipBytes(2 * in.readUnsignedShort()); // Interfaces.
+
+      int fieldCount = in.readUnsignedShort();
+      for (int i = 0; i < fieldCount; i++) {
+        in.skipBytes(6);
+        skipAttributes(in);
+      }
+
+      int methodCount = in.readUnsignedShort();
+      for (int i = 0; i < methodCount; i++) {
+        in.skipBytes(2);
+        String name = strings[in.readUnsignedShort()];
+        String descriptor = strings[in.readUnsignedShort()];
+        int attributeCount = in.readUnsignedShort();
+        for (int j = 0; j < attributeCount; j++) {
+          String attribute = strings[in.readUnsignedShort()];
+          int length = in.readInt();
+          if ("Code".equals(attribute)) {
+            in.skipBytes(4); // Max stack and locals.
+            codeLengths.put(className + "." + name + descriptor, in.readInt());
+            in.skipBytes(length - 8);
+          } else {
+            in.skipBytes(length);
+          }
+        }
+      }
+    } finally {
+      in.close();
+    }
+  }
+
+  private static void skipAttributes(DataInputStream in) throws IOException {
+    int attributeCount = in.readUnsignedShort();
+    for (int i = 0; i < attributeCount; i++) {
+      in.skipBytes(2);
+      in.skipBytes(in.readInt());
+    }
+  }
+}
@@ -29,8 +29,14 @@ public class BindStringTest {
             "import butterfork.internal.R;",
             "import java.lang.Object;",
             "import java.lang.Override;",
-            "public class Test$$ViewBinder<T extends Test> implements ButterFork.ViewBinder<T> {",
-            "  @Override public void bind(final ButterFork.Finder finder, final T target, Object source) {",
+            "public class Test$$ViewBinder<T extends Test> implements ButterFork.ViewBinder<T>, ButterFork.ResourceBinder<T> {",
+            "  @Override public void bind(ButterFork.Finder finder, T target, Object source) {",
+            "    bindViews(finder, target, source);",
+            "    bindResources(finder, target, source);",
+            "  }",
+            "  @Override public void bindViews(final ButterFork.Finder finder, final T target, Object source) {",
+            "  }",
+            "  @Override public void bindResources(ButterFork.Finder finder, T target, Object source) {",
             "    Resources res = finder.getContext(source).getResources();",
             "    target.one = res.getString(R.string.one);",
             "  }",
@@ -47,6 +53,151 @@ public class BindStringTest {
         .generatesSources(expectedSource);
   }
 
+  @Test public void superclassResources() {
+    JavaFileObject source = JavaFileObjects.forSourceString("test.Test", Joiner.on('\n').join(
+        "package test;",
+        "import android.app.Activity;",
+        "import android.view.View;",
+        "import butterfork.Bind;",
+        "import butterfork.BindString;",
+        "public class Test extends Activity {",
+        "  @BindString(\"one\") String one;",
+        "}",
+        "class TestOne extends Test {",
+        "  @Bind(\"one\") View thing;",
+        "  @BindString(\"two\") String two;",
+        "}"
+    ));
+
+    JavaFileObject expectedSource1 = JavaFileObjects.forSourceString("test/Test$$ViewBinder",
+        Joiner.on('\n').join(
+            "package test;",
+            "import android.content.res.Resources;",
+            "import butterfork.ButterFork;",
+            "import butterfork.internal.R;",
+            "import java.lang.Object;",
+            "import java.lang.Override;",
+            "public class Test$$ViewBinder<T extends Test> implements ButterFork.ViewBinder<T>, ButterFork.ResourceBinder<T> {",
+            "  @Override public void bind(ButterFork.Finder finder, T target, Object source) {",
+            "    bindViews(finder, target, source);",
+            "    bindResources(finder, target, source);",
+            "  }",
+            "  @Override public void bindViews(final ButterFork.Finder finder, final T target, Object source) {",
+            "  }",
+            "  @Override public void bindResources(ButterFork.Finder finder, T target, Object source) {",
+            "    Resources res = finder.getContext(source).getResources();",
+            "    target.one = res.getString(R.string.one);",
+            "  }",
+            "  @Override public void unbind(T target) {",
+            "  }",
+            "}"
+        ));
+
+    JavaFileObject expectedSource2 = JavaFileObjects.forSourceString("test/TestOne$$ViewBinder",
+        Joiner.on('\n').join(
+            "package test;",
+            "import android.content.res.Resources;",
+            "import android.view.View;",
+            "import butterfork.ButterFork;",
+            "import butterfork.internal.R;",
+            "import java.lang.Object;",
+            "import java.lang.Override;",
+            "public class TestOne$$ViewBinder<T extends TestOne> extends Test$$ViewBinder<T> {",
+            "  @Override public void bindViews(final ButterFork.Finder finder, final T target, Object source) {",
+            "    super.bindViews(finder, target, source);",
+            "    View view;",
+            "    view = finder.findRequiredView(source, R.id.one, \"field 'thing'\");",
+            "    target.thing = view;",
+            "  }",
+            "  @Override public void bindResources(ButterFork.Finder finder, T target, Object source) {",
+            "    super.bindResources(finder, target, source);",
+            "    Resources res = finder.getContext(source).getResources();",
+            "    target.two = res.getString(R.string.two);",
+            "  }",
+            "  @Override public void unbind(T target) {",
+            "    super.unbind(target);",
+            "    target.thing = null;",
+            "  }",
+            "}"
+        ));
+
+    ASSERT.about(javaSource()).that(source)
+        .withCompilerOptions("-Arespackagename=" + R.class.getPackage().getName())
+        .processedWith(new ButterForkProcessor())
+        .compilesWithoutError()
+        .and()
+        .generatesSources(expectedSource1, expectedSource2);
+  }
+
+  @Test public void superclassViewsChildResources() {
+    JavaFileObject source = JavaFileObjects.forSourceString("test.Test", Joiner.on('\n').join(
+        "package test;",
+        "import android.app.Activity;",
+        "import android.view.View;",
+        "import butterfork.Bind;",
+        "import butterfork.BindString;",
+        "public class Test extends Activity {",
+        "  @Bind(\"one\") View thing;",
+        "}",
+        "class TestOne extends Test {",
+        "  @BindString(\"two\") String two;",
+        "}"
+    ));
+
+    JavaFileObject expectedSource1 = JavaFileObjects.forSourceString("test/Test$$ViewBinder",
+        Joiner.on('\n').join(
+            "package test;",
+            "import android.view.View;",
+            "import butterfork.ButterFork;",
+            "import butterfork.internal.R;",
+            "import java.lang.Object;",
+            "import java.lang.Override;",
+            "public class Test$$ViewBinder<T extends Test> implements ButterFork.ViewBinder<T> {",
+            "  @Override public void bind(final ButterFork.Finder finder, final T target, Object source) {",
+            "    View view;",
+            "    view = finder.findRequiredView(source, R.id.one, \"field 'thing'\");",
+            "    target.thing = view;",
+            "  }",
+            "  @Override public void unbind(T target) {",
+            "    target.thing = null;",
+            "  }",
+            "}"
+        ));
+
+    JavaFileObject expectedSource2 = JavaFileObjects.forSourceString("test/TestOne$$ViewBinder",
+        Joiner.on('\n').join(
+            "package test;",
+            "import android.content.res.Resources;",
+            "import butterfork.ButterFork;",
+            "import butterfork.internal.R;",
+            "import java.lang.Object;",
+            "import java.lang.Override;",
+            "public class TestOne$$ViewBinder<T extends TestOne> extends Test$$ViewBinder<T> implements ButterFork.ResourceBinder<T> {",
+            "  @Override public void bind(ButterFork.Finder finder, T target, Object source) {",
+            "    bindViews(finder, target, source);",
+            "    bindResources(finder, target, source);",
+            "  }",
+            "  @Override public void bindViews(final ButterFork.Finder finder, final T target, Object source) {",
+            "    super.bind(finder, target, source);",
+            "  }",
+            "  @Override public void bindResources(ButterFork.Finder finder, T target, Object source) {",
+            "    Resources res = finder.getContext(source).getResources();",
+            "    target.two = res.getString(R.string.two);",
+            "  }",
+            "  @Override public void unbind(T target) {",
+            "    super.unbind(target);",
+            "  }",
+            "}"
+        ));
+
+    ASSERT.about(javaSource()).that(source)
+        .withCompilerOptions("-Arespackagename=" + R.class.getPackage().getName())
+        .processedWith(new ButterForkProcessor())
+        .compilesWithoutError()
+        .and()
+        .generatesSources(expectedSource1, expectedSource2);
+  }
+
   @Test public void typeMustBeString() {
     JavaFileObject source = JavaFileObjects.forSourceString("test.Test", Joiner.on('\n').join(
         "package test;",
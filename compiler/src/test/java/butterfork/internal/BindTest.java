@@ -5,10 +5,13 @@ import com.google.testing.compile.JavaFileObjects;
 
 import org.junit.Test;
 
+import java.util.Arrays;
+
 import javax.tools.JavaFileObject;
 
 import static com.google.common.truth.Truth.ASSERT;
 import static com.google.testing.compile.JavaSourceSubjectFactory.javaSource;
+import static com.google.testing.compile.JavaSourcesSubjectFactory.javaSources;
 
 public class BindTest {
   @Test public void bindingView() {
@@ -295,7 +298,6 @@ public class BindTest {
             "package test;",
             "import android.view.View;",
             "import butterfork.ButterFork;",
-            "import butterfork.internal.R;",
             "import java.lang.Object;",
             "import java.lang.Override;",
             "public class TestOne$$ViewBinder<T extends TestOne> ",
@@ -303,7 +305,7 @@ public class BindTest {
             "  @Override public void bind(final ButterFork.Finder finder, final T target, Object source) {",
             "    super.bind(finder, target, source);",
             "    View view;",
-            "    view = finder.findRequiredView(source, R.id.one, \"field 'thing'\");",
+            "    view = target.view;",
             "    target.thing = view;",
             "  }",
             "  @Override public void unbind(T target) {",
@@ -362,7 +364,6 @@ public class BindTest {
             "package test;",
             "import android.view.View;",
             "import butterfork.ButterFork;",
-            "import butterfork.internal.R;",
             "import java.lang.Object;",
             "import java.lang.Override;",
             "public class TestOne$$ViewBinder<T extends TestOne> ",
@@ -370,7 +371,7 @@ public class BindTest {
             "  @Override public void bind(final ButterFork.Finder finder, final T target, Object source) {",
             "    super.bind(finder, target, source);",
             "    View view;",
-            "    view = finder.findRequiredView(source, R.id.one, \"field 'thing'\");",
+            "    view = target.view;",
             "    target.thing = view;",
             "  }",
             "  @Override public void unbind(T target) {",
@@ -388,6 +389,213 @@ public class BindTest {
         .generatesSources(expectedSource1, expectedSource2);
   }
 
+  @Test public void superclassViewReusedBySubclass() {
+    JavaFileObject source = JavaFileObjects.forSourceString("test.Test", Joiner.on('\n').join(
+        "package test;",
+        "import android.app.Activity;",
+        "import android.view.View;",
+        "import butterfork.Bind;",
+        "import butterfork.OnClick;",
+        "public class Test extends Activity {",
+        "  @Bind(\"one\") View toolbar;",
+        "}",
+        "class TestOne extends Test {",
+        "  @OnClick(\"one\") void onToolbar() {}",
+        "}",
+        "class TestTwo extends Test {",
+        "  View toolbar;",
+        "  @OnClick(\"one\") void onToolbar() {}",
+        "}"
+    ));
+
+    JavaFileObject expectedSource1 = JavaFileObjects.forSourceString("test/TestOne$$ViewBinder",
+        Joiner.on('\n').join(
+            "package test;",
+            "import android.view.View;",
+            "import butterfork.ButterFork;",
+            "import butterfork.internal.DebouncingOnClickListener;",
+            "import java.lang.Object;",
+            "import java.lang.Override;",
+            "public class TestOne$$ViewBinder<T extends TestOne> extends Test$$ViewBinder<T> {",
+            "  @Override public void bind(final ButterFork.Finder finder, final T target, Object source) {",
+            "    super.bind(finder, target, source);",
+            "    View view;",
+            "    view = target.toolbar;",
+            "    view.setOnClickListener(new DebouncingOnClickListener() {",
+            "      @Override public void doClick(View p0) {",
+            "        target.onToolbar();",
+            "      }",
+            "    });",
+            "  }",
+            "  @Override public void unbind(T target) {",
+            "    super.unbind(target);",
+            "  }",
+            "}"
+        ));
+
+    // The subclass hides the bound field so the view has to be looked up again.
+    JavaFileObject expectedSource2 = JavaFileObjects.forSourceString("test/TestTwo$$ViewBinder",
+        Joiner.on('\n').join(
+            "package test;",
+            "import android.view.View;",
+            "import butterfork.ButterFork;",
+            "import butterfork.internal.DebouncingOnClickListener;",
+            "import butterfork.internal.R;",
+            "import java.lang.Object;",
+            "import java.lang.Override;",
+            "public class TestTwo$$ViewBinder<T extends TestTwo> extends Test$$ViewBinder<T> {",
+            "  @Override public void bind(final ButterFork.Finder finder, final T target, Object source) {",
+            "    super.bind(finder, target, source);",
+            "    View view;",
+            "    view = finder.findRequiredView(source, R.id.one, \"method 'onToolbar'\");",
+            "    view.setOnClickListener(new DebouncingOnClickListener() {",
+            "      @Override public void doClick(View p0) {",
+            "        target.onToolbar();",
+            "      }",
+            "    });",
+            "  }",
+            "  @Override public void unbind(T target) {",
+            "    super.unbind(target);",
+            "  }",
+            "}"
+        ));
+
+    ASSERT.about(javaSource()).that(source)
+        .withCompilerOptions("-Arespackagename=" + R.class.getPackage().getName())
+        .processedWith(new ButterForkProcessor())
+        .compilesWithoutError()
+        .and()
+        .generatesSources(expectedSource1, expectedSource2);
+  }
+
+  @Test public void superclassViewBehindIntermediateInOtherPackage() {
+    JavaFileObject source = JavaFileObjects.forSourceString("test.Test", Joiner.on('\n').join(
+        "package test;",
+        "import android.app.Activity;",
+        "import android.view.View;",
+        "import butterfork.Bind;",
+        "public class Test extends Activity {",
+        "  @Bind(\"one\") View toolbar;",
+        "  @Bind(\"two\") protected View title;",
+        "}"
+    ));
+    JavaFileObject middle = JavaFileObjects.forSourceString("base.Middle", Joiner.on('\n').join(
+        "package base;",
+        "public class Middle extends test.Test {",
+        "}"
+    ));
+    JavaFileObject child = JavaFileObjects.forSourceString("test.TestOne", Joiner.on('\n').join(
+        "package test;",
+        "import butterfork.OnClick;",
+        "public class TestOne extends base.Middle {",
+        "  @OnClick(\"one\") void onToolbar() {}",
+        "  @OnClick(\"two\") void onTitle() {}",
+        "}"
+    ));
+
+    // Only the protected field is inherited through base.Middle, the other view is looked up again.
+    JavaFileObject expectedSource = JavaFileObjects.forSourceString("test/TestOne$$ViewBinder",
+        Joiner.on('\n').join(
+            "package test;",
+            "import android.view.View;",
+            "import butterfork.ButterFork;",
+            "import butterfork.internal.DebouncingOnClickListener;",
+            "import butterfork.internal.R;",
+            "import java.lang.Object;",
+            "import java.lang.Override;",
+            "public class TestOne$$ViewBinder<T extends TestOne> extends Test$$ViewBinder<T> {",
+            "  @Override public void bind(final ButterFork.Finder finder, final T target, Object source) {",
+            "    super.bind(finder, target, source);",
+            "    View view;",
+            "    view = finder.findRequiredView(source, R.id.one, \"method 'onToolbar'\");",
+            "    view.setOnClickListener(new DebouncingOnClickListener() {",
+            "      @Override public void doClick(View p0) {",
+            "        target.onToolbar();",
+            "      }",
+            "    });",
+            "    view = target.title;",
+            "    view.setOnClickListener(new DebouncingOnClickListener() {",
+            "      @Override public void doClick(View p0) {",
+            "        target.onTitle();",
+            "      }",
+            "    });",
+            "  }",
+            "  @Override public void unbind(T target) {",
+            "    super.unbind(target);",
+            "  }",
+            "}"
+        ));
+
+    ASSERT.about(javaSources()).that(Arrays.asList(source, middle, child))
+        .withCompilerOptions("-Arespackagename=" + R.class.getPackage().getName())
+        .processedWith(new ButterForkProcessor())
+        .compilesWithoutError()
+        .and()
+        .generatesSources(expectedSource);
+  }
+
+  @Test public void publicSuperclassViewReusedFromOtherPackage() {
+    JavaFileObject base = JavaFileObjects.forSourceString("base.Base", Joiner.on('\n').join(
+        "package base;",
+        "import android.app.Activity;",
+        "import android.view.View;",
+        "import butterfork.Bind;",
+        "public class Base extends Activity {",
+        "  @Bind(\"one\") public View toolbar;",
+        "  @Bind(\"two\") protected View title;",
+        "}"
+    ));
+    JavaFileObject child = JavaFileObjects.forSourceString("test.TestOne", Joiner.on('\n').join(
+        "package test;",
+        "import butterfork.OnClick;",
+        "public class TestOne extends base.Base {",
+        "  @OnClick(\"one\") void onToolbar() {}",
+        "  @OnClick(\"two\") void onTitle() {}",
+        "}"
+    ));
+
+    // The binder cannot read the protected field from another package so that view is looked up.
+    JavaFileObject expectedSource = JavaFileObjects.forSourceString("test/TestOne$$ViewBinder",
+        Joiner.on('\n').join(
+            "package test;",
+            "import android.view.View;",
+            "import base.Base$$ViewBinder;",
+            "import butterfork.ButterFork;",
+            "import butterfork.internal.DebouncingOnClickListener;",
+            "import butterfork.internal.R;",
+            "import java.lang.Object;",
+            "import java.lang.Override;",
+            "public class TestOne$$ViewBinder<T extends TestOne> extends Base$$ViewBinder<T> {",
+            "  @Override public void bind(final ButterFork.Finder finder, final T target, Object source) {",
+            "    super.bind(finder, target, source);",
+            "    View view;",
+            "    view = target.toolbar;",
+            "    view.setOnClickListener(new DebouncingOnClickListener() {",
+            "      @Override public void doClick(View p0) {",
+            "        target.onToolbar();",
+            "      }",
+            "    });",
+            "    view = finder.findRequiredView(source, R.id.two, \"method 'onTitle'\");",
+            "    view.setOnClickListener(new DebouncingOnClickListener() {",
+            "      @Override public void doClick(View p0) {",
+            "        target.onTitle();",
+            "      }",
+            "    });",
+            "  }",
+            "  @Override public void unbind(T target) {",
+            "    super.unbind(target);",
+            "  }",
+            "}"
+        ));
+
+    ASSERT.about(javaSources()).that(Arrays.asList(base, child))
+        .withCompilerOptions("-Arespackagename=" + R.class.getPackage().getName())
+        .processedWith(new ButterForkProcessor())
+        .compilesWithoutError()
+        .and()
+        .generatesSources(expectedSource);
+  }
+
   @Test public void failsInJavaPackage() {
     JavaFileObject source = JavaFileObjects.forSourceString("test.Test", Joiner.on('\n').join(
         "package java.test;",
@@ -895,6 +1103,259 @@ public class BindTest {
         .generatesSources(expectedSource);
   }
 
+  @Test public void collectionsShareLookups() {
+    JavaFileObject source = JavaFileObjects.forSourceString("test.Test", Joiner.on('\n').join(
+        "package test;",
+        "import android.app.Activity;",
+        "import android.view.View;",
+        "import android.widget.TextView;",
+        "import butterfork.Bind;",
+        "import butterfork.OnClick;",
+        "import java.util.List;",
+        "public class Test extends Activity {",
+        "    @Bind(\"one\") View title;",
+        "    @OnClick(\"two\") void hello() {}",
+        "    @Bind({\"one\", \"two\", \"three\"}) List<View> header;",
+        "    @Bind({\"three\", \"four\"}) TextView[] texts;",
+        "}"
+    ));
+
+    JavaFileObject expectedSource = JavaFileObjects.forSourceString("test/Test$$ViewBinder",
+        Joiner.on('\n').join(
+            "package test;",
+            "import android.view.View;",
+            "import android.widget.TextView;",
+            "import butterfork.ButterFork;",
+            "import butterfork.internal.DebouncingOnClickListener;",
+            "import butterfork.internal.R;",
+            "import java.lang.Object;",
+            "import java.lang.Override;",
+            "public class Test$$ViewBinder<T extends Test> implements ButterFork.ViewBinder<T> {",
+            "  @Override public void bind(final ButterFork.Finder finder, final T target, Object source) {",
+            "    View view;",
+            "    view = finder.findRequiredView(source, R.id.one, \"field 'title' and field 'header'\");",
+            "    View view_one = view;",
+            "    target.title = view;",
+            "    view = finder.findRequiredView(source, R.id.two, \"method 'hello' and field 'header'\");",
+            "    View view_two = view;",
+            "    view.setOnClickListener(new DebouncingOnClickListener() {",
+            "      @Override public void doClick(View p0) {",
+            "        target.hello();",
+            "      }",
+            "    });",
+            "    View view_three = finder.findRequiredView(source, R.id.three, \"field 'header' and field 'texts'\");",
+            "    target.header = ButterFork.Finder.listOf(",
+            "        view_one,",
+            "        view_two,",
+            "        view_three",
+            "    );",
+            "    target.texts = ButterFork.Finder.arrayOf(",
+            "        finder.<TextView>castView(view_three, R.id.three, \"field 'texts'\"),",
+            "        finder.<TextView>findRequiredView(source, R.id.four, \"field 'texts'\")",
+            "    );",
+            "  }",
+            "  @Override public void unbind(T target) {",
+            "    target.title = null;",
+            "    target.header = null;",
+            "    target.texts = null;",
+            "  }",
+            "}"
+        ));
+
+    ASSERT.about(javaSource()).that(source)
+        .withCompilerOptions("-Arespackagename=" + R.class.getPackage().getName())
+        .processedWith(new ButterForkProcessor())
+        .compilesWithoutError()
+        .and()
+        .generatesSources(expectedSource);
+  }
+
+  @Test public void largeCollectionLooksUpIdTable() {
+    JavaFileObject source = JavaFileObjects.forSourceString("test.Test", Joiner.on('\n').join(
+        "package test;",
+        "import android.app.Activity;",
+        "import android.widget.TextView;",
+        "import butterfork.Bind;",
+        "import java.util.List;",
+        "public class Test extends Activity {",
+        "    @Bind({\"zero\", \"one\", \"two\", \"three\", \"four\", \"five\", \"six\", \"seven\"})",
+        "    List<TextView> gridCells;",
+        "}"
+    ));
+
+    JavaFileObject expectedSource = JavaFileObjects.forSourceString("test/Test$$ViewBinder",
+        Joiner.on('\n').join(
+            "package test;",
+            "import android.view.View;",
+            "import android.widget.TextView;",
+            "import butterfork.ButterFork;",
+            "import butterfork.internal.R;",
+            "import java.lang.Object;",
+            "import java.lang.Override;",
+            "public class Test$$ViewBinder<T extends Test> implements ButterFork.ViewBinder<T> {",
+            "  private static final int[] GRID_CELLS_IDS = {",
+            "      R.id.zero,",
+            "      R.id.one,",
+            "      R.id.two,",
+            "      R.id.three,",
+            "      R.id.four,",
+            "      R.id.five,",
+            "      R.id.six,",
+            "      R.id.seven",
+            "  };",
+            "  @Override public void bind(final ButterFork.Finder finder, final T target, Object source) {",
+            "    View view;",
+            "    TextView[] gridCellsViews = new TextView[GRID_CELLS_IDS.length];",
+            "    for (int i = 0; i < GRID_CELLS_IDS.length; i++) {",
+            "      gridCellsViews[i] = finder.<TextView>findRequiredView(source, GRID_CELLS_IDS[i],",
+            "          \"field 'gridCells'\");",
+            "    }",
+            "    target.gridCells = ButterFork.Finder.listOf(gridCellsViews);",
+            "  }",
+            "  @Override public void unbind(T target) {",
+            "    target.gridCells = null;",
+            "  }",
+            "}"
+        ));
+
+    ASSERT.about(javaSource()).that(source)
+        .withCompilerOptions("-Arespackagename=" + R.class.getPackage().getName())
+        .processedWith(new ButterForkProcessor())
+        .compilesWithoutError()
+        .and()
+        .generatesSources(expectedSource);
+  }
+
+  @Test public void largeCollectionOfParameterizedTypeUnrolled() {
+    JavaFileObject source = JavaFileObjects.forSourceString("test.Test", Joiner.on('\n').join(
+        "package test;",
+        "import android.app.Activity;",
+        "import android.content.Context;",
+        "import android.view.View;",
+        "import butterfork.Bind;",
+        "import java.util.List;",
+        "public class Test extends Activity {",
+        "  static class GenView<X> extends View {",
+        "    GenView(Context context) {",
+        "      super(context);",
+        "    }",
+        "  }",
+        "  @Bind({\"zero\", \"one\", \"two\", \"three\", \"four\", \"five\", \"six\", \"seven\"})",
+        "  List<GenView<String>> cells;",
+        "}"
+    ));
+
+    // Arrays of a parameterized type cannot be created, so there is no loop over a table.
+    JavaFileObject expectedSource = JavaFileObjects.forSourceString("test/Test$$ViewBinder",
+        Joiner.on('\n').join(
+            "package test;",
+            "import android.view.View;",
+            "import butterfork.ButterFork;",
+            "import butterfork.internal.R;",
+            "import java.lang.Object;",
+            "import java.lang.Override;",
+            "import java.lang.String;",
+            "public class Test$$ViewBinder<T extends Test> implements ButterFork.ViewBinder<T> {",
+            "  @Override public void bind(final ButterFork.Finder finder, final T target, Object source) {",
+            "    View view;",
+            "    target.cells = ButterFork.Finder.listOf(",
+            "        finder.<Test.GenView<String>>findRequiredView(source, R.id.zero, \"field 'cells'\"),",
+            "        finder.<Test.GenView<String>>findRequiredView(source, R.id.one, \"field 'cells'\"),",
+            "        finder.<Test.GenView<String>>findRequiredView(source, R.id.two, \"field 'cells'\"),",
+            "        finder.<Test.GenView<String>>findRequiredView(source, R.id.three, \"field 'cells'\"),",
+            "        finder.<Test.GenView<String>>findRequiredView(source, R.id.four, \"field 'cells'\"),",
+            "        finder.<Test.GenView<String>>findRequiredView(source, R.id.five, \"field 'cells'\"),",
+            "        finder.<Test.GenView<String>>findRequiredView(source, R.id.six, \"field 'cells'\"),",
+            "        finder.<Test.GenView<String>>findRequiredView(source, R.id.seven, \"field 'cells'\"));",
+            "  }",
+            "  @Override public void unbind(T target) {",
+            "    target.cells = null;",
+            "  }",
+            "}"
+        ));
+
+    ASSERT.about(javaSource()).that(source)
+        .withCompilerOptions("-Arespackagename=" + R.class.getPackage().getName())
+        .processedWith(new ButterForkProcessor())
+        .compilesWithoutError()
+        .and()
+        .generatesSources(expectedSource);
+  }
+
+  @Test public void idTablesOfCollidingNamesKeptApart() {
+    JavaFileObject source = JavaFileObjects.forSourceString("test.Test", Joiner.on('\n').join(
+        "package test;",
+        "import android.app.Activity;",
+        "import android.view.View;",
+        "import butterfork.Bind;",
+        "public class Test extends Activity {",
+        "    @Bind({\"zero\", \"one\", \"two\", \"three\", \"four\", \"five\", \"six\", \"seven\"})",
+        "    View[] fooBar;",
+        "    @Bind({\"eight\", \"nine\", \"ten\", \"eleven\", \"twelve\", \"thirteen\", \"fourteen\",",
+        "        \"fifteen\"})",
+        "    View[] foo_bar;",
+        "}"
+    ));
+
+    JavaFileObject expectedSource = JavaFileObjects.forSourceString("test/Test$$ViewBinder",
+        Joiner.on('\n').join(
+            "package test;",
+            "import android.view.View;",
+            "import butterfork.ButterFork;",
+            "import butterfork.internal.R;",
+            "import java.lang.Object;",
+            "import java.lang.Override;",
+            "public class Test$$ViewBinder<T extends Test> implements ButterFork.ViewBinder<T> {",
+            "  private static final int[] FOO_BAR_IDS = {",
+            "      R.id.zero,",
+            "      R.id.one,",
+            "      R.id.two,",
+            "      R.id.three,",
+            "      R.id.four,",
+            "      R.id.five,",
+            "      R.id.six,",
+            "      R.id.seven",
+            "  };",
+            "  private static final int[] FOO_BAR_IDS_2 = {",
+            "      R.id.eight,",
+            "      R.id.nine,",
+            "      R.id.ten,",
+            "      R.id.eleven,",
+            "      R.id.twelve,",
+            "      R.id.thirteen,",
+            "      R.id.fourteen,",
+            "      R.id.fifteen",
+            "  };",
+            "  @Override public void bind(final ButterFork.Finder finder, final T target, Object source) {",
+            "    View view;",
+            "    View[] fooBarViews = new View[FOO_BAR_IDS.length];",
+            "    for (int i = 0; i < FOO_BAR_IDS.length; i++) {",
+            "      fooBarViews[i] = finder.<View>findRequiredView(source, FOO_BAR_IDS[i],",
+            "          \"field 'fooBar'\");",
+            "    }",
+            "    target.fooBar = ButterFork.Finder.arrayOf(fooBarViews);",
+            "    View[] foo_barViews = new View[FOO_BAR_IDS_2.length];",
+            "    for (int i = 0; i < FOO_BAR_IDS_2.length; i++) {",
+            "      foo_barViews[i] = finder.<View>findRequiredView(source, FOO_BAR_IDS_2[i],",
+            "          \"field 'foo_bar'\");",
+            "    }",
+            "    target.foo_bar = ButterFork.Finder.arrayOf(foo_barViews);",
+            "  }",
+            "  @Override public void unbind(T target) {",
+            "    target.fooBar = null;",
+            "    target.foo_bar = null;",
+            "  }",
+            "}"
+        ));
+
+    ASSERT.about(javaSource()).that(source)
+        .withCompilerOptions("-Arespackagename=" + R.class.getPackage().getName())
+        .processedWith(new ButterForkProcessor())
+        .compilesWithoutError()
+        .and()
+        .generatesSources(expectedSource);
+  }
+
   @Test public void failsIfNoIds() {
     JavaFileObject source = JavaFileObjects.forSourceString("test.Test", Joiner.on('\n').join(
         "package test;",
@@ -0,0 +1,171 @@
+package butterfork.internal;
+
+import com.google.common.base.Joiner;
+import com.google.testing.compile.JavaFileObjects;
+
+import org.junit.Test;
+
+import javax.tools.JavaFileObject;
+
+import static com.google.common.truth.Truth.ASSERT;
+import static com.google.testing.compile.JavaSourceSubjectFactory.javaSource;
+
+public class BindThemeColorTest {
+  @Test public void simpleInt() {
+    JavaFileObject source = JavaFileObjects.forSourceString("test.Test", Joiner.on('\n').join(
+        "package test;",
+        "import android.app.Activity;",
+        "import butterfork.BindThemeColor;",
+        "public class Test extends Activity {",
+        "  @BindThemeColor(\"one\") int one;",
+        "}"
+    ));
+
+    JavaFileObject expectedSource = JavaFileObjects.forSourceString("test/Test$$ViewBinder",
+        Joiner.on('\n').join(
+            "package test;",
+            "import android.content.res.TypedArray;",
+            "import butterfork.ButterFork;",
+            "import butterfork.internal.R;",
+            "import java.lang.Object;",
+            "import java.lang.Override;",
+            "public class Test$$ViewBinder<T extends Test> implements ButterFork.ViewBinder<T>, ButterFork.ResourceBinder<T> {",
+            "  private static final int[] THEME_ATTRS = { R.attr.one };",
+            "  private static final int[] THEME_ATTR_INDICES = ButterFork.Finder.sortAttrs(THEME_ATTRS);",
+            "  @Override public void bind(ButterFork.Finder finder, T target, Object source) {",
+            "    bindViews(finder, target, source);",
+            "    bindResources(finder, target, source);",
+            "  }",
+            "  @Override public void bindViews(final ButterFork.Finder finder, final T target, Object source) {",
+            "  }",
+            "  @Override public void bindResources(ButterFork.Finder finder, T target, Object source) {",
+            "    TypedArray attrs = finder.getContext(source).obtainStyledAttributes(THEME_ATTRS);",
+            "    target.one = attrs.getColor(finder.requireAttr(source, attrs, THEME_ATTRS, THEME_ATTR_INDICES[0], \"field 'one'\"), 0);",
+            "    attrs.recycle();",
+            "  }",
+            "  @Override public void unbind(T target) {",
+            "  }",
+            "}"
+        ));
+
+    ASSERT.about(javaSource()).that(source)
+        .withCompilerOptions("-Arespackagename=" + R.class.getPackage().getName())
+        .processedWith(new ButterForkProcessor())
+        .compilesWithoutError()
+        .and()
+        .generatesSources(expectedSource);
+  }
+
+  @Test public void simpleColorStateList() {
+    JavaFileObject source = JavaFileObjects.forSourceString("test.Test", Joiner.on('\n').join(
+        "package test;",
+        "import android.app.Activity;",
+        "import android.content.res.ColorStateList;",
+        "import butterfork.BindThemeColor;",
+        "public class Test extends Activity {",
+        "  @BindThemeColor(\"one\") ColorStateList one;",
+        "}"
+    ));
+
+    JavaFileObject expectedSource = JavaFileObjects.forSourceString("test/Test$$ViewBinder",
+        Joiner.on('\n').join(
+            "package test;",
+            "import android.content.res.TypedArray;",
+            "import butterfork.ButterFork;",
+            "import butterfork.internal.R;",
+            "import java.lang.Object;",
+            "import java.lang.Override;",
+            "public class Test$$ViewBinder<T extends Test> implements ButterFork.ViewBinder<T>, ButterFork.ResourceBinder<T> {",
+            "  private static final int[] THEME_ATTRS = { R.attr.one };",
+            "  private static final int[] THEME_ATTR_INDICES = ButterFork.Finder.sortAttrs(THEME_ATTRS);",
+            "  @Override public void bind(ButterFork.Finder finder, T target, Object source) {",
+            "    bindViews(finder, target, source);",
+            "    bindResources(finder, target, source);",
+            "  }",
+            "  @Override public void bindViews(final ButterFork.Finder finder, final T target, Object source) {",
+            "  }",
+            "  @Override public void bindResources(ButterFork.Finder finder, T target, Object source) {",
+            "    TypedArray attrs = finder.getContext(source).obtainStyledAttributes(THEME_ATTRS);",
+            "    target.one = attrs.getColorStateList(finder.requireAttr(source, attrs, THEME_ATTRS, THEME_ATTR_INDICES[0], \"field 'one'\"));",
+            "    attrs.recycle();",
+            "  }",
+            "  @Override public void unbind(T target) {",
+            "  }",
+            "}"
+        ));
+
+    ASSERT.about(javaSource()).that(source)
+        .withCompilerOptions("-Arespackagename=" + R.class.getPackage().getName())
+        .processedWith(new ButterForkProcessor())
+        .compilesWithoutError()
+        .and()
+        .generatesSources(expectedSource);
+  }
+
+  @Test public void multipleAttributesShareOneLookup() {
+    JavaFileObject source = JavaFileObjects.forSourceString("test.Test", Joiner.on('\n').join(
+        "package test;",
+        "import android.app.Activity;",
+        "import butterfork.BindThemeColor;",
+        "import butterfork.BindThemeDimen;",
+        "public class Test extends Activity {",
+        "  @BindThemeColor(\"one\") int one;",
+        "  @BindThemeDimen(\"two\") float two;",
+        "}"
+    ));
+
+    JavaFileObject expectedSource = JavaFileObjects.forSourceString("test/Test$$ViewBinder",
+        Joiner.on('\n').join(
+            "package test;",
+            "import android.content.res.TypedArray;",
+            "import butterfork.ButterFork;",
+            "import butterfork.internal.R;",
+            "import java.lang.Object;",
+            "import java.lang.Override;",
+            "public class Test$$ViewBinder<T extends Test> implements ButterFork.ViewBinder<T>, ButterFork.ResourceBinder<T> {",
+            "  private static final int[] THEME_ATTRS = { R.attr.one, R.attr.two };",
+            "  private static final int[] THEME_ATTR_INDICES = ButterFork.Finder.sortAttrs(THEME_ATTRS);",
+            "  @Override public void bind(ButterFork.Finder finder, T target, Object source) {",
+            "    bindViews(finder, target, source);",
+            "    bindResources(finder, target, source);",
+            "  }",
+            "  @Override public void bindViews(final ButterFork.Finder finder, final T target, Object source) {",
+            "  }",
+            "  @Override public void bindResources(ButterFork.Finder finder, T target, Object source) {",
+            "    TypedArray attrs = finder.getContext(source).obtainStyledAttributes(THEME_ATTRS);",
+            "    target.one = attrs.getColor(finder.requireAttr(source, attrs, THEME_ATTRS, THEME_ATTR_INDICES[0], \"field 'one'\"), 0);",
+            "    target.two = attrs.getDimension(finder.requireAttr(source, attrs, THEME_ATTRS, THEME_ATTR_INDICES[1], \"field 'two'\"), 0f);",
+            "    attrs.recycle();",
+            "  }",
+            "  @Override public void unbind(T target) {",
+            "  }",
+            "}"
+        ));
+
+    ASSERT.about(javaSource()).that(source)
+        .withCompilerOptions("-Arespackagename=" + R.class.getPackage().getName())
+        .processedWith(new ButterForkProcessor())
+        .compilesWithoutError()
+        .and()
+        .generatesSources(expectedSource);
+  }
+
+  @Test public void typeMustBeIntOrColorStateList() {
+    JavaFileObject source = JavaFileObjects.forSourceString("test.Test", Joiner.on('\n').join(
+        "package test;",
+        "import android.app.Activity;",
+        "import butterfork.BindThemeColor;",
+        "public class Test extends Activity {",
+        "  @BindThemeColor(\"one\") String one;",
+        "}"
+    ));
+
+    ASSERT.about(javaSource()).that(source)
+        .withCompilerOptions("-Arespackagename=" + R.class.getPackage().getName())
+        .processedWith(new ButterForkProcessor())
+        .failsToCompile()
+        .withErrorContaining(
+            "@BindThemeColor field type must be 'int' or 'ColorStateList'. (test.Test.one)")
+        .in(source).onLine(5);
+  }
+}
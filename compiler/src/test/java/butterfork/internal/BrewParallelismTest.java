@@ -0,0 +1,138 @@
+package butterfork.internal;
+
+import com.google.common.base.Joiner;
+import com.google.testing.compile.JavaFileObjects;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.ToolProvider;
+
+import static com.google.common.base.Charsets.UTF_8;
+import static com.google.common.truth.Truth.ASSERT;
+import static com.google.testing.compile.JavaSourceSubjectFactory.javaSource;
+import static java.util.Collections.singletonList;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class BrewParallelismTest {
+  @Rule public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  private final List<JavaFileObject> sources = Arrays.asList(
+      JavaFileObjects.forSourceString("test.Base", Joiner.on('\n').join(
+          "package test;",
+          "import android.app.Activity;",
+          "import android.view.View;",
+          "import butterfork.Bind;",
+          "import butterfork.BindString;",
+          "import butterfork.OnClick;",
+          "public class Base extends Activity {",
+          "  @Bind(\"one\") View one;",
+          "  @BindString(\"one\") String title;",
+          "  @OnClick(\"one\") void click() {}",
+          "}")),
+      JavaFileObjects.forSourceString("test.Child", Joiner.on('\n').join(
+          "package test;",
+          "import android.view.View;",
+          "import butterfork.Bind;",
+          "import butterfork.OnLongClick;",
+          "public class Child extends Base {",
+          "  @Bind(\"two\") View two;",
+          "  @OnLongClick(\"two\") boolean longClick() {",
+          "    return true;",
+          "  }",
+          "}")),
+      JavaFileObjects.forSourceString("test.GrandChild", Joiner.on('\n').join(
+          "package test;",
+          "import android.widget.TextView;",
+          "import butterfork.Bind;",
+          "import butterfork.BindInt;",
+          "import java.util.List;",
+          "public class GrandChild extends Child {",
+          "  @Bind({\"three\", \"four\"}) List<TextView> texts;",
+          "  @BindInt(\"one\") int count;",
+          "}")),
+      JavaFileObjects.forSourceString("test.Themed", Joiner.on('\n').join(
+          "package test;",
+          "import android.view.View;",
+          "import butterfork.Bind;",
+          "import butterfork.BindThemeColor;",
+          "public class Themed {",
+          "  @Bind(\"zero\") View zero;",
+          "  @BindThemeColor(\"two\") int accent;",
+          "  @BindThemeColor(\"one\") int background;",
+          "}")),
+      JavaFileObjects.forSourceString("test.Outer", Joiner.on('\n').join(
+          "package test;",
+          "import android.view.View;",
+          "import butterfork.Bind;",
+          "import butterfork.OnFocusChange;",
+          "public class Outer {",
+          "  static class Inner {",
+          "    @Bind(\"one\") View one;",
+          "    @OnFocusChange(\"one\") void focus(boolean focused) {}",
+          "  }",
+          "}")));
+
+  @Test public void outputDoesNotDependOnParallelism() throws IOException {
+    Map<String, String> serial = generate("-Abrewparallelism=1");
+    Map<String, String> parallel = generate("-Abrewparallelism=4");
+
+    assertThat(serial.keySet()).contains("test/Base$$ViewBinder.java",
+        "test/Child$$ViewBinder.java", "test/GrandChild$$ViewBinder.java",
+        "test/Themed$$ViewBinder.java", "test/Outer$Inner$$ViewBinder.java");
+    assertThat(parallel).isEqualTo(serial);
+  }
+
+  @Test public void flattenedOutputDoesNotDependOnParallelism() throws IOException {
+    Map<String, String> serial = generate("-Abrewparallelism=1", "-Aflattenbinders=true");
+    Map<String, String> parallel = generate("-Abrewparallelism=4", "-Aflattenbinders=true");
+
+    assertThat(serial.get("test/GrandChild$$ViewBinder.java"))
+        .doesNotContain("extends Child$$ViewBinder");
+    assertThat(parallel).isEqualTo(serial);
+  }
+
+  @Test public void nonNumericParallelismRejected() {
+    ASSERT.about(javaSource())
+        .that(sources.get(3))
+        .withCompilerOptions("-Arespackagename=" + R.class.getPackage().getName(),
+            "-Abrewparallelism=many")
+        .processedWith(new ButterForkProcessor())
+        .failsToCompile()
+        .withErrorContaining("Option -Abrewparallelism must be a number but was 'many'.");
+  }
+
+  /** Generated sources keyed by their path below the source output directory. */
+  private Map<String, String> generate(String... options) throws IOException {
+    File generated = temporaryFolder.newFolder();
+    List<String> arguments = new ArrayList<>(Arrays.asList(options));
+    arguments.addAll(Arrays.asList("-proc:only", "-s", generated.getPath(),
+        "-classpath", System.getProperty("java.class.path"),
+        "-Arespackagename=" + R.class.getPackage().getName()));
+
+    JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+    JavaCompiler.CompilationTask task =
+        compiler.getTask(null, null, null, arguments, null, sources);
+    task.setProcessors(singletonList(new ButterForkProcessor()));
+    assertThat(task.call()).isTrue();
+
+    Map<String, String> files = new TreeMap<>();
+    File[] children = new File(generated, "test").listFiles();
+    for (File file : children) {
+      files.put("test/" + file.getName(), new String(Files.readAllBytes(file.toPath()), UTF_8));
+    }
+    return files;
+  }
+}
@@ -0,0 +1,227 @@
+package butterfork.internal;
+
+import com.google.common.base.Joiner;
+import com.google.testing.compile.JavaFileObjects;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import javax.tools.JavaFileObject;
+
+import static com.google.common.truth.Truth.ASSERT;
+import static com.google.testing.compile.JavaSourceSubjectFactory.javaSource;
+import static com.google.testing.compile.JavaSourcesSubjectFactory.javaSources;
+
+public class DeterministicOutputTest {
+  private static final List<String> MEMBERS = Arrays.asList(
+      "  @Bind(\"two\") TextView title;",
+      "  @OnClick(\"one\") void clickOne() {}",
+      "  @BindString(\"two\") String second;",
+      "  @Bind({\"three\", \"one\"}) List<View> group;",
+      "  @BindThemeColor(\"two\") int accent;",
+      "  @OnLongClick(\"two\") boolean longClickTwo() { return true; }",
+      "  @Bind(\"one\") View first;",
+      "  @BindDimen(\"one\") float spacing;",
+      "  @OnClick(\"two\") void clickTwo() {}",
+      "  @BindString(\"one\") String primary;",
+      "  @BindThemeColor(\"one\") int background;"
+  );
+
+  @Test public void outputDoesNotDependOnDeclarationOrder() {
+    JavaFileObject expectedSource = JavaFileObjects.forSourceString("test/Test$$ViewBinder",
+        Joiner.on('\n').join(
+            "package test;",
+            "import android.content.res.Resources;",
+            "import android.content.res.TypedArray;",
+            "import android.view.View;",
+            "import butterfork.ButterFork;",
+            "import butterfork.internal.DebouncingOnClickListener;",
+            "import butterfork.internal.R;",
+            "import java.lang.Object;",
+            "import java.lang.Override;",
+            "public class Test$$ViewBinder<T extends Test> implements ButterFork.ViewBinder<T>, ButterFork.ResourceBinder<T> {",
+            "  private static final int[] THEME_ATTRS = { R.attr.two, R.attr.one };",
+            "  private static final int[] THEME_ATTR_INDICES = ButterFork.Finder.sortAttrs(THEME_ATTRS);",
+            "  @Override public void bind(ButterFork.Finder finder, T target, Object source) {",
+            "    bindViews(finder, target, source);",
+            "    bindResources(finder, target, source);",
+            "  }",
+            "  @Override public void bindViews(final ButterFork.Finder finder, final T target, Object source) {",
+            "    View view;",
+            "    view = finder.findRequiredView(source, R.id.one, \"field 'first', method 'clickOne', and field 'group'\");",
+            "    View view_one = view;",
+            "    target.first = view;",
+            "    view.setOnClickListener(new DebouncingOnClickListener() {",
+            "      @Override public void doClick(View p0) {",
+            "        target.clickOne();",
+            "      }",
+            "    });",
+            "    view = finder.findRequiredView(source, R.id.two, \"field 'title', method 'longClickTwo', and method 'clickTwo'\");",
+            "    target.title = finder.castView(view, R.id.two, \"field 'title'\");",
+            "    view.setOnLongClickListener(new View.OnLongClickListener() {",
+            "      @Override public boolean onLongClick(View p0) {",
+            "        return target.longClickTwo();",
+            "      }",
+            "    });",
+            "    view.setOnClickListener(new DebouncingOnClickListener() {",
+            "      @Override public void doClick(View p0) {",
+            "        target.clickTwo();",
+            "      }",
+            "    });",
+            "    target.group = ButterFork.Finder.listOf(",
+            "        finder.<View>findRequiredView(source, R.id.three, \"field 'group'\"),",
+            "        view_one);",
+            "  }",
+            "  @Override public void bindResources(ButterFork.Finder finder, T target, Object source) {",
+            "    Resources res = finder.getContext(source).getResources();",
+            "    target.primary = res.getString(R.string.one);",
+            "    target.second = res.getString(R.string.two);",
+            "    target.spacing = res.getDimension(R.dimen.one);",
+            "    TypedArray attrs = finder.getContext(source).obtainStyledAttributes(THEME_ATTRS);",
+            "    target.accent = attrs.getColor(finder.requireAttr(source, attrs, THEME_ATTRS, THEME_ATTR_INDICES[0], \"field 'accent'\"), 0);",
+            "    target.background = attrs.getColor(finder.requireAttr(source, attrs, THEME_ATTRS, THEME_ATTR_INDICES[1], \"field 'background'\"), 0);",
+            "    attrs.recycle();",
+            "  }",
+            "  @Override public void unbind(T target) {",
+            "    target.first = null;",
+            "    target.title = null;",
+            "    target.group = null;",
+            "  }",
+            "}"
+        ));
+
+    Random random = new Random(2015);
+    List<String> members = new ArrayList<>(MEMBERS);
+    for (int i = 0; i < 5; i++) {
+      ASSERT.about(javaSource()).that(createSource(members))
+          .withCompilerOptions("-Arespackagename=" + R.class.getPackage().getName())
+          .processedWith(new ButterForkProcessor())
+          .compilesWithoutError()
+          .and()
+          .generatesSources(expectedSource);
+
+      Collections.shuffle(members, random);
+    }
+  }
+
+  @Test public void packageBinderDoesNotDependOnSourceOrder() {
+    JavaFileObject first = JavaFileObjects.forSourceString("test.A", Joiner.on('\n').join(
+        "package test;",
+        "import android.view.View;",
+        "import butterfork.Bind;",
+        "public class A {",
+        "  @Bind(\"one\") View thing;",
+        "}"
+    ));
+    JavaFileObject second = JavaFileObjects.forSourceString("test.Z", Joiner.on('\n').join(
+        "package test;",
+        "import android.view.View;",
+        "import butterfork.Bind;",
+        "public class Z {",
+        "  @Bind(\"two\") View other;",
+        "}"
+    ));
+
+    JavaFileObject expectedSource =
+        JavaFileObjects.forSourceString("test/ButterFork$$PackageBinder", Joiner.on('\n').join(
+            "package test;",
+            "import android.view.View;",
+            "import butterfork.ButterFork;",
+            "import butterfork.internal.R;",
+            "import java.lang.Class;",
+            "import java.lang.Object;",
+            "import java.lang.Override;",
+            "public final class ButterFork$$PackageBinder implements ButterFork.PackageBinder, ButterFork.ViewBinder<Object> {",
+            "  private final int index;",
+            "  public ButterFork$$PackageBinder() {",
+            "    this(-1);",
+            "  }",
+            "  private ButterFork$$PackageBinder(int index) {",
+            "    this.index = index;",
+            "  }",
+            "  @Override public ButterFork.ViewBinder<Object> get(Class<?> cls) {",
+            "    switch (cls.getName()) {",
+            "      case \"test.A\":",
+            "        return new ButterFork$$PackageBinder(0);",
+            "      case \"test.Z\":",
+            "        return new ButterFork$$PackageBinder(1);",
+            "      default:",
+            "        return null;",
+            "    }",
+            "  }",
+            "  @Override public void bind(ButterFork.Finder finder, Object target, Object source) {",
+            "    switch (index) {",
+            "      case 0:",
+            "        bind0(finder, (A) target, source);",
+            "        break;",
+            "      case 1:",
+            "        bind1(finder, (Z) target, source);",
+            "        break;",
+            "    }",
+            "  }",
+            "  @Override public void unbind(Object target) {",
+            "    switch (index) {",
+            "      case 0:",
+            "        unbind0((A) target);",
+            "        break;",
+            "      case 1:",
+            "        unbind1((Z) target);",
+            "        break;",
+            "    }",
+            "  }",
+            "  public static void bind0(final ButterFork.Finder finder, final A target, Object source) {",
+            "    View view;",
+            "    view = finder.findRequiredView(source, R.id.one, \"field 'thing'\");",
+            "    target.thing = view;",
+            "  }",
+            "  public static void unbind0(A target) {",
+            "    target.thing = null;",
+            "  }",
+            "  public static void bind1(final ButterFork.Finder finder, final Z target, Object source) {",
+            "    View view;",
+            "    view = finder.findRequiredView(source, R.id.two, \"field 'other'\");",
+            "    target.other = view;",
+            "  }",
+            "  public static void unbind1(Z target) {",
+            "    target.other = null;",
+            "  }",
+            "}"
+        ));
+
+    for (List<JavaFileObject> sources
+        : Arrays.asList(Arrays.asList(first, second), Arrays.asList(second, first))) {
+      ASSERT.about(javaSources()).that(sources)
+          .withCompilerOptions("-Arespackagename=" + R.class.getPackage().getName(),
+              "-Apackagebinders=true")
+          .processedWith(new ButterForkProcessor())
+          .compilesWithoutError()
+          .and()
+          .generatesSources(expectedSource);
+    }
+  }
+
+  private static JavaFileObject createSource(List<String> members) {
+    List<String> lines = new ArrayList<>(Arrays.asList(
+        "package test;",
+        "import android.app.Activity;",
+        "import android.view.View;",
+        "import android.widget.TextView;",
+        "import butterfork.Bind;",
+        "import butterfork.BindDimen;",
+        "import butterfork.BindString;",
+        "import butterfork.BindThemeColor;",
+        "import butterfork.OnClick;",
+        "import butterfork.OnLongClick;",
+        "import java.util.List;",
+        "public class Test extends Activity {"
+    ));
+    lines.addAll(members);
+    lines.add("}");
+    return JavaFileObjects.forSourceString("test.Test", Joiner.on('\n').join(lines));
+  }
+}
@@ -0,0 +1,259 @@
+package butterfork.internal;
+
+import com.google.common.base.Joiner;
+import com.google.testing.compile.JavaFileObjects;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import javax.tools.JavaFileObject;
+
+import static com.google.common.truth.Truth.ASSERT;
+import static com.google.testing.compile.JavaSourceSubjectFactory.javaSource;
+import static com.google.testing.compile.JavaSourcesSubjectFactory.javaSources;
+
+public class FlattenBindersTest {
+  @Test public void ancestorsInlined() {
+    JavaFileObject source = JavaFileObjects.forSourceString("test.Test", Joiner.on('\n').join(
+        "package test;",
+        "import android.app.Activity;",
+        "import android.view.View;",
+        "import butterfork.Bind;",
+        "import butterfork.BindString;",
+        "import butterfork.OnClick;",
+        "public class Test extends Activity {",
+        "  @Bind(\"one\") View thing;",
+        "  @BindString(\"one\") String one;",
+        "  @OnClick(\"one\") void doStuff() {}",
+        "}",
+        "class TestOne extends Test {",
+        "  @Bind(\"two\") View other;",
+        "}",
+        "class TestTwo extends TestOne {",
+        "  @BindString(\"two\") String two;",
+        "  @OnClick(\"one\") void doOtherStuff() {}",
+        "}"
+    ));
+
+    JavaFileObject expectedSource = JavaFileObjects.forSourceString("test/TestTwo$$ViewBinder",
+        Joiner.on('\n').join(
+            "package test;",
+            "import android.content.res.Resources;",
+            "import android.view.View;",
+            "import butterfork.ButterFork;",
+            "import butterfork.internal.DebouncingOnClickListener;",
+            "import butterfork.internal.R;",
+            "import java.lang.Object;",
+            "import java.lang.Override;",
+            "public class TestTwo$$ViewBinder<T extends TestTwo> implements ButterFork.ViewBinder<T>, ButterFork.ResourceBinder<T> {",
+            "  @Override public void bind(ButterFork.Finder finder, T target, Object source) {",
+            "    bindViews(finder, target, source);",
+            "    bindResources(finder, target, source);",
+            "  }",
+            "  @Override public void bindViews(final ButterFork.Finder finder, final T target, Object source) {",
+            "    View view;",
+            "    view = finder.findRequiredView(source, R.id.one, \"field 'thing' and method 'doOtherStuff'\");",
+            "    target.thing = view;",
+            "    view.setOnClickListener(new DebouncingOnClickListener() {",
+            "      @Override public void doClick(View p0) {",
+            "        target.doOtherStuff();",
+            "      }",
+            "    });",
+            "    view = finder.findRequiredView(source, R.id.two, \"field 'other'\");",
+            "    target.other = view;",
+            "  }",
+            "  @Override public void bindResources(ButterFork.Finder finder, T target, Object source) {",
+            "    Resources res = finder.getContext(source).getResources();",
+            "    target.one = res.getString(R.string.one);",
+            "    target.two = res.getString(R.string.two);",
+            "  }",
+            "  @Override public void unbind(T target) {",
+            "    target.thing = null;",
+            "    target.other = null;",
+            "  }",
+            "}"
+        ));
+
+    ASSERT.about(javaSource()).that(source)
+        .withCompilerOptions("-Arespackagename=" + R.class.getPackage().getName(),
+            "-Aflattenbinders=true")
+        .processedWith(new ButterForkProcessor())
+        .compilesWithoutError()
+        .and()
+        .generatesSources(expectedSource);
+  }
+
+  @Test public void ancestorInOtherPackageRemainsSuperclass() {
+    JavaFileObject parent = JavaFileObjects.forSourceString("base.Base", Joiner.on('\n').join(
+        "package base;",
+        "import android.app.Activity;",
+        "import android.view.View;",
+        "import butterfork.Bind;",
+        "public class Base extends Activity {",
+        "  @Bind(\"one\") protected View thing;",
+        "}"
+    ));
+    JavaFileObject source = JavaFileObjects.forSourceString("test.Test", Joiner.on('\n').join(
+        "package test;",
+        "import android.view.View;",
+        "import butterfork.Bind;",
+        "public class Test extends base.Base {",
+        "  @Bind(\"two\") View other;",
+        "}",
+        "class TestOne extends Test {",
+        "  @Bind(\"three\") View more;",
+        "}"
+    ));
+
+    JavaFileObject expectedSource = JavaFileObjects.forSourceString("test/TestOne$$ViewBinder",
+        Joiner.on('\n').join(
+            "package test;",
+            "import android.view.View;",
+            "import base.Base$$ViewBinder;",
+            "import butterfork.ButterFork;",
+            "import butterfork.internal.R;",
+            "import java.lang.Object;",
+            "import java.lang.Override;",
+            "public class TestOne$$ViewBinder<T extends TestOne> extends Base$$ViewBinder<T> {",
+            "  @Override public void bind(final ButterFork.Finder finder, final T target, Object source) {",
+            "    super.bind(finder, target, source);",
+            "    View view;",
+            "    view = finder.findRequiredView(source, R.id.three, \"field 'more'\");",
+            "    target.more = view;",
+            "    view = finder.findRequiredView(source, R.id.two, \"field 'other'\");",
+            "    target.other = view;",
+            "  }",
+            "  @Override public void unbind(T target) {",
+            "    super.unbind(target);",
+            "    target.more = null;",
+            "    target.other = null;",
+            "  }",
+            "}"
+        ));
+
+    ASSERT.about(javaSources()).that(Arrays.asList(parent, source))
+        .withCompilerOptions("-Arespackagename=" + R.class.getPackage().getName(),
+            "-Aflattenbinders=true")
+        .processedWith(new ButterForkProcessor())
+        .compilesWithoutError()
+        .and()
+        .generatesSources(expectedSource);
+  }
+
+  @Test public void ancestorBehindIntermediateInOtherPackageRemainsSuperclass() {
+    JavaFileObject source = JavaFileObjects.forSourceString("test.Test", Joiner.on('\n').join(
+        "package test;",
+        "import android.app.Activity;",
+        "import android.view.View;",
+        "import butterfork.Bind;",
+        "public class Test extends Activity {",
+        "  @Bind(\"one\") View thing;",
+        "}"
+    ));
+    JavaFileObject middle = JavaFileObjects.forSourceString("base.Middle", Joiner.on('\n').join(
+        "package base;",
+        "public class Middle extends test.Test {",
+        "}"
+    ));
+    JavaFileObject child = JavaFileObjects.forSourceString("test.TestOne", Joiner.on('\n').join(
+        "package test;",
+        "import android.view.View;",
+        "import butterfork.Bind;",
+        "public class TestOne extends base.Middle {",
+        "  @Bind(\"two\") View other;",
+        "}"
+    ));
+
+    // Test.thing is not inherited through base.Middle so it cannot be assigned to from here.
+    JavaFileObject expectedSource = JavaFileObjects.forSourceString("test/TestOne$$ViewBinder",
+        Joiner.on('\n').join(
+            "package test;",
+            "import android.view.View;",
+            "import butterfork.ButterFork;",
+            "import butterfork.internal.R;",
+            "import java.lang.Object;",
+            "import java.lang.Override;",
+            "public class TestOne$$ViewBinder<T extends TestOne> extends Test$$ViewBinder<T> {",
+            "  @Override public void bind(final ButterFork.Finder finder, final T target, Object source) {",
+            "    super.bind(finder, target, source);",
+            "    View view;",
+            "    view = finder.findRequiredView(source, R.id.two, \"field 'other'\");",
+            "    target.other = view;",
+            "  }",
+            "  @Override public void unbind(T target) {",
+            "    super.unbind(target);",
+            "    target.other = null;",
+            "  }",
+            "}"
+        ));
+
+    ASSERT.about(javaSources()).that(Arrays.asList(source, middle, child))
+        .withCompilerOptions("-Arespackagename=" + R.class.getPackage().getName(),
+            "-Aflattenbinders=true")
+        .processedWith(new ButterForkProcessor())
+        .compilesWithoutError()
+        .and()
+        .generatesSources(expectedSource);
+  }
+
+  @Test public void subclassInOtherPackageUsesFlattenedPackageBinder() {
+    JavaFileObject source = JavaFileObjects.forSourceString("test.Test", Joiner.on('\n').join(
+        "package test;",
+        "import android.app.Activity;",
+        "import android.view.View;",
+        "import butterfork.Bind;",
+        "public class Test extends Activity {",
+        "  @Bind(\"one\") View thing;",
+        "}"
+    ));
+    JavaFileObject middle = JavaFileObjects.forSourceString("test.TestOne", Joiner.on('\n').join(
+        "package test;",
+        "import android.view.View;",
+        "import butterfork.Bind;",
+        "public class TestOne extends Test {",
+        "  @Bind(\"two\") View other;",
+        "}"
+    ));
+    JavaFileObject child = JavaFileObjects.forSourceString("child.Child", Joiner.on('\n').join(
+        "package child;",
+        "import android.view.View;",
+        "import butterfork.Bind;",
+        "public class Child extends test.TestOne {",
+        "  @Bind(\"three\") View more;",
+        "}"
+    ));
+
+    // TestOne inlines Test, which leaves it without a parent so that it joins the package binder.
+    JavaFileObject expectedSource = JavaFileObjects.forSourceString("child/Child$$ViewBinder",
+        Joiner.on('\n').join(
+            "package child;",
+            "import android.view.View;",
+            "import butterfork.ButterFork;",
+            "import butterfork.internal.R;",
+            "import java.lang.Object;",
+            "import java.lang.Override;",
+            "import test.ButterFork$$PackageBinder;",
+            "public class Child$$ViewBinder<T extends Child> implements ButterFork.ViewBinder<T> {",
+            "  @Override public void bind(final ButterFork.Finder finder, final T target, Object source) {",
+            "    ButterFork$$PackageBinder.bind1(finder, target, source);",
+            "    View view;",
+            "    view = finder.findRequiredView(source, R.id.three, \"field 'more'\");",
+            "    target.more = view;",
+            "  }",
+            "  @Override public void unbind(T target) {",
+            "    ButterFork$$PackageBinder.unbind1(target);",
+            "    target.more = null;",
+            "  }",
+            "}"
+        ));
+
+    ASSERT.about(javaSources()).that(Arrays.asList(source, middle, child))
+        .withCompilerOptions("-Arespackagename=" + R.class.getPackage().getName(),
+            "-Aflattenbinders=true", "-Apackagebinders=true")
+        .processedWith(new ButterForkProcessor())
+        .compilesWithoutError()
+        .and()
+        .generatesSources(expectedSource);
+  }
+}
@@ -0,0 +1,80 @@
+package butterfork.internal;
+
+import com.google.common.base.Joiner;
+import com.google.common.io.ByteSource;
+import com.google.testing.compile.JavaFileObjects;
+
+import org.junit.Test;
+
+import javax.tools.JavaFileObject;
+import javax.tools.StandardLocation;
+
+import static com.google.common.base.Charsets.UTF_8;
+import static com.google.common.truth.Truth.ASSERT;
+import static com.google.testing.compile.JavaSourceSubjectFactory.javaSource;
+
+public class KeepRulesTest {
+  @Test public void rulesKeepBinderConstructorAndTargetName() {
+    JavaFileObject source = JavaFileObjects.forSourceString("test.Test", Joiner.on('\n').join(
+        "package test;",
+        "import android.view.View;",
+        "import butterfork.Bind;",
+        "public class Test {",
+        "  static class Holder {",
+        "    @Bind(\"one\") View thing;",
+        "  }",
+        "}"
+    ));
+
+    ASSERT.about(javaSource()).that(source)
+        .withCompilerOptions("-Arespackagename=" + R.class.getPackage().getName(),
+            "-Akeeprules=true")
+        .processedWith(new ButterForkProcessor())
+        .compilesWithoutError()
+        .and()
+        .generatesFileNamed(StandardLocation.CLASS_OUTPUT, "",
+            "META-INF/proguard/test.Test$Holder$$ViewBinder.pro")
+        .withContents(ByteSource.wrap(Joiner.on('\n').join(
+            "-keepnames class test.Test$Holder",
+            "-if class test.Test$Holder",
+            "-keep class test.Test$Holder$$ViewBinder {",
+            "    <init>();",
+            "}",
+            "").getBytes(UTF_8)));
+  }
+
+  @Test public void packageBinderRulesKeepEveryTargetName() {
+    JavaFileObject source = JavaFileObjects.forSourceString("test.Test", Joiner.on('\n').join(
+        "package test;",
+        "import android.view.View;",
+        "import butterfork.Bind;",
+        "public class Test {",
+        "  @Bind(\"one\") View thing;",
+        "  static class Holder {",
+        "    @Bind(\"two\") View other;",
+        "  }",
+        "}"
+    ));
+
+    ASSERT.about(javaSource()).that(source)
+        .withCompilerOptions("-Arespackagename=" + R.class.getPackage().getName(),
+            "-Apackagebinders=true", "-Akeeprules=true")
+        .processedWith(new ButterForkProcessor())
+        .compilesWithoutError()
+        .and()
+        .generatesFileNamed(StandardLocation.CLASS_OUTPUT, "",
+            "META-INF/proguard/test.ButterFork$$PackageBinder.pro")
+        .withContents(ByteSource.wrap(Joiner.on('\n').join(
+            "-keepnames class test.Test",
+            "-keepnames class test.Test$Holder",
+            "-if class test.Test",
+            "-keep class test.ButterFork$$PackageBinder {",
+            "    <init>();",
+            "}",
+            "-if class test.Test$Holder",
+            "-keep class test.ButterFork$$PackageBinder {",
+            "    <init>();",
+            "}",
+            "").getBytes(UTF_8)));
+  }
+}
@@ -0,0 +1,96 @@
+package butterfork.internal;
+
+import com.google.common.base.Joiner;
+import com.google.common.io.ByteSource;
+import com.google.testing.compile.JavaFileObjects;
+
+import org.junit.Test;
+
+import javax.tools.JavaFileObject;
+import javax.tools.StandardLocation;
+
+import static com.google.common.base.Charsets.UTF_8;
+import static com.google.common.truth.Truth.ASSERT;
+import static com.google.testing.compile.JavaSourceSubjectFactory.javaSource;
+
+public class LeanBindersTest {
+  @Test public void descriptionsMovedToSideTable() {
+    JavaFileObject source = JavaFileObjects.forSourceString("test.Test", Joiner.on('\n').join(
+        "package test;",
+        "import android.app.Activity;",
+        "import android.view.View;",
+        "import android.widget.TextView;",
+        "import butterfork.Bind;",
+        "import butterfork.OnClick;",
+        "import java.util.List;",
+        "public class Test extends Activity {",
+        "  @interface Nullable {}",
+        "  @Bind(\"one\") TextView title;",
+        "  @Nullable @Bind(\"two\") View optional;",
+        "  @Bind({\"three\", \"four\"}) List<TextView> rows;",
+        "  @OnClick(\"one\") void onTitle(TextView view) {}",
+        "}"
+    ));
+
+    JavaFileObject expectedSource = JavaFileObjects.forSourceString("test/Test$$ViewBinder",
+        Joiner.on('\n').join(
+            "package test;",
+            "import android.view.View;",
+            "import android.widget.TextView;",
+            "import butterfork.ButterFork;",
+            "import butterfork.internal.DebouncingOnClickListener;",
+            "import butterfork.internal.R;",
+            "import java.lang.Object;",
+            "import java.lang.Override;",
+            "public class Test$$ViewBinder<T extends Test> implements ButterFork.ViewBinder<T> {",
+            "  @Override public void bind(final ButterFork.Finder finder, final T target, Object source) {",
+            "    View view;",
+            "    view = finder.findViewById(source, R.id.one);",
+            "    if (view == null) {",
+            "      throw finder.missingView(source, R.id.one, Test$$ViewBinder.class, 0);",
+            "    }",
+            "    target.title = (TextView) view;",
+            "    view.setOnClickListener(new DebouncingOnClickListener() {",
+            "      @Override public void doClick(View p0) {",
+            "        target.onTitle((TextView) p0);",
+            "      }",
+            "    });",
+            "    view = finder.findViewById(source, R.id.two);",
+            "    target.optional = view;",
+            "    View view_four = finder.findViewById(source, R.id.four);",
+            "    if (view_four == null) {",
+            "      throw finder.missingView(source, R.id.four, Test$$ViewBinder.class, 1);",
+            "    }",
+            "    View view_three = finder.findViewById(source, R.id.three);",
+            "    if (view_three == null) {",
+            "      throw finder.missingView(source, R.id.three, Test$$ViewBinder.class, 1);",
+            "    }",
+            "    target.rows = ButterFork.Finder.listOf(",
+            "        (TextView) view_three,",
+            "        (TextView) view_four",
+            "    );",
+            "  }",
+            "  @Override public void unbind(T target) {",
+            "    target.title = null;",
+            "    target.optional = null;",
+            "    target.rows = null;",
+            "  }",
+            "}"
+        ));
+
+    ASSERT.about(javaSource()).that(source)
+        .withCompilerOptions("-Arespackagename=" + R.class.getPackage().getName(),
+            "-Aleanbinders=true")
+        .processedWith(new ButterForkProcessor())
+        .compilesWithoutError()
+        .and()
+        .generatesSources(expectedSource)
+        .and()
+        .generatesFileNamed(StandardLocation.SOURCE_OUTPUT, "", "butterfork-descriptions.txt")
+        .withContents(ByteSource.wrap(Joiner.on('\n').join(
+            "test.Test$$ViewBinder",
+            "  #0: field 'title' and method 'onTitle'",
+            "  #1: field 'rows'",
+            "").getBytes(UTF_8)));
+  }
+}
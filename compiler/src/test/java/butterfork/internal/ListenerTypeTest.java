@@ -0,0 +1,140 @@
+package butterfork.internal;
+
+import org.junit.Test;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Arrays;
+import java.util.List;
+
+import butterfork.OnCheckedChanged;
+import butterfork.OnClick;
+import butterfork.OnEditorAction;
+import butterfork.OnFocusChange;
+import butterfork.OnItemClick;
+import butterfork.OnItemLongClick;
+import butterfork.OnItemSelected;
+import butterfork.OnLongClick;
+import butterfork.OnPageChange;
+import butterfork.OnTextChanged;
+import butterfork.OnTouch;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ListenerTypeTest {
+  private static final List<Class<? extends Annotation>> LISTENERS = Arrays.asList(
+      OnCheckedChanged.class,
+      OnClick.class,
+      OnEditorAction.class,
+      OnFocusChange.class,
+      OnItemClick.class,
+      OnItemLongClick.class,
+      OnItemSelected.class,
+      OnLongClick.class,
+      OnPageChange.class,
+      OnTextChanged.class,
+      OnTouch.class
+  );
+
+  @Test public void tablesMatchMetadata() throws Exception {
+    for (Class<? extends Annotation> annotationClass : LISTENERS) {
+      ListenerClass listener = annotationClass.getAnnotation(ListenerClass.class);
+      ListenerType type = new ListenerType(annotationClass);
+      String name = annotationClass.getSimpleName();
+
+      assertThat(type.getTargetType()).as(name).isEqualTo(listener.targetType());
+      assertThat(type.getTargetTypeName().toString()).as(name).isEqualTo(listener.targetType());
+      assertThat(type.getSetter()).as(name).isEqualTo(listener.setter());
+      assertThat(type.getTypeName().toString()).as(name).isEqualTo(listener.type());
+
+      ListenerMethod[] methods;
+      if (listener.method().length == 1) {
+        methods = listener.method();
+      } else {
+        Enum<?>[] callbacks = listener.callbacks().getEnumConstants();
+        methods = new ListenerMethod[callbacks.length];
+        for (int i = 0; i < callbacks.length; i++) {
+          methods[i] = listener.callbacks()
+              .getField(callbacks[i].name())
+              .getAnnotation(ListenerMethod.class);
+          // Every enum constant selects the callback declared at its position.
+          Annotation annotation = annotationWithCallback(annotationClass, callbacks[i]);
+          assertThat(type.getCallback(annotation)).as(name + "." + callbacks[i])
+              .isSameAs(type.getCallbacks().get(i));
+        }
+      }
+      assertThat(type.getCallbacks()).as(name).hasSize(methods.length);
+      for (int i = 0; i < methods.length; i++) {
+        assertCallback(name, methods[i], type.getCallbacks().get(i));
+      }
+    }
+  }
+
+  @Test public void multipleCallbacks() {
+    List<ListenerCallback> itemSelected = new ListenerType(OnItemSelected.class).getCallbacks();
+    assertThat(itemSelected).hasSize(2);
+    assertThat(itemSelected.get(0).getName()).isEqualTo("onItemSelected");
+    assertThat(itemSelected.get(0).getParameterTypes()).containsExactly(
+        "android.widget.AdapterView<?>", "android.view.View", "int", "long");
+    assertThat(itemSelected.get(1).getName()).isEqualTo("onNothingSelected");
+    assertThat(itemSelected.get(1).getParameterTypes())
+        .containsExactly("android.widget.AdapterView<?>");
+
+    List<ListenerCallback> pageChange = new ListenerType(OnPageChange.class).getCallbacks();
+    assertThat(pageChange).hasSize(3);
+    assertThat(pageChange.get(0).getName()).isEqualTo("onPageSelected");
+    assertThat(pageChange.get(1).getName()).isEqualTo("onPageScrolled");
+    assertThat(pageChange.get(1).getParameterTypes()).containsExactly("int", "float", "int");
+    assertThat(pageChange.get(2).getName()).isEqualTo("onPageScrollStateChanged");
+    for (ListenerCallback callback : pageChange) {
+      assertThat(callback.hasReturnType()).as(callback.getName()).isFalse();
+    }
+  }
+
+  @Test public void returnTypeAndDefaultReturn() {
+    ListenerCallback longClick = new ListenerType(OnLongClick.class).getCallbacks().get(0);
+    assertThat(longClick.hasReturnType()).isTrue();
+    assertThat(longClick.getReturnType()).isEqualTo("boolean");
+    assertThat(longClick.getReturnTypeName().toString()).isEqualTo("boolean");
+    assertThat(longClick.getDefaultReturn()).isEqualTo("false");
+
+    ListenerCallback click = new ListenerType(OnClick.class).getCallbacks().get(0);
+    assertThat(click.hasReturnType()).isFalse();
+    assertThat(click.getReturnTypeName().toString()).isEqualTo("void");
+  }
+
+  private static void assertCallback(String listener, ListenerMethod method,
+      ListenerCallback callback) {
+    String name = listener + "." + method.name();
+    assertThat(callback.getName()).as(name).isEqualTo(method.name());
+    assertThat(callback.getReturnType()).as(name).isEqualTo(method.returnType());
+    assertThat(callback.getReturnTypeName().toString()).as(name).isEqualTo(method.returnType());
+    assertThat(callback.hasReturnType()).as(name).isEqualTo(!"void".equals(method.returnType()));
+    assertThat(callback.getDefaultReturn()).as(name).isEqualTo(method.defaultReturn());
+    assertThat(callback.getParameterTypes()).as(name).isEqualTo(method.parameters());
+    assertThat(callback.getParameterTypeNames()).as(name).hasSize(method.parameters().length);
+    for (int i = 0; i < method.parameters().length; i++) {
+      assertThat(callback.getParameterTypeNames()[i].toString()).as(name)
+          .isEqualTo(method.parameters()[i]);
+    }
+  }
+
+  /** The listener annotations are not retained at runtime so an instance is made by hand. */
+  private static Annotation annotationWithCallback(final Class<? extends Annotation> type,
+      final Enum<?> callback) {
+    return (Annotation) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] { type },
+        new InvocationHandler() {
+          @Override public Object invoke(Object proxy, Method method, Object[] args) {
+            if ("callback".equals(method.getName())) {
+              return callback;
+            }
+            if ("annotationType".equals(method.getName())) {
+              return type;
+            }
+            throw new UnsupportedOperationException(method.getName());
+          }
+        });
+  }
+}
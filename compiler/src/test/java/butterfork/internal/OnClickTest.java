@@ -199,10 +199,10 @@ public class OnClickTest {
             "public class Test$$ViewBinder<T extends Test> implements ButterFork.ViewBinder<T> {",
             "  @Override public void bind(final ButterFork.Finder finder, final T target, Object source) {",
             "    View view;",
-            "    view = finder.findRequiredView(source, R.id.zero, \"method 'click0'\");",
+            "    view = finder.findRequiredView(source, R.id.four, \"method 'click4'\");",
             "    view.setOnClickListener(new DebouncingOnClickListener() {",
             "      @Override public void doClick(View p0) {",
-            "        target.click0();",
+            "        target.click4(finder.<Test.TestInterface>castParam(p0, \"doClick\", 0, \"click4\", 0);",
             "      }",
             "    });",
             "    view = finder.findRequiredView(source, R.id.one, \"method 'click1'\");",
@@ -211,22 +211,22 @@ public class OnClickTest {
             "        target.click1(p0);",
             "      }",
             "    });",
-            "    view = finder.findRequiredView(source, R.id.two, \"method 'click2'\");",
+            "    view = finder.findRequiredView(source, R.id.three, \"method 'click3'\");",
             "    view.setOnClickListener(new DebouncingOnClickListener() {",
             "      @Override public void doClick(View p0) {",
-            "        target.click2(finder.<TextView>castParam(p0, \"doClick\", 0, \"click2\", 0));",
+            "        target.click3(finder.<Button>castParam(p0, \"doClick\", 0, \"click3\", 0);",
             "      }",
             "    });",
-            "    view = finder.findRequiredView(source, R.id.three, \"method 'click3'\");",
+            "    view = finder.findRequiredView(source, R.id.two, \"method 'click2'\");",
             "    view.setOnClickListener(new DebouncingOnClickListener() {",
             "      @Override public void doClick(View p0) {",
-            "        target.click3(finder.<Button>castParam(p0, \"doClick\", 0, \"click3\", 0);",
+            "        target.click2(finder.<TextView>castParam(p0, \"doClick\", 0, \"click2\", 0));",
             "      }",
             "    });",
-            "    view = finder.findRequiredView(source, R.id.four, \"method 'click4'\");",
+            "    view = finder.findRequiredView(source, R.id.zero, \"method 'click0'\");",
             "    view.setOnClickListener(new DebouncingOnClickListener() {",
             "      @Override public void doClick(View p0) {",
-            "        target.click4(finder.<Test.TestInterface>castParam(p0, \"doClick\", 0, \"click4\", 0);",
+            "        target.click0();",
             "      }",
             "    });",
             "  }",
@@ -272,13 +272,13 @@ public class OnClickTest {
             "        target.click();",
             "      }",
             "    });",
-            "    view = finder.findRequiredView(source, R.id.two, \"method 'click'\");",
+            "    view = finder.findRequiredView(source, R.id.three, \"method 'click'\");",
             "    view.setOnClickListener(new DebouncingOnClickListener() {",
             "      @Override public void doClick(View p0) {",
             "        target.click();",
             "      }",
             "    });",
-            "    view = finder.findRequiredView(source, R.id.three, \"method 'click'\");",
+            "    view = finder.findRequiredView(source, R.id.two, \"method 'click'\");",
             "    view.setOnClickListener(new DebouncingOnClickListener() {",
             "      @Override public void doClick(View p0) {",
             "        target.click();",
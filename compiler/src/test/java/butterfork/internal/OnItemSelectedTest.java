@@ -186,20 +186,20 @@ public class OnItemSelectedTest {
             "        target.onNothingSelected();",
             "      }",
             "    });",
-            "    view = finder.findRequiredView(source, R.id.two, \"method 'onItemSelected'\");",
+            "    view = finder.findRequiredView(source, R.id.three, \"method 'onNothingSelected'\");",
             "    ((AdapterView<?>) view).setOnItemSelectedListener(new AdapterView.OnItemSelectedListener() {",
             "      @Override public void onItemSelected(AdapterView<?> p0, View p1, int p2, long p3) {",
-            "        target.onItemSelected();",
             "      }",
             "      @Override public void onNothingSelected(AdapterView<?> p0) {",
+            "        target.onNothingSelected();",
             "      }",
             "    });",
-            "    view = finder.findRequiredView(source, R.id.three, \"method 'onNothingSelected'\");",
+            "    view = finder.findRequiredView(source, R.id.two, \"method 'onItemSelected'\");",
             "    ((AdapterView<?>) view).setOnItemSelectedListener(new AdapterView.OnItemSelectedListener() {",
             "      @Override public void onItemSelected(AdapterView<?> p0, View p1, int p2, long p3) {",
+            "        target.onItemSelected();",
             "      }",
             "      @Override public void onNothingSelected(AdapterView<?> p0) {",
-            "        target.onNothingSelected();",
             "      }",
             "    });",
             "  }",
@@ -0,0 +1,145 @@
+package butterfork.internal;
+
+import com.google.common.base.Joiner;
+import com.google.testing.compile.JavaFileObjects;
+
+import org.junit.Test;
+
+import javax.tools.JavaFileObject;
+
+import static com.google.common.truth.Truth.ASSERT;
+import static com.google.testing.compile.JavaSourceSubjectFactory.javaSource;
+
+public class PackageBindersTest {
+  @Test public void targetsShareOneBinderPerPackage() {
+    JavaFileObject source = JavaFileObjects.forSourceString("test.Test", Joiner.on('\n').join(
+        "package test;",
+        "import android.app.Activity;",
+        "import android.view.View;",
+        "import butterfork.Bind;",
+        "import butterfork.BindString;",
+        "public class Test extends Activity {",
+        "  @Bind(\"one\") View thing;",
+        "  static class Holder {",
+        "    @Bind(\"two\") View icon;",
+        "  }",
+        "}",
+        "class TestOne extends Test {",
+        "  @Bind(\"three\") View more;",
+        "  @BindString(\"one\") String name;",
+        "}"
+    ));
+
+    JavaFileObject packageSource =
+        JavaFileObjects.forSourceString("test/ButterFork$$PackageBinder", Joiner.on('\n').join(
+            "package test;",
+            "import android.view.View;",
+            "import butterfork.ButterFork;",
+            "import butterfork.internal.R;",
+            "import java.lang.Class;",
+            "import java.lang.Object;",
+            "import java.lang.Override;",
+            "public final class ButterFork$$PackageBinder"
+                + " implements ButterFork.PackageBinder, ButterFork.ViewBinder<Object> {",
+            "  private final int index;",
+            "  public ButterFork$$PackageBinder() {",
+            "    this(-1);",
+            "  }",
+            "  private ButterFork$$PackageBinder(int index) {",
+            "    this.index = index;",
+            "  }",
+            "  @Override public ButterFork.ViewBinder<Object> get(Class<?> cls) {",
+            "    switch (cls.getName()) {",
+            "      case \"test.Test\":",
+            "        return new ButterFork$$PackageBinder(0);",
+            "      case \"test.Test$Holder\":",
+            "        return new ButterFork$$PackageBinder(1);",
+            "      default:",
+            "        return null;",
+            "    }",
+            "  }",
+            "  @Override public void bind(ButterFork.Finder finder, Object target,"
+                + " Object source) {",
+            "    switch (index) {",
+            "      case 0:",
+            "        bind0(finder, (Test) target, source);",
+            "        break;",
+            "      case 1:",
+            "        bind1(finder, (Test.Holder) target, source);",
+            "        break;",
+            "    }",
+            "  }",
+            "  @Override public void unbind(Object target) {",
+            "    switch (index) {",
+            "      case 0:",
+            "        unbind0((Test) target);",
+            "        break;",
+            "      case 1:",
+            "        unbind1((Test.Holder) target);",
+            "        break;",
+            "    }",
+            "  }",
+            "  public static void bind0(final ButterFork.Finder finder, final Test target,"
+                + " Object source) {",
+            "    View view;",
+            "    view = finder.findRequiredView(source, R.id.one, \"field 'thing'\");",
+            "    target.thing = view;",
+            "  }",
+            "  public static void unbind0(Test target) {",
+            "    target.thing = null;",
+            "  }",
+            "  public static void bind1(final ButterFork.Finder finder, final Test.Holder target,"
+                + " Object source) {",
+            "    View view;",
+            "    view = finder.findRequiredView(source, R.id.two, \"field 'icon'\");",
+            "    target.icon = view;",
+            "  }",
+            "  public static void unbind1(Test.Holder target) {",
+            "    target.icon = null;",
+            "  }",
+            "}"
+        ));
+
+    JavaFileObject subclassSource = JavaFileObjects.forSourceString("test/TestOne$$ViewBinder",
+        Joiner.on('\n').join(
+            "package test;",
+            "import android.content.res.Resources;",
+            "import android.view.View;",
+            "import butterfork.ButterFork;",
+            "import butterfork.internal.R;",
+            "import java.lang.Object;",
+            "import java.lang.Override;",
+            "public class TestOne$$ViewBinder<T extends TestOne>"
+                + " implements ButterFork.ViewBinder<T>, ButterFork.ResourceBinder<T> {",
+            "  @Override public void bind(ButterFork.Finder finder, T target, Object source) {",
+            "    bindViews(finder, target, source);",
+            "    bindResources(finder, target, source);",
+            "  }",
+            "  @Override public void bindViews(final ButterFork.Finder finder, final T target,"
+                + " Object source) {",
+            "    ButterFork$$PackageBinder.bind0(finder, target, source);",
+            "    View view;",
+            "    view = finder.findRequiredView(source, R.id.three, \"field 'more'\");",
+            "    target.more = view;",
+            "  }",
+            "  @Override public void bindResources(ButterFork.Finder finder, T target,"
+                + " Object source) {",
+            "    Resources res = finder.getContext(source).getResources();",
+            "    target.name = res.getString(R.string.one);",
+            "  }",
+            "  @Override public void unbind(T target) {",
+            "    ButterFork$$PackageBinder.unbind0(target);",
+            "    target.more = null;",
+            "  }",
+            "}"
+        ));
+
+    ASSERT.about(javaSource()).that(source)
+        .withCompilerOptions("-Arespackagename=" + R.class.getPackage().getName(),
+            "-Apackagebinders=true")
+        .processedWith(new ButterForkProcessor())
+        .compilesWithoutError()
+        .and()
+        .generatesSources(packageSource, subclassSource);
+  }
+}
@@ -0,0 +1,120 @@
+package butterfork.internal;
+
+import com.google.common.base.Joiner;
+import com.google.testing.compile.JavaFileObjects;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Set;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.TypeElement;
+import javax.tools.JavaFileObject;
+
+import static com.google.common.truth.Truth.ASSERT;
+import static com.google.testing.compile.JavaSourceSubjectFactory.javaSource;
+
+public class ProcessingRoundsTest {
+  @Test public void lateSubclassWiredToEarlierParent() {
+    JavaFileObject source = JavaFileObjects.forSourceString("test.Test", Joiner.on('\n').join(
+        "package test;",
+        "import android.app.Activity;",
+        "import android.view.View;",
+        "import butterfork.Bind;",
+        "public class Test extends Activity {",
+        "  @Bind(\"one\") View thing;",
+        "}"
+    ));
+
+    JavaFileObject expectedSource1 = JavaFileObjects.forSourceString("test/Test$$ViewBinder",
+        Joiner.on('\n').join(
+            "package test;",
+            "import android.view.View;",
+            "import butterfork.ButterFork;",
+            "import butterfork.internal.R;",
+            "import java.lang.Object;",
+            "import java.lang.Override;",
+            "public class Test$$ViewBinder<T extends Test> implements ButterFork.ViewBinder<T> {",
+            "  @Override public void bind(final ButterFork.Finder finder, final T target, Object source) {",
+            "    View view;",
+            "    view = finder.findRequiredView(source, R.id.one, \"field 'thing'\");",
+            "    target.thing = view;",
+            "  }",
+            "  @Override public void unbind(T target) {",
+            "    target.thing = null;",
+            "  }",
+            "}"
+        ));
+
+    JavaFileObject expectedSource2 = JavaFileObjects.forSourceString("test/Late$$ViewBinder",
+        Joiner.on('\n').join(
+            "package test;",
+            "import android.view.View;",
+            "import butterfork.ButterFork;",
+            "import butterfork.internal.R;",
+            "import java.lang.Object;",
+            "import java.lang.Override;",
+            "public class Late$$ViewBinder<T extends Late> extends Test$$ViewBinder<T> {",
+            "  @Override public void bind(final ButterFork.Finder finder, final T target, Object source) {",
+            "    super.bind(finder, target, source);",
+            "    View view;",
+            "    view = finder.findRequiredView(source, R.id.two, \"field 'other'\");",
+            "    target.other = view;",
+            "  }",
+            "  @Override public void unbind(T target) {",
+            "    super.unbind(target);",
+            "    target.other = null;",
+            "  }",
+            "}"
+        ));
+
+    ASSERT.about(javaSource()).that(source)
+        .withCompilerOptions("-Arespackagename=" + R.class.getPackage().getName())
+        .processedWith(Arrays.asList(new ButterForkProcessor(), new LateSubclassProcessor()))
+        .compilesWithoutError()
+        .and()
+        .generatesSources(expectedSource1, expectedSource2);
+  }
+
+  /** Generates a bound subclass of {@code test.Test} so that it only appears in the next round. */
+  static final class LateSubclassProcessor extends AbstractProcessor {
+    private boolean generated;
+
+    @Override public Set<String> getSupportedAnnotationTypes() {
+      return Collections.singleton("*");
+    }
+
+    @Override public SourceVersion getSupportedSourceVersion() {
+      return SourceVersion.latestSupported();
+    }
+
+    @Override public boolean process(Set<? extends TypeElement> elements, RoundEnvironment env) {
+      if (generated) {
+        return false;
+      }
+      generated = true;
+      try {
+        JavaFileObject file = processingEnv.getFiler().createSourceFile("test.Late");
+        Writer writer = file.openWriter();
+        writer.write(Joiner.on('\n').join(
+            "package test;",
+            "import android.view.View;",
+            "import butterfork.Bind;",
+            "public class Late extends Test {",
+            "  @Bind(\"two\") View other;",
+            "}"
+        ));
+        writer.close();
+      } catch (IOException e) {
+        throw new AssertionError(e);
+      }
+      return false;
+    }
+  }
+}
@@ -0,0 +1,117 @@
+package butterfork.internal;
+
+import com.google.testing.compile.JavaFileObjects;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.ToolProvider;
+
+import static java.util.Collections.singletonList;
+
+/**
+ * Times annotation processing of a fixed set of generated targets, once per set of processor
+ * options. Every run sees the same sources so timings are comparable across runs and machines.
+ * Run it with {@code ./gradlew :compiler:benchmark}. Option sets are separated by spaces and the
+ * options within a set by commas, e.g.
+ * {@code -PbenchmarkArgs="-Abrewparallelism=1 -Abrewparallelism=4,-Aflattenbinders=true"}.
+ */
+public final class ProcessorBenchmark {
+  private static final int TARGETS = 200;
+  private static final int WARMUP = 5;
+  private static final int MEASURED = 15;
+  private static final String[] IDS = { "zero", "one", "two", "three", "four" };
+
+  public static void main(String[] args) throws IOException {
+    List<String> optionSets = args.length > 0
+        ? Arrays.asList(args)
+        : Arrays.asList("-Abrewparallelism=1", "-Abrewparallelism=4");
+    List<JavaFileObject> sources = sources();
+    for (String optionSet : optionSets) {
+      List<String> options = Arrays.asList(optionSet.split(","));
+      for (int i = 0; i < WARMUP; i++) {
+        process(sources, options);
+      }
+      long[] nanos = new long[MEASURED];
+      for (int i = 0; i < MEASURED; i++) {
+        nanos[i] = process(sources, options);
+      }
+      Arrays.sort(nanos);
+      System.out.printf("%-40s median %6.1f ms, min %6.1f ms (%d targets, %d runs)%n", optionSet,
+          nanos[MEASURED / 2] / 1e6, nanos[0] / 1e6, TARGETS, MEASURED);
+    }
+  }
+
+  /**
+   * Targets in groups of three per package, the last of each group extending the one before so
+   * superclass lookups and flattening have something to do.
+   */
+  private static List<JavaFileObject> sources() {
+    List<JavaFileObject> sources = new ArrayList<>(TARGETS);
+    for (int i = 0; i < TARGETS; i++) {
+      String packageName = "bench" + i / 3 % 4;
+      String parent = i % 3 == 2 ? "Target" + (i - 1) : "android.app.Activity";
+      StringBuilder source = new StringBuilder()
+          .append("package ").append(packageName).append(";\n")
+          .append("import android.view.View;\n")
+          .append("import android.widget.TextView;\n")
+          .append("import butterfork.*;\n")
+          .append("public class Target").append(i).append(" extends ").append(parent)
+          .append(" {\n");
+      for (int j = 0; j < IDS.length; j++) {
+        source.append("  @Bind(\"").append(IDS[j]).append("\") TextView view")
+            .append(i).append('_').append(j).append(";\n");
+      }
+      source.append("  @BindString(\"one\") String title").append(i).append(";\n")
+          .append("  @BindThemeColor(\"one\") int accent").append(i).append(";\n")
+          .append("  @OnClick({\"one\", \"two\"}) void click").append(i).append("(View v) {}\n")
+          .append("  @OnItemSelected(\"three\") void selected").append(i).append("(int p) {}\n")
+          .append("}\n");
+      sources.add(JavaFileObjects.forSourceString(packageName + ".Target" + i,
+          source.toString()));
+    }
+    return sources;
+  }
+
+  private static long process(List<JavaFileObject> sources, List<String> options)
+      throws IOException {
+    File generated = Files.createTempDirectory("butterfork-benchmark").toFile();
+    List<String> arguments = new ArrayList<>(options);
+    arguments.addAll(Arrays.asList("-proc:only", "-s", generated.getPath(),
+        "-classpath", System.getProperty("java.class.path"),
+        "-Arespackagename=" + R.class.getPackage().getName()));
+
+    JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+    JavaCompiler.CompilationTask task =
+        compiler.getTask(null, null, null, arguments, null, sources);
+    task.setProcessors(singletonList(new ButterForkProcessor()));
+    long start = System.nanoTime();
+    boolean success = task.call();
+    long nanos = System.nanoTime() - start;
+    delete(generated);
+    if (!success) {
+      throw new IllegalStateException("Processing failed with options " + options);
+    }
+    return nanos;
+  }
+
+  private static void delete(File file) {
+    File[] children = file.listFiles();
+    if (children != null) {
+      for (File child : children) {
+        delete(child);
+      }
+    }
+    file.delete();
+  }
+
+  private ProcessorBenchmark() {
+    throw new AssertionError("No instances.");
+  }
+}
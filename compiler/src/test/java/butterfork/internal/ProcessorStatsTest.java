@@ -0,0 +1,65 @@
+package butterfork.internal;
+
+import com.google.common.base.Joiner;
+import com.google.testing.compile.JavaFileObjects;
+
+import org.junit.Test;
+
+import javax.tools.JavaFileObject;
+import javax.tools.StandardLocation;
+
+import static com.google.common.truth.Truth.ASSERT;
+import static com.google.testing.compile.JavaSourceSubjectFactory.javaSource;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ProcessorStatsTest {
+  @Test public void reportWrittenWhenEnabled() {
+    JavaFileObject source = JavaFileObjects.forSourceString("test.Test", Joiner.on('\n').join(
+        "package test;",
+        "import android.app.Activity;",
+        "import android.view.View;",
+        "import butterfork.Bind;",
+        "import butterfork.OnClick;",
+        "public class Test extends Activity {",
+        "  @Bind(\"one\") View thing;",
+        "  @OnClick(\"two\") void doStuff() {}",
+        "}"
+    ));
+
+    ASSERT.about(javaSource()).that(source)
+        .withCompilerOptions("-Arespackagename=" + R.class.getPackage().getName(),
+            "-Aprocessorstats=true")
+        .processedWith(new ButterForkProcessor())
+        .compilesWithoutError()
+        .and()
+        .generatesFileNamed(StandardLocation.SOURCE_OUTPUT, "", "butterfork-stats.json");
+  }
+
+  @Test public void jsonReport() {
+    ProcessorStats stats = new ProcessorStats(true);
+    stats.beginPhase();
+    stats.endParsePhase("Bind", 2);
+    stats.beginPhase();
+    stats.endParsePhase("OnClick", 1);
+    stats.addRound(1);
+    stats.addGeneratedBytes(100);
+
+    String json = stats.toJson();
+    assertThat(json).contains("\"rounds\": 1,")
+        .contains("\"targets\": 1,")
+        .contains("\"bindings\": 3,")
+        .contains("\"generatedBytes\": 100,")
+        .contains("\"Bind\": 2,")
+        .contains("\"OnClick\": 1\n")
+        .contains("\"parse @Bind\": ");
+    assertThat(stats.toSummary()).startsWith("Butter Fork processed 3 bindings in 1 targets");
+  }
+
+  @Test public void disabledRecordsNoPhases() {
+    ProcessorStats stats = new ProcessorStats(false);
+    stats.beginPhase();
+    stats.endParsePhase("Bind", 2);
+
+    assertThat(stats.toJson()).contains("\"bindings\": 0,").doesNotContain("parse @Bind");
+  }
+}
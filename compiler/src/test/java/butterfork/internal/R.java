@@ -5,9 +5,19 @@ package butterfork.internal;
  */
 public final class R {
 
+  public static final class anim {
+    public static int one = 1;
+  }
+  public static final class animator {
+    public static int one = 1;
+  }
   public static final class array {
     public static int one = 1;
   }
+  public static final class attr {
+    public static int one = 1;
+    public static int two = 2;
+  }
   public static final class drawable {
     public static int one = 1;
   }
@@ -25,6 +35,7 @@ public final class R {
   }
   public static final class string {
     public static int one = 1;
+    public static int two = 2;
   }
   public static final class id {
     public static int zero = 0;
@@ -32,5 +43,16 @@ public final class R {
     public static int two = 2;
     public static int three = 3;
     public static int four = 4;
+    public static int five = 5;
+    public static int six = 6;
+    public static int seven = 7;
+    public static int eight = 8;
+    public static int nine = 9;
+    public static int ten = 10;
+    public static int eleven = 11;
+    public static int twelve = 12;
+    public static int thirteen = 13;
+    public static int fourteen = 14;
+    public static int fifteen = 15;
   }
 }
@@ -0,0 +1,150 @@
+package butterfork.internal;
+
+import com.google.testing.compile.JavaFileObjects;
+
+import java.lang.annotation.Annotation;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.TypeElement;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.ToolProvider;
+
+import static java.util.Collections.singletonList;
+
+/**
+ * Compares finding the elements of every supported annotation with a single {@link
+ * AnnotatedElements} pass against one {@code getElementsAnnotatedWith} call per annotation type.
+ * The same generated sources are scanned every run. Run it with
+ * {@code ./gradlew :compiler:scanBenchmark}.
+ */
+public final class ScanBenchmark {
+  private static final int TARGETS = 300;
+  private static final int WARMUP = 20;
+  private static final int MEASURED = 50;
+
+  public static void main(String[] args) throws ClassNotFoundException {
+    Set<String> annotationTypes = new ButterForkProcessor().getSupportedAnnotationTypes();
+    List<Class<? extends Annotation>> annotationClasses = new ArrayList<>();
+    for (String annotationType : annotationTypes) {
+      annotationClasses.add(Class.forName(annotationType).asSubclass(Annotation.class));
+    }
+
+    Timing timing = new Timing(annotationTypes, annotationClasses);
+    JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+    JavaCompiler.CompilationTask task = compiler.getTask(null, null, null,
+        Arrays.asList("-proc:only", "-classpath", System.getProperty("java.class.path")), null,
+        sources());
+    task.setProcessors(singletonList(timing));
+    if (!task.call()) {
+      throw new IllegalStateException("Processing failed.");
+    }
+  }
+
+  /** Targets with a nested class each and members with and without annotations. */
+  private static List<JavaFileObject> sources() {
+    List<JavaFileObject> sources = new ArrayList<>(TARGETS);
+    for (int i = 0; i < TARGETS; i++) {
+      String source = "package bench;\n"
+          + "import android.view.View;\n"
+          + "import butterfork.*;\n"
+          + "public class Target" + i + " {\n"
+          + "  @Bind(\"one\") View one;\n"
+          + "  View plain;\n"
+          + "  @BindString(\"one\") String title;\n"
+          + "  @OnClick(\"one\") void click() {}\n"
+          + "  void plain() {}\n"
+          + "  static class Holder {\n"
+          + "    @Bind(\"two\") View two;\n"
+          + "    @OnLongClick(\"two\") boolean longClick() {\n"
+          + "      return true;\n"
+          + "    }\n"
+          + "    int count;\n"
+          + "  }\n"
+          + "}\n";
+      sources.add(JavaFileObjects.forSourceString("bench.Target" + i, source));
+    }
+    return sources;
+  }
+
+  private static final class Timing extends AbstractProcessor {
+    private final Set<String> annotationTypes;
+    private final List<Class<? extends Annotation>> annotationClasses;
+
+    Timing(Set<String> annotationTypes, List<Class<? extends Annotation>> annotationClasses) {
+      this.annotationTypes = annotationTypes;
+      this.annotationClasses = annotationClasses;
+    }
+
+    @Override public Set<String> getSupportedAnnotationTypes() {
+      return Collections.singleton("*");
+    }
+
+    @Override public SourceVersion getSupportedSourceVersion() {
+      return SourceVersion.latestSupported();
+    }
+
+    @Override public boolean process(Set<? extends TypeElement> annotations,
+        RoundEnvironment roundEnv) {
+      if (roundEnv.processingOver()) {
+        return false;
+      }
+      for (int i = 0; i < WARMUP; i++) {
+        scanOnce(roundEnv);
+        scanPerAnnotation(roundEnv);
+      }
+      long[] once = new long[MEASURED];
+      long[] perAnnotation = new long[MEASURED];
+      for (int i = 0; i < MEASURED; i++) {
+        once[i] = scanOnce(roundEnv);
+        perAnnotation[i] = scanPerAnnotation(roundEnv);
+      }
+      Arrays.sort(once);
+      Arrays.sort(perAnnotation);
+      System.out.printf("%-26s median %6.2f ms (%d targets, %d runs)%n", "AnnotatedElements",
+          once[MEASURED / 2] / 1e6, TARGETS, MEASURED);
+      System.out.printf("%-26s median %6.2f ms (%d targets, %d runs)%n",
+          "getElementsAnnotatedWith", perAnnotation[MEASURED / 2] / 1e6, TARGETS, MEASURED);
+      return false;
+    }
+
+    private long scanOnce(RoundEnvironment roundEnv) {
+      long start = System.nanoTime();
+      AnnotatedElements annotatedElements =
+          new AnnotatedElements(annotationTypes, roundEnv.getRootElements());
+      int count = 0;
+      for (Class<? extends Annotation> annotationClass : annotationClasses) {
+        count += annotatedElements.get(annotationClass).size();
+      }
+      return checked(System.nanoTime() - start, count);
+    }
+
+    private long scanPerAnnotation(RoundEnvironment roundEnv) {
+      long start = System.nanoTime();
+      int count = 0;
+      for (Class<? extends Annotation> annotationClass : annotationClasses) {
+        count += roundEnv.getElementsAnnotatedWith(annotationClass).size();
+      }
+      return checked(System.nanoTime() - start, count);
+    }
+
+    /** Both ways must find every annotated member of every target. */
+    private static long checked(long nanos, int count) {
+      if (count != TARGETS * 5) {
+        throw new IllegalStateException("Found " + count + " annotated elements.");
+      }
+      return nanos;
+    }
+  }
+
+  private ScanBenchmark() {
+    throw new AssertionError("No instances.");
+  }
+}
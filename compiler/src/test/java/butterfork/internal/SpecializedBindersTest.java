@@ -0,0 +1,82 @@
+package butterfork.internal;
+
+import com.google.common.base.Joiner;
+import com.google.testing.compile.JavaFileObjects;
+
+import org.junit.Test;
+
+import javax.tools.JavaFileObject;
+
+import static com.google.common.truth.Truth.ASSERT;
+import static com.google.testing.compile.JavaSourceSubjectFactory.javaSource;
+
+public class SpecializedBindersTest {
+  @Test public void viewPhaseSpecializedPerSource() {
+    JavaFileObject source = JavaFileObjects.forSourceString("test.Test", Joiner.on('\n').join(
+        "package test;",
+        "import android.app.Activity;",
+        "import android.widget.TextView;",
+        "import butterfork.Bind;",
+        "public class Test extends Activity {",
+        "  @Bind(\"one\") TextView title;",
+        "}"
+    ));
+
+    JavaFileObject expectedSource = JavaFileObjects.forSourceString("test/Test$$ViewBinder",
+        Joiner.on('\n').join(
+            "package test;",
+            "import android.app.Activity;",
+            "import android.app.Dialog;",
+            "import android.view.View;",
+            "import butterfork.ButterFork;",
+            "import butterfork.internal.R;",
+            "import java.lang.Object;",
+            "import java.lang.Override;",
+            "public class Test$$ViewBinder<T extends Test> implements ButterFork.SourceViewBinder<T> {",
+            "  @Override public void bind(final ButterFork.Finder finder, final T target, Object source) {",
+            "    View view;",
+            "    view = finder.findRequiredView(source, R.id.one, \"field 'title'\");",
+            "    target.title = finder.castView(view, R.id.one, \"field 'title'\");",
+            "  }",
+            "  @Override public void bind(final T target, Activity source) {",
+            "    final ButterFork.Finder finder = ButterFork.Finder.ACTIVITY;",
+            "    View view;",
+            "    view = source.findViewById(R.id.one);",
+            "    if (view == null) {",
+            "      throw finder.missingView(source, R.id.one, \"field 'title'\");",
+            "    }",
+            "    target.title = finder.castView(view, R.id.one, \"field 'title'\");",
+            "  }",
+            "  @Override public void bind(final T target, View source) {",
+            "    final ButterFork.Finder finder = ButterFork.Finder.VIEW;",
+            "    View view;",
+            "    view = source.findViewById(R.id.one);",
+            "    if (view == null) {",
+            "      throw finder.missingView(source, R.id.one, \"field 'title'\");",
+            "    }",
+            "    target.title = finder.castView(view, R.id.one, \"field 'title'\");",
+            "  }",
+            "  @Override public void bind(final T target, Dialog source) {",
+            "    final ButterFork.Finder finder = ButterFork.Finder.DIALOG;",
+            "    View view;",
+            "    view = source.findViewById(R.id.one);",
+            "    if (view == null) {",
+            "      throw finder.missingView(source, R.id.one, \"field 'title'\");",
+            "    }",
+            "    target.title = finder.castView(view, R.id.one, \"field 'title'\");",
+            "  }",
+            "  @Override public void unbind(T target) {",
+            "    target.title = null;",
+            "  }",
+            "}"
+        ));
+
+    ASSERT.about(javaSource()).that(source)
+        .withCompilerOptions("-Arespackagename=" + R.class.getPackage().getName(),
+            "-Aspecializedbinders=true")
+        .processedWith(new ButterForkProcessor())
+        .compilesWithoutError()
+        .and()
+        .generatesSources(expectedSource);
+  }
+}
@@ -0,0 +1,124 @@
+package butterfork.internal;
+
+import com.google.common.base.Joiner;
+import com.google.testing.compile.JavaFileObjects;
+
+import org.junit.Test;
+
+import javax.tools.JavaFileObject;
+
+import static com.google.common.truth.Truth.ASSERT;
+import static com.google.testing.compile.JavaSourceSubjectFactory.javaSource;
+
+public class StaticBindersTest {
+  @Test public void activityEntryPoints() {
+    JavaFileObject source = JavaFileObjects.forSourceString("test.Test", Joiner.on('\n').join(
+        "package test;",
+        "import android.app.Activity;",
+        "import android.os.Bundle;",
+        "import android.view.View;",
+        "import butterfork.Bind;",
+        "public class Test extends Activity {",
+        "  @Bind(\"one\") View thing;",
+        "  @Override protected void onCreate(Bundle savedInstanceState) {",
+        "    super.onCreate(savedInstanceState);",
+        "    Test_Binding.bind(this);",
+        "  }",
+        "}"
+    ));
+
+    JavaFileObject expectedSource = JavaFileObjects.forSourceString("test/Test_Binding",
+        Joiner.on('\n').join(
+            "package test;",
+            "import android.app.Activity;",
+            "import android.app.Dialog;",
+            "import android.view.View;",
+            "import butterfork.ButterFork;",
+            "import java.lang.AssertionError;",
+            "public final class Test_Binding {",
+            "  private static final Test$$ViewBinder<Test> BINDER = new Test$$ViewBinder<Test>();",
+            "  private Test_Binding() {",
+            "    throw new AssertionError(\"No instances.\");",
+            "  }",
+            "  public static void bind(Test target) {",
+            "    BINDER.bind(ButterFork.Finder.ACTIVITY, target, target);",
+            "  }",
+            "  public static void bind(Test target, Activity source) {",
+            "    BINDER.bind(ButterFork.Finder.ACTIVITY, target, source);",
+            "  }",
+            "  public static void bind(Test target, View source) {",
+            "    BINDER.bind(ButterFork.Finder.VIEW, target, source);",
+            "  }",
+            "  public static void bind(Test target, Dialog source) {",
+            "    BINDER.bind(ButterFork.Finder.DIALOG, target, source);",
+            "  }",
+            "  public static void unbind(Test target) {",
+            "    BINDER.unbind(target);",
+            "  }",
+            "}"
+        ));
+
+    ASSERT.about(javaSource()).that(source)
+        .withCompilerOptions("-Arespackagename=" + R.class.getPackage().getName(),
+            "-Astaticbinders=true")
+        .processedWith(new ButterForkProcessor())
+        .compilesWithoutError()
+        .and()
+        .generatesSources(expectedSource);
+  }
+
+  @Test public void specializedHolderEntryPoints() {
+    JavaFileObject source = JavaFileObjects.forSourceString("test.Test", Joiner.on('\n').join(
+        "package test;",
+        "import android.view.View;",
+        "import butterfork.Bind;",
+        "import butterfork.BindString;",
+        "public class Test {",
+        "  static class Holder {",
+        "    @Bind(\"one\") View thing;",
+        "    @BindString(\"one\") String label;",
+        "  }",
+        "}"
+    ));
+
+    JavaFileObject expectedSource = JavaFileObjects.forSourceString("test/Test$Holder_Binding",
+        Joiner.on('\n').join(
+            "package test;",
+            "import android.app.Activity;",
+            "import android.app.Dialog;",
+            "import android.view.View;",
+            "import butterfork.ButterFork;",
+            "import java.lang.AssertionError;",
+            "public final class Test$Holder_Binding {",
+            "  private static final Test$Holder$$ViewBinder<Test.Holder> BINDER =",
+            "      new Test$Holder$$ViewBinder<Test.Holder>();",
+            "  private Test$Holder_Binding() {",
+            "    throw new AssertionError(\"No instances.\");",
+            "  }",
+            "  public static void bind(Test.Holder target, Activity source) {",
+            "    BINDER.bind(target, source);",
+            "    BINDER.bindResources(ButterFork.Finder.ACTIVITY, target, source);",
+            "  }",
+            "  public static void bind(Test.Holder target, View source) {",
+            "    BINDER.bind(target, source);",
+            "    BINDER.bindResources(ButterFork.Finder.VIEW, target, source);",
+            "  }",
+            "  public static void bind(Test.Holder target, Dialog source) {",
+            "    BINDER.bind(target, source);",
+            "    BINDER.bindResources(ButterFork.Finder.DIALOG, target, source);",
+            "  }",
+            "  public static void unbind(Test.Holder target) {",
+            "    BINDER.unbind(target);",
+            "  }",
+            "}"
+        ));
+
+    ASSERT.about(javaSource()).that(source)
+        .withCompilerOptions("-Arespackagename=" + R.class.getPackage().getName(),
+            "-Astaticbinders=true", "-Aspecializedbinders=true")
+        .processedWith(new ButterForkProcessor())
+        .compilesWithoutError()
+        .and()
+        .generatesSources(expectedSource);
+  }
+}
@@ -0,0 +1,179 @@
+package butterfork.internal;
+
+import com.google.common.base.Joiner;
+import com.google.testing.compile.JavaFileObjects;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.JavaFileObject;
+
+import static com.google.common.truth.Truth.ASSERT;
+import static com.google.testing.compile.JavaSourceSubjectFactory.javaSource;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class SubtypeCacheTest {
+  private static final String VIEW_TYPE = "android.view.View";
+  private static final String ITERABLE_TYPE = "java.lang.Iterable<?>";
+
+  private final JavaFileObject source = JavaFileObjects.forSourceString("test.Test",
+      Joiner.on('\n').join(
+          "package test;",
+          "import android.widget.AdapterView;",
+          "import android.widget.CheckBox;",
+          "import java.util.List;",
+          "public class Test {",
+          "  void callback(AdapterView<?> parent, int position, Runnable runnable, CheckBox box,",
+          "      List<String> names, Generated generated) {}",
+          "}"
+      ));
+
+  @Test public void parameterizedType() {
+    check(new Check() {
+      @Override void run(SubtypeCache cache, List<TypeMirror> types, int round) {
+        TypeMirror parent = types.get(0);
+        assertThat(cache.isSubtype(parent, "android.widget.AdapterView<?>")).isTrue();
+        assertThat(cache.isSubtype(parent, VIEW_TYPE)).isTrue();
+        assertThat(cache.isSubtype(parent, "android.widget.AbsListView")).isFalse();
+        assertThat(cache.isSubtype(types.get(4), ITERABLE_TYPE)).isTrue();
+        assertThat(cache.isSubtype(types.get(4), VIEW_TYPE)).isFalse();
+      }
+    });
+  }
+
+  @Test public void primitiveMatchedByNameOnly() {
+    check(new Check() {
+      @Override void run(SubtypeCache cache, List<TypeMirror> types, int round) {
+        TypeMirror position = types.get(1);
+        assertThat(cache.isSubtype(position, "int")).isTrue();
+        assertThat(cache.isSubtype(position, "long")).isFalse();
+        assertThat(cache.isSubtype(position, "java.lang.Integer")).isFalse();
+        assertThat(cache.missCount()).isEqualTo(0);
+      }
+    });
+  }
+
+  @Test public void interfaces() {
+    check(new Check() {
+      @Override void run(SubtypeCache cache, List<TypeMirror> types, int round) {
+        assertThat(cache.isSubtype(types.get(2), "java.lang.Runnable")).isTrue();
+        assertThat(cache.isSubtype(types.get(2), VIEW_TYPE)).isFalse();
+        assertThat(cache.isSubtype(types.get(3), "android.widget.Checkable")).isTrue();
+        assertThat(cache.isSubtype(types.get(3), VIEW_TYPE)).isTrue();
+      }
+    });
+  }
+
+  @Test public void notYetGeneratedTypeNotRemembered() {
+    check(new Check() {
+      @Override void run(SubtypeCache cache, List<TypeMirror> types, int round) {
+        TypeMirror generated = types.get(5);
+        if (round == 0) {
+          assertThat(generated.getKind()).isEqualTo(TypeKind.ERROR);
+          assertThat(cache.isSubtype(generated, VIEW_TYPE)).isFalse();
+          assertThat(cache.missCount()).isEqualTo(0);
+        } else {
+          // The same cache answers for the generated type in the next round.
+          assertThat(cache.isSubtype(generated, VIEW_TYPE)).isTrue();
+          assertThat(cache.missCount()).isEqualTo(1);
+        }
+      }
+    });
+  }
+
+  @Test public void answersRemembered() {
+    check(new Check() {
+      @Override void run(SubtypeCache cache, List<TypeMirror> types, int round) {
+        if (round > 0) {
+          return;
+        }
+        assertThat(cache.isSubtype(types.get(0), VIEW_TYPE)).isTrue();
+        assertThat(cache.isSubtype(types.get(3), VIEW_TYPE)).isTrue();
+        assertThat(cache.isSubtype(types.get(0), "android.app.Dialog")).isFalse();
+        assertThat(cache.missCount()).isEqualTo(3);
+        assertThat(cache.hitCount()).isEqualTo(0);
+
+        assertThat(cache.isSubtype(types.get(0), VIEW_TYPE)).isTrue();
+        assertThat(cache.isSubtype(types.get(3), VIEW_TYPE)).isTrue();
+        assertThat(cache.isSubtype(types.get(0), "android.app.Dialog")).isFalse();
+        assertThat(cache.missCount()).isEqualTo(3);
+        assertThat(cache.hitCount()).isEqualTo(3);
+      }
+    });
+  }
+
+  /**
+   * Runs a check against the parameter types of {@code Test.callback} in every round. The first
+   * round generates the type of the last parameter.
+   */
+  private abstract static class Check extends AbstractProcessor {
+    private SubtypeCache cache;
+    private int round;
+
+    abstract void run(SubtypeCache cache, List<TypeMirror> types, int round);
+
+    @Override public Set<String> getSupportedAnnotationTypes() {
+      return Collections.singleton("*");
+    }
+
+    @Override public SourceVersion getSupportedSourceVersion() {
+      return SourceVersion.latestSupported();
+    }
+
+    @Override public boolean process(Set<? extends TypeElement> annotations,
+        RoundEnvironment roundEnv) {
+      if (roundEnv.processingOver()) {
+        return false;
+      }
+      if (cache == null) {
+        cache = new SubtypeCache(processingEnv.getElementUtils(), processingEnv.getTypeUtils());
+      }
+      TypeElement test = processingEnv.getElementUtils().getTypeElement("test.Test");
+      ExecutableElement callback = ElementFilter.methodsIn(test.getEnclosedElements()).get(0);
+      List<TypeMirror> types = new ArrayList<>();
+      for (VariableElement parameter : callback.getParameters()) {
+        types.add(parameter.asType());
+      }
+      run(cache, types, round);
+
+      if (round++ == 0) {
+        try {
+          JavaFileObject file = processingEnv.getFiler().createSourceFile("test.Generated");
+          Writer writer = file.openWriter();
+          writer.write("package test;\n"
+              + "public class Generated extends android.view.View {\n"
+              + "  public Generated() {\n"
+              + "    super(null);\n"
+              + "  }\n"
+              + "}\n");
+          writer.close();
+        } catch (IOException e) {
+          throw new RuntimeException(e);
+        }
+      }
+      return false;
+    }
+  }
+
+  private void check(Check check) {
+    ASSERT.about(javaSource())
+        .that(source)
+        .processedWith(check)
+        .compilesWithoutError();
+  }
+}
@@ -0,0 +1,205 @@
+package butterfork.internal;
+
+import com.google.common.base.Joiner;
+import com.google.testing.compile.JavaFileObjects;
+
+import org.junit.Test;
+
+import javax.tools.JavaFileObject;
+
+import static com.google.common.truth.Truth.ASSERT;
+import static com.google.testing.compile.JavaSourceSubjectFactory.javaSource;
+
+public class TableBindersTest {
+  @Test public void viewsAndClicksInTables() {
+    JavaFileObject source = JavaFileObjects.forSourceString("test.Test", Joiner.on('\n').join(
+        "package test;",
+        "import android.app.Activity;",
+        "import android.view.View;",
+        "import android.widget.TextView;",
+        "import butterfork.Bind;",
+        "import butterfork.OnClick;",
+        "import butterfork.OnLongClick;",
+        "public class Test extends Activity {",
+        "  @interface Nullable {}",
+        "  @Bind(\"one\") TextView title;",
+        "  @Nullable @Bind(\"two\") View optional;",
+        "  @OnClick(\"one\") void onTitle(TextView view) {}",
+        "  @OnClick(\"one\") void onTitleAgain() {}",
+        "  @OnLongClick({\"one\", \"three\"}) boolean onLong(View view) {",
+        "    return true;",
+        "  }",
+        "}"
+    ));
+
+    JavaFileObject expectedSource = JavaFileObjects.forSourceString("test/Test$$ViewBinder",
+        Joiner.on('\n').join(
+            "package test;",
+            "import android.view.View;",
+            "import android.widget.TextView;",
+            "import butterfork.internal.R;",
+            "import butterfork.internal.TableBinder;",
+            "import java.lang.Override;",
+            "import java.lang.String;",
+            "public class Test$$ViewBinder<T extends Test> extends TableBinder<T> {",
+            "  private static final int[] IDS = {",
+            "      R.id.one,",
+            "      R.id.three,",
+            "      R.id.two",
+            "  };",
+            "  private static final int[] KINDS = {",
+            "      TableBinder.FIELD | TableBinder.REQUIRED | TableBinder.LONG_CLICK"
+                + " | TableBinder.CLICK,",
+            "      TableBinder.REQUIRED | TableBinder.LONG_CLICK,",
+            "      TableBinder.FIELD",
+            "  };",
+            "  private static final String[] DESCRIPTIONS = {",
+            "      \"field 'title', method 'onLong', method 'onTitle', and method 'onTitleAgain'\",",
+            "      \"method 'onLong'\",",
+            "      null",
+            "  };",
+            "  public Test$$ViewBinder() {",
+            "    super(IDS, KINDS, DESCRIPTIONS);",
+            "  }",
+            "  @Override protected void setView(T target, int index, View view) {",
+            "    switch (index) {",
+            "      case 0:",
+            "        target.title = (TextView) view;",
+            "        break;",
+            "      case 2:",
+            "        target.optional = view;",
+            "        break;",
+            "    }",
+            "  }",
+            "  @Override protected void click(T target, int index, View view) {",
+            "    switch (index) {",
+            "      case 0:",
+            "        target.onTitle((TextView) view);",
+            "        target.onTitleAgain();",
+            "        break;",
+            "    }",
+            "  }",
+            "  @Override protected boolean longClick(T target, int index, View view) {",
+            "    switch (index) {",
+            "      case 0:",
+            "        return target.onLong(view);",
+            "      case 1:",
+            "        return target.onLong(view);",
+            "    }",
+            "    return false;",
+            "  }",
+            "}"
+        ));
+
+    ASSERT.about(javaSource()).that(source)
+        .withCompilerOptions("-Arespackagename=" + R.class.getPackage().getName(),
+            "-Atablebinders=true")
+        .processedWith(new ButterForkProcessor())
+        .compilesWithoutError()
+        .and()
+        .generatesSources(expectedSource);
+  }
+
+  @Test public void unsupportedListenerKeepsGeneratedCode() {
+    JavaFileObject source = JavaFileObjects.forSourceString("test.Test", Joiner.on('\n').join(
+        "package test;",
+        "import android.app.Activity;",
+        "import android.view.View;",
+        "import butterfork.Bind;",
+        "import butterfork.OnFocusChange;",
+        "public class Test extends Activity {",
+        "  @Bind(\"one\") View thing;",
+        "  @OnFocusChange(\"two\") void onFocus() {}",
+        "}"
+    ));
+
+    JavaFileObject expectedSource = JavaFileObjects.forSourceString("test/Test$$ViewBinder",
+        Joiner.on('\n').join(
+            "package test;",
+            "import android.view.View;",
+            "import butterfork.ButterFork;",
+            "import butterfork.internal.R;",
+            "import java.lang.Object;",
+            "import java.lang.Override;",
+            "public class Test$$ViewBinder<T extends Test> implements ButterFork.ViewBinder<T> {",
+            "  @Override public void bind(final ButterFork.Finder finder, final T target, Object source) {",
+            "    View view;",
+            "    view = finder.findRequiredView(source, R.id.one, \"field 'thing'\");",
+            "    target.thing = view;",
+            "    view = finder.findRequiredView(source, R.id.two, \"method 'onFocus'\");",
+            "    view.setOnFocusChangeListener(new View.OnFocusChangeListener() {",
+            "      @Override public void onFocusChange(View p0, boolean p1) {",
+            "        target.onFocus();",
+            "      }",
+            "    });",
+            "  }",
+            "  @Override public void unbind(T target) {",
+            "    target.thing = null;",
+            "  }",
+            "}"
+        ));
+
+    ASSERT.about(javaSource()).that(source)
+        .withCompilerOptions("-Arespackagename=" + R.class.getPackage().getName(),
+            "-Atablebinders=true")
+        .processedWith(new ButterForkProcessor())
+        .compilesWithoutError()
+        .and()
+        .generatesSources(expectedSource);
+  }
+
+  @Test public void leanBinderNotTableDriven() {
+    JavaFileObject source = JavaFileObjects.forSourceString("test.Test", Joiner.on('\n').join(
+        "package test;",
+        "import android.app.Activity;",
+        "import android.view.View;",
+        "import butterfork.Bind;",
+        "import butterfork.OnClick;",
+        "public class Test extends Activity {",
+        "  @Bind(\"one\") View title;",
+        "  @OnClick(\"two\") void onClick() {}",
+        "}"
+    ));
+
+    JavaFileObject expectedSource = JavaFileObjects.forSourceString("test/Test$$ViewBinder",
+        Joiner.on('\n').join(
+            "package test;",
+            "import android.view.View;",
+            "import butterfork.ButterFork;",
+            "import butterfork.internal.DebouncingOnClickListener;",
+            "import butterfork.internal.R;",
+            "import java.lang.Object;",
+            "import java.lang.Override;",
+            "public class Test$$ViewBinder<T extends Test> implements ButterFork.ViewBinder<T> {",
+            "  @Override public void bind(final ButterFork.Finder finder, final T target, Object source) {",
+            "    View view;",
+            "    view = finder.findViewById(source, R.id.one);",
+            "    if (view == null) {",
+            "      throw finder.missingView(source, R.id.one, Test$$ViewBinder.class, 0);",
+            "    }",
+            "    target.title = view;",
+            "    view = finder.findViewById(source, R.id.two);",
+            "    if (view == null) {",
+            "      throw finder.missingView(source, R.id.two, Test$$ViewBinder.class, 1);",
+            "    }",
+            "    view.setOnClickListener(new DebouncingOnClickListener() {",
+            "      @Override public void doClick(View p0) {",
+            "        target.onClick();",
+            "      }",
+            "    });",
+            "  }",
+            "  @Override public void unbind(T target) {",
+            "    target.title = null;",
+            "  }",
+            "}"
+        ));
+
+    ASSERT.about(javaSource()).that(source)
+        .withCompilerOptions("-Arespackagename=" + R.class.getPackage().getName(),
+            "-Aleanbinders=true", "-Atablebinders=true")
+        .processedWith(new ButterForkProcessor())
+        .compilesWithoutError()
+        .and()
+        .generatesSources(expectedSource);
+  }
+}
@@ -32,5 +32,9 @@ public class ViewBindingClassTest {
     @Override public String getDescription() {
       return description;
     }
+
+    @Override public String getName() {
+      return description;
+    }
   }
 }
@@ -28,7 +28,8 @@ public final class BindingClassBuilder {
 
   private static final String className = "B";
   private static final String[] SUPPORTED_TYPES = {
-      "array", "drawable", "bool", "color", "dimen", "integer", "string", "id"
+      "anim", "animator", "array", "attr", "drawable", "bool", "color", "dimen", "integer",
+      "string", "id"
   };
 
   private BindingClassBuilder() {